@@ -78,7 +78,18 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 UBS_LINK + "/create-ubs-record")
             .permitAll()
             .antMatchers(HttpMethod.GET,
-                UBS_LINK + "/management/**")
+                UBS_LINK + "/management/**",
+                "/actuator/metrics",
+                "/actuator/metrics/**")
+            .hasAnyRole("ADMIN", "MODERATOR")
+            .antMatchers(HttpMethod.POST,
+                UBS_LINK + "/management/clustering-jobs")
+            .hasAnyRole("ADMIN", "MODERATOR")
+            .antMatchers(HttpMethod.DELETE,
+                UBS_LINK + "/management/clustering-jobs/**")
+            .hasAnyRole("ADMIN", "MODERATOR")
+            .antMatchers(HttpMethod.POST,
+                UBS_LINK + "/management/courier-assignments")
             .hasAnyRole("ADMIN", "MODERATOR")
             .antMatchers(HttpMethod.GET,
                 UBS_LINK + "/**")
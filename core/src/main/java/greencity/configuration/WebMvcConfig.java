@@ -2,6 +2,8 @@ package greencity.configuration;
 
 import greencity.client.RestClient;
 import greencity.converters.UserArgumentResolver;
+import greencity.interceptors.StatementCountingInterceptor;
+import greencity.service.StatementCountingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +22,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private RestClient restClient;
 
+    @Autowired
+    private StatementCountingService statementCountingService;
+
     /**
      * Method for determining which locale is going to be used.
      *
@@ -48,6 +53,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
+        registry.addInterceptor(new StatementCountingInterceptor(statementCountingService));
     }
 
     @Override
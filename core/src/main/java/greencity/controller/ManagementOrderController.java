@@ -1,34 +1,54 @@
 package greencity.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import greencity.annotations.ApiPageable;
 import greencity.constants.HttpStatuses;
 import greencity.dto.*;
+import greencity.service.StatementCountingService;
+import greencity.service.ubs.ClusteringJobService;
+import greencity.service.ubs.CourierAssignmentService;
 import greencity.service.ubs.UBSManagementService;
 import io.swagger.annotations.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import javax.validation.Valid;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 @RestController
 @RequestMapping("/ubs/management")
 public class ManagementOrderController {
     private final UBSManagementService ubsManagementService;
+    private final ClusteringJobService clusteringJobService;
+    private final CourierAssignmentService courierAssignmentService;
+    private final StatementCountingService statementCountingService;
     private final ModelMapper mapper;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor with parameters.
      */
     @Autowired
-    public ManagementOrderController(UBSManagementService ubsManagementService, ModelMapper mapper) {
+    public ManagementOrderController(UBSManagementService ubsManagementService,
+        ClusteringJobService clusteringJobService, CourierAssignmentService courierAssignmentService,
+        StatementCountingService statementCountingService, ModelMapper mapper, ObjectMapper objectMapper) {
         this.ubsManagementService = ubsManagementService;
+        this.clusteringJobService = clusteringJobService;
+        this.courierAssignmentService = courierAssignmentService;
+        this.statementCountingService = statementCountingService;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -49,6 +69,34 @@ public class ManagementOrderController {
         @ApiIgnore Pageable pageable) {
         return ResponseEntity.status(HttpStatus.OK).body(ubsManagementService.getAllCertificates(pageable));
     }
+
+    /**
+     * Controller getting certificates following the given one in the order of
+     * {@link #allCertificates}, seeking them by creation date and code instead of
+     * skipping previous pages.
+     *
+     * @param cursor     {@link CertificateCursorDto} of the last certificate
+     *                   already read, empty for the first page.
+     * @param size       amount of certificates on the page.
+     * @param exactCount whether certificates should be counted exactly instead of
+     *                   being estimated.
+     * @return {@link CertificateKeysetPageDto}.
+     */
+    @ApiOperation(value = "Get certificates following the given one")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = CertificateKeysetPageDto.class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/getAllCertificates/keyset")
+    public ResponseEntity<CertificateKeysetPageDto> certificatesAfter(CertificateCursorDto cursor,
+        @RequestParam(required = false, defaultValue = "20") Integer size,
+        @RequestParam(required = false, defaultValue = "false") Boolean exactCount) {
+        return ResponseEntity.status(HttpStatus.OK)
+            .body(ubsManagementService.getCertificatesAfter(cursor, size, exactCount));
+    }
+
     /**
      * Controller getting all certificates with sorting possibility.
      *
@@ -89,10 +137,54 @@ public class ManagementOrderController {
         return ResponseEntity.status(HttpStatus.OK).body(ubsManagementService.getAllUndeliveredOrdersWithLiters());
     }
 
+    /**
+     * Controller streams undelivered orders grouped by coordinates, writing every
+     * group as soon as its orders are read from database.
+     *
+     * @return {@link StreamingResponseBody} with JSON array of
+     *         {@link GroupedOrderDto}.
+     */
+    @ApiOperation(value = "Stream all undelivered orders.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = GroupedOrderDto[].class),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/all-undelivered/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUndeliveredCoords() {
+        return ResponseEntity.status(HttpStatus.OK)
+            .contentType(MediaType.APPLICATION_JSON_UTF8)
+            .body(streamJsonArray(ubsManagementService::streamAllUndeliveredOrdersWithLiters));
+    }
+
+    /**
+     * Controller finds undelivered orders with address inside bounding box.
+     *
+     * @param area {@link BoundingBoxDto} borders of the area.
+     * @return list of {@link GroupedOrderDto}.
+     */
+    @ApiOperation(value = "Get undelivered orders inside bounding box.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = GroupedOrderDto[].class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/all-undelivered/area")
+    public ResponseEntity<List<GroupedOrderDto>> undeliveredCoordsWithin(@Valid BoundingBoxDto area) {
+        return ResponseEntity.status(HttpStatus.OK)
+            .body(ubsManagementService.getUndeliveredOrdersWithLitersWithin(area));
+    }
+
     /**
      * Controller groups undelivered orders.
      *
-     * @param radius {@link Double} preferred searching radius.
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param parallel {@link Boolean} whether city tiles should be clustered in
+     *                 parallel.
      * @return list of {@link CoordinatesDto}.
      * @author Oleh Bilonizhka
      */
@@ -106,9 +198,227 @@ public class ManagementOrderController {
     })
     @GetMapping("/group-undelivered")
     public ResponseEntity<List<GroupedOrderDto>> groupCoords(@RequestParam Double radius,
-        @RequestParam(required = false, defaultValue = "3000") Integer litres) {
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @RequestParam(required = false, defaultValue = "false") Boolean parallel) {
+        return ResponseEntity.status(HttpStatus.OK)
+            .body(ubsManagementService.getClusteredCoords(radius, litres, strategy, parallel));
+    }
+
+    /**
+     * Controller returns grouped undelivered orders with stops of every group
+     * ordered into route from receiving station.
+     *
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param parallel {@link Boolean} whether city tiles should be clustered in
+     *                 parallel.
+     * @return list of {@link RouteDto}.
+     */
+    @ApiOperation(value = "Get routes through grouped undelivered orders.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = RouteDto[].class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 404, message = HttpStatuses.NOT_FOUND)
+    })
+    @GetMapping("/group-undelivered/routes")
+    public ResponseEntity<List<RouteDto>> groupCoordsIntoRoutes(@RequestParam Double radius,
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @RequestParam(required = false, defaultValue = "false") Boolean parallel) {
+        return ResponseEntity.status(HttpStatus.OK)
+            .body(ubsManagementService.getClusteredRoutes(radius, litres, strategy, parallel));
+    }
+
+    /**
+     * Controller groups undelivered orders with address inside bounding box.
+     *
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param area     {@link BoundingBoxDto} borders of the area.
+     * @return list of {@link GroupedOrderDto}.
+     */
+    @ApiOperation(value = "Get grouped undelivered orders inside bounding box.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = GroupedOrderDto[].class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 404, message = HttpStatuses.NOT_FOUND)
+    })
+    @GetMapping("/group-undelivered/area")
+    public ResponseEntity<List<GroupedOrderDto>> groupCoordsWithin(@RequestParam Double radius,
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @Valid BoundingBoxDto area) {
+        return ResponseEntity.status(HttpStatus.OK)
+            .body(ubsManagementService.getClusteredCoords(radius, litres, strategy, area));
+    }
+
+    /**
+     * Controller streams grouped undelivered orders, writing every cluster as soon
+     * as its orders are read from database.
+     *
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param parallel {@link Boolean} whether city tiles should be clustered in
+     *                 parallel.
+     * @return {@link StreamingResponseBody} with JSON array of
+     *         {@link GroupedOrderDto}.
+     */
+    @ApiOperation(value = "Stream grouped undelivered orders.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = GroupedOrderDto[].class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/group-undelivered/stream")
+    public ResponseEntity<StreamingResponseBody> streamGroupCoords(@RequestParam Double radius,
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @RequestParam(required = false, defaultValue = "false") Boolean parallel) {
+        // once streaming starts the status is sent, so wrong parameters are rejected
+        // before it
+        ubsManagementService.checkClusteringParameters(radius, litres, strategy);
         return ResponseEntity.status(HttpStatus.OK)
-            .body(ubsManagementService.getClusteredCoords(radius, litres));
+            .contentType(MediaType.APPLICATION_JSON_UTF8)
+            .body(streamJsonArray(
+                consumer -> ubsManagementService.streamClusteredCoords(radius, litres, strategy, parallel, consumer)));
+    }
+
+    /**
+     * Controller starts asynchronous grouping of undelivered orders.
+     *
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param parallel {@link Boolean} whether city tiles should be clustered in
+     *                 parallel.
+     * @return {@link ClusteringJobDto} of started job.
+     */
+    @ApiOperation(value = "Start grouping of undelivered orders.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 202, message = HttpStatuses.ACCEPTED, response = ClusteringJobDto.class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 429, message = HttpStatuses.TOO_MANY_REQUESTS)
+    })
+    @PostMapping("/clustering-jobs")
+    public ResponseEntity<ClusteringJobDto> startClusteringJob(@RequestParam Double radius,
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @RequestParam(required = false, defaultValue = "false") Boolean parallel) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(clusteringJobService.start(radius, litres, strategy, parallel));
+    }
+
+    /**
+     * Controller groups undelivered orders into routes and distributes them between
+     * couriers.
+     *
+     * @param radius   {@link Double} preferred searching radius.
+     * @param litres   {@link Integer} preferred amount of litres.
+     * @param strategy {@link String} clustering strategy: mean-shift, dbscan or
+     *                 kmeans.
+     * @param parallel {@link Boolean} whether city tiles should be clustered in
+     *                 parallel.
+     * @return list of {@link CourierRoutesDto}.
+     */
+    @ApiOperation(value = "Assign routes through undelivered orders to couriers.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 201, message = HttpStatuses.CREATED, response = CourierRoutesDto[].class),
+        @ApiResponse(code = 400, message = HttpStatuses.BAD_REQUEST),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 404, message = HttpStatuses.NOT_FOUND)
+    })
+    @PostMapping("/courier-assignments")
+    public ResponseEntity<List<CourierRoutesDto>> assignCouriers(@RequestParam Double radius,
+        @RequestParam(required = false, defaultValue = "3000") Integer litres,
+        @RequestParam(required = false, defaultValue = "mean-shift") String strategy,
+        @RequestParam(required = false, defaultValue = "false") Boolean parallel) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(courierAssignmentService.assignCouriers(radius, litres, strategy, parallel));
+    }
+
+    /**
+     * Controller returns progress of grouping job and its result once it is done.
+     *
+     * @param id {@link String} id of the job.
+     * @return {@link ClusteringJobDto}.
+     */
+    @ApiOperation(value = "Get progress and result of grouping job.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = ClusteringJobDto.class),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 404, message = HttpStatuses.NOT_FOUND)
+    })
+    @GetMapping("/clustering-jobs/{id}")
+    public ResponseEntity<ClusteringJobDto> getClusteringJob(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.OK).body(clusteringJobService.get(id));
+    }
+
+    /**
+     * Controller cancels grouping job or removes finished one.
+     *
+     * @param id {@link String} id of the job.
+     * @return {@link ClusteringJobDto}.
+     */
+    @ApiOperation(value = "Cancel grouping job.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = ClusteringJobDto.class),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN),
+        @ApiResponse(code = 404, message = HttpStatuses.NOT_FOUND)
+    })
+    @DeleteMapping("/clustering-jobs/{id}")
+    public ResponseEntity<ClusteringJobDto> cancelClusteringJob(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.OK).body(clusteringJobService.cancel(id));
+    }
+
+    /**
+     * Controller returns statistics of cache of grouped undelivered orders.
+     *
+     * @return {@link CacheStatsDto}.
+     */
+    @ApiOperation(value = "Get statistics of grouped undelivered orders cache.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = CacheStatsDto.class),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/undelivered-cache-stats")
+    public ResponseEntity<CacheStatsDto> undeliveredCacheStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(ubsManagementService.getCacheStats());
+    }
+
+    /**
+     * Controller returns amount of SQL statements executed by every endpoint and
+     * scheduled job since start of the application.
+     *
+     * @return list of {@link StatementStatsDto}.
+     */
+    @ApiOperation(value = "Get amount of SQL statements executed by endpoints and scheduled jobs.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = HttpStatuses.OK, response = StatementStatsDto[].class),
+        @ApiResponse(code = 401, message = HttpStatuses.UNAUTHORIZED),
+        @ApiResponse(code = 403, message = HttpStatuses.FORBIDDEN)
+    })
+    @GetMapping("/statement-stats")
+    public ResponseEntity<List<StatementStatsDto>> statementStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(statementCountingService.getStatementStats());
     }
 
     /**
@@ -130,4 +440,31 @@ public class ManagementOrderController {
         return ResponseEntity.status(HttpStatus.OK)
             .body(ubsManagementService.getClusteredCoordsAlongWithSpecified(specified, litres, additionalDistance));
     }
+
+    /**
+     * Method writes groups passed by producer as JSON array, flushing the response
+     * after every group.
+     *
+     * @param producer producer of {@link GroupedOrderDto} passing them to given
+     *                 {@link Consumer}.
+     * @return {@link StreamingResponseBody}.
+     */
+    private StreamingResponseBody streamJsonArray(Consumer<Consumer<GroupedOrderDto>> producer) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+            producer.accept(group -> {
+                try {
+                    objectMapper.writeValue(generator, group);
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            // generator is not closed on failure, so nothing is written before the first
+            // group and the error is still reported with proper status
+            generator.close();
+        };
+    }
 }
@@ -5,8 +5,11 @@ import greencity.exceptions.BagNotFoundException;
 import greencity.exceptions.CertificateExpiredException;
 import greencity.exceptions.CertificateIsUsedException;
 import greencity.exceptions.CertificateNotFoundException;
+import greencity.exceptions.ClusteringJobNotFoundException;
+import greencity.exceptions.CouriersNotFoundException;
 import greencity.exceptions.IncorrectValueException;
 import greencity.exceptions.PaymentValidationException;
+import greencity.exceptions.TooManyClusteringJobsException;
 import greencity.exceptions.TooManyCertificatesEntered;
 import java.util.HashMap;
 import java.util.List;
@@ -149,6 +152,48 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponce);
     }
 
+    /**
+     * Method interceptor exception {@link ClusteringJobNotFoundException}.
+     *
+     * @return ResponseEntity which contain http status and body with message of
+     *         exception.
+     */
+    @ExceptionHandler(ClusteringJobNotFoundException.class)
+    public final ResponseEntity<Object> handleClusteringJobNotFoundException(ClusteringJobNotFoundException ex,
+        WebRequest webRequest) {
+        ExceptionResponce exceptionResponce = new ExceptionResponce(getErrorAttributes(webRequest));
+        log.trace(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponce);
+    }
+
+    /**
+     * Method interceptor exception {@link CouriersNotFoundException}.
+     *
+     * @return ResponseEntity which contain http status and body with message of
+     *         exception.
+     */
+    @ExceptionHandler(CouriersNotFoundException.class)
+    public final ResponseEntity<Object> handleCouriersNotFoundException(CouriersNotFoundException ex,
+        WebRequest webRequest) {
+        ExceptionResponce exceptionResponce = new ExceptionResponce(getErrorAttributes(webRequest));
+        log.trace(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponce);
+    }
+
+    /**
+     * Method interceptor exception {@link TooManyClusteringJobsException}.
+     *
+     * @return ResponseEntity which contain http status and body with message of
+     *         exception.
+     */
+    @ExceptionHandler(TooManyClusteringJobsException.class)
+    public final ResponseEntity<Object> handleTooManyClusteringJobsException(TooManyClusteringJobsException ex,
+        WebRequest webRequest) {
+        ExceptionResponce exceptionResponce = new ExceptionResponce(getErrorAttributes(webRequest));
+        log.trace(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(exceptionResponce);
+    }
+
     /**
      * Customize the response for HttpMessageNotReadableException.
      *
@@ -0,0 +1,55 @@
+package greencity.interceptors;
+
+import greencity.service.StatementCountingService;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts SQL statements executed by every request with
+ * {@link StatementCountingService} under the name of its method and mapping
+ * pattern. Statements of asynchronous request are counted until the handler
+ * returns, so bodies streamed by other threads are not included.
+ */
+@AllArgsConstructor
+public class StatementCountingInterceptor implements AsyncHandlerInterceptor {
+    private static final String SCOPE_OPENED = StatementCountingInterceptor.class.getName() + ".SCOPE_OPENED";
+
+    private final StatementCountingService statementCountingService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            statementCountingService.begin();
+            request.setAttribute(SCOPE_OPENED, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+        Object handler) {
+        end(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+        Exception ex) {
+        end(request);
+    }
+
+    private void end(HttpServletRequest request) {
+        if (request.getAttribute(SCOPE_OPENED) != null) {
+            request.removeAttribute(SCOPE_OPENED);
+            statementCountingService.end(name(request));
+        }
+    }
+
+    private static String name(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
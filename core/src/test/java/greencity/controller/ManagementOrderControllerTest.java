@@ -2,13 +2,35 @@ package greencity.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import static greencity.ModelUtils.getPrincipal;
+import greencity.dto.BoundingBoxDto;
+import greencity.dto.CertificateCursorDto;
 import greencity.dto.CertificateDtoForAdding;
+import greencity.dto.GroupedOrderDto;
+import greencity.dto.OrderDto;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.test.web.servlet.MvcResult;
+import greencity.service.ubs.ClusteringJobService;
+import greencity.service.ubs.CourierAssignmentService;
 import greencity.service.ubs.UBSManagementService;
+import greencity.service.StatementCountingService;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import greencity.client.RestClient;
 import greencity.configuration.SecurityConfig;
 import greencity.converters.UserArgumentResolver;
+import greencity.exception.handler.CustomExceptionHandler;
+import greencity.exceptions.IncorrectValueException;
 import greencity.service.ubs.UBSClientService;
 import java.security.Principal;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,9 +38,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -37,12 +61,24 @@ class ManagementOrderControllerTest {
     @Mock
     UBSManagementService ubsManagementService;
 
+    @Mock
+    ClusteringJobService clusteringJobService;
+
+    @Mock
+    CourierAssignmentService courierAssignmentService;
+
+    @Mock
+    StatementCountingService statementCountingService;
+
     @Mock
     RestClient restClient;
 
     @Mock
     private Validator mockValidator;
 
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     ManagementOrderController managementOrderController;
 
@@ -59,6 +95,7 @@ class ManagementOrderControllerTest {
         this.mockMvc = MockMvcBuilders.standaloneSetup(managementOrderController)
             .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
             .setValidator(mockValidator)
+            .setControllerAdvice(new CustomExceptionHandler(new DefaultErrorAttributes()))
             .build();
     }
 
@@ -72,6 +109,25 @@ class ManagementOrderControllerTest {
         verify(ubsManagementService).getAllCertificates(pageable);
     }
 
+    @Test
+    void certificatesAfterFirstPageTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/getAllCertificates/keyset"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getCertificatesAfter(new CertificateCursorDto(), 20, false);
+    }
+
+    @Test
+    void certificatesAfterCursorTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/getAllCertificates/keyset")
+            .param("creationDate", "2021-03-15")
+            .param("code", "1111-1234")
+            .param("size", "50")
+            .param("exactCount", "true"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getCertificatesAfter(
+            new CertificateCursorDto(LocalDate.of(2021, 3, 15), "1111-1234"), 50, true);
+    }
+
     @Test
     void addCertificateTest() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.post(ubsLink + "/addCertificate")
@@ -87,4 +143,132 @@ class ManagementOrderControllerTest {
         verify(ubsManagementService, times(1)).addCertificate(certificateDtoForAdding);
     }
 
+    @Test
+    void undeliveredCacheStatsTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/undelivered-cache-stats"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getCacheStats();
+    }
+
+    @Test
+    void statementStatsTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/statement-stats"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(statementCountingService).getStatementStats();
+    }
+
+    @Test
+    void groupCoordsIntoRoutesTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/group-undelivered/routes")
+            .param("radius", "2")
+            .param("litres", "500"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getClusteredRoutes(2, 500, "mean-shift", false);
+    }
+
+    @Test
+    void undeliveredCoordsWithinTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/all-undelivered/area")
+            .param("minLatitude", "49.8")
+            .param("maxLatitude", "49.9")
+            .param("minLongitude", "23.9")
+            .param("maxLongitude", "24.1"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getUndeliveredOrdersWithLitersWithin(new BoundingBoxDto(49.8, 49.9, 23.9, 24.1));
+    }
+
+    @Test
+    void groupCoordsWithinTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/group-undelivered/area")
+            .param("radius", "2")
+            .param("minLatitude", "49.8")
+            .param("maxLatitude", "49.9")
+            .param("minLongitude", "23.9")
+            .param("maxLongitude", "24.1"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(ubsManagementService).getClusteredCoords(2, 3000, "mean-shift",
+            new BoundingBoxDto(49.8, 49.9, 23.9, 24.1));
+    }
+
+    @Test
+    void startClusteringJobTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(ubsLink + "/clustering-jobs")
+            .param("radius", "2")
+            .param("strategy", "dbscan"))
+            .andExpect(MockMvcResultMatchers.status().isAccepted());
+        verify(clusteringJobService).start(2, 3000, "dbscan", false);
+    }
+
+    @Test
+    void assignCouriersTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(ubsLink + "/courier-assignments")
+            .param("radius", "2")
+            .param("parallel", "true"))
+            .andExpect(MockMvcResultMatchers.status().isCreated());
+        verify(courierAssignmentService).assignCouriers(2, 3000, "mean-shift", true);
+    }
+
+    @Test
+    void getClusteringJobTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/clustering-jobs/{id}", "job"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(clusteringJobService).get("job");
+    }
+
+    @Test
+    void cancelClusteringJobTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete(ubsLink + "/clustering-jobs/{id}", "job"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        verify(clusteringJobService).cancel("job");
+    }
+
+    @Test
+    void streamAllUndeliveredCoordsTest() throws Exception {
+        List<GroupedOrderDto> groups = List.of(
+            GroupedOrderDto.builder().amountOfLitres(20)
+                .groupOfOrders(List.of(OrderDto.builder().latitude(49.8).longitude(24.0).build())).build(),
+            GroupedOrderDto.builder().amountOfLitres(30).groupOfOrders(List.of()).build());
+        doAnswer(invocation -> {
+            Consumer<GroupedOrderDto> consumer = invocation.getArgument(0);
+            groups.forEach(consumer);
+            return null;
+        }).when(ubsManagementService).streamAllUndeliveredOrdersWithLiters(any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/all-undelivered/stream"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        String content = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(groups, List.of(objectMapper.readValue(content, GroupedOrderDto[].class)));
+    }
+
+    @Test
+    void streamGroupCoordsTest() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/group-undelivered/stream")
+            .param("radius", "2"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        String content = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals("[]", content);
+        verify(ubsManagementService).streamClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void streamGroupCoordsRejectsWrongParametersBeforeStreamingTest() throws Exception {
+        doThrow(new IncorrectValueException("wrong")).when(ubsManagementService)
+            .checkClusteringParameters(25.0, 3000, "mean-shift");
+
+        mockMvc.perform(MockMvcRequestBuilders.get(ubsLink + "/group-undelivered/stream")
+            .param("radius", "25"))
+            .andExpect(MockMvcResultMatchers.request().asyncNotStarted())
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(ubsManagementService, never())
+            .streamClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any());
+    }
 }
@@ -0,0 +1,68 @@
+package greencity.interceptors;
+
+import greencity.service.StatementCountingServiceImpl;
+import greencity.statistics.StatementCounter;
+import greencity.statistics.StatementStats;
+import java.util.List;
+import javax.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementCountingInterceptorTest {
+    private StatementCounter statementCounter;
+    private StatementCountingInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter();
+        interceptor = new StatementCountingInterceptor(new StatementCountingServiceImpl(statementCounter));
+        request = new MockHttpServletRequest("GET", "/ubs/management/group-undelivered");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/ubs/management/group-undelivered");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void requestIsCountedUnderItsPatternTest() {
+        interceptor.preHandle(request, response, null);
+        statementCounter.inspect("select 1");
+        statementCounter.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(List.of(new StatementStats("GET /ubs/management/group-undelivered", 2, 2, 2)),
+            statementCounter.getStats());
+    }
+
+    @Test
+    void asyncDispatchIsNotCountedAgainTest() {
+        interceptor.preHandle(request, response, null);
+        statementCounter.inspect("select 1");
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        statementCounter.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(List.of(new StatementStats("GET /ubs/management/group-undelivered", 1, 1, 1)),
+            statementCounter.getStats());
+    }
+
+    @Test
+    void requestIsCountedInsideOpenScopeTest() {
+        statementCounter.begin();
+        statementCounter.inspect("select 1");
+        interceptor.preHandle(request, response, null);
+        statementCounter.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(2, statementCounter.end("test"));
+    }
+}
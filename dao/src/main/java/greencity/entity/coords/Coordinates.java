@@ -1,5 +1,6 @@
 package greencity.entity.coords;
 
+import java.io.Serializable;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import lombok.AllArgsConstructor;
@@ -18,7 +19,7 @@ import lombok.ToString;
 @Embeddable
 @ToString
 @EqualsAndHashCode
-public class Coordinates {
+public class Coordinates implements Serializable {
     @Column(nullable = true)
     private double latitude;
     @Column(nullable = true)
@@ -0,0 +1,20 @@
+package greencity.entity.coords;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Amount of litres to be delivered from all undelivered orders with same
+ * coordinates.
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CoordinatesCapacity {
+    private Double latitude;
+    private Double longitude;
+    private Long litres;
+}
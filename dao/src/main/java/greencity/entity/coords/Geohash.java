@@ -0,0 +1,132 @@
+package greencity.entity.coords;
+
+import java.util.List;
+
+/**
+ * Utility class encoding coordinates into geohash, a string which prefixes name
+ * nested cells of the earth surface. Coordinates inside one cell share its
+ * prefix, so area may be searched with an indexed prefix query. The encoding is
+ * the same as in {@code geohash_encode} function used to fill existing
+ * addresses.
+ */
+public final class Geohash {
+    /**
+     * Amount of characters stored for address, the cell is about 5 by 5 meters.
+     */
+    public static final int PRECISION = 9;
+
+    private static final String ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int BITS_PER_CHARACTER = 5;
+
+    private Geohash() {
+    }
+
+    /**
+     * Method encodes coordinates into geohash of given length.
+     *
+     * @param latitude  {@link Double} latitude in degrees.
+     * @param longitude {@link Double} longitude in degrees.
+     * @param precision {@link Integer} amount of characters.
+     * @return {@link String} geohash.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        StringBuilder geohash = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bits = 0;
+        int character = 0;
+        while (geohash.length() < precision) {
+            if (longitudeBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    character = character * 2 + 1;
+                    minLongitude = middle;
+                } else {
+                    character = character * 2;
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    character = character * 2 + 1;
+                    minLatitude = middle;
+                } else {
+                    character = character * 2;
+                    maxLatitude = middle;
+                }
+            }
+            longitudeBit = !longitudeBit;
+            if (++bits == BITS_PER_CHARACTER) {
+                geohash.append(ALPHABET.charAt(character));
+                bits = 0;
+                character = 0;
+            }
+        }
+        return geohash.toString();
+    }
+
+    /**
+     * Method encodes coordinates into geohash of {@link #PRECISION} length.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return {@link String} geohash or {@code null} if coordinates are absent.
+     */
+    public static String encode(Coordinates coordinates) {
+        return coordinates == null ? null
+            : encode(coordinates.getLatitude(), coordinates.getLongitude(), PRECISION);
+    }
+
+    /**
+     * Method returns geohashes of cells containing the corners of bounding box, in
+     * order south-west, south-east, north-west, north-east. Cells are the smallest
+     * ones for which the box spans at most two cells along every axis, so these
+     * four cells, some of which may be the same, cover the whole box wherever it
+     * lies against borders of cells.
+     *
+     * @param minLatitude  {@link Double} southern border of the box.
+     * @param minLongitude {@link Double} western border of the box.
+     * @param maxLatitude  {@link Double} northern border of the box.
+     * @param maxLongitude {@link Double} eastern border of the box.
+     * @return list of four geohash prefixes of the same length, empty ones if the
+     *         box is wider than two of the biggest cells.
+     */
+    public static List<String> coveringPrefixes(double minLatitude, double minLongitude, double maxLatitude,
+        double maxLongitude) {
+        for (int precision = PRECISION; precision > 0; precision--) {
+            String southWest = encode(minLatitude, minLongitude, precision);
+            String northEast = encode(maxLatitude, maxLongitude, precision);
+            long[] southWestCell = cellOf(southWest);
+            long[] northEastCell = cellOf(northEast);
+            if (northEastCell[0] - southWestCell[0] <= 1 && northEastCell[1] - southWestCell[1] <= 1) {
+                return List.of(southWest, encode(minLatitude, maxLongitude, precision),
+                    encode(maxLatitude, minLongitude, precision), northEast);
+            }
+        }
+        return List.of("", "", "", "");
+    }
+
+    /**
+     * Method returns numbers of row and column of the cell among cells of the same
+     * size, counted from south and west.
+     */
+    private static long[] cellOf(String geohash) {
+        long row = 0;
+        long column = 0;
+        boolean longitudeBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int character = ALPHABET.indexOf(geohash.charAt(i));
+            for (int bit = BITS_PER_CHARACTER - 1; bit >= 0; bit--) {
+                if (longitudeBit) {
+                    column = column * 2 + (character >> bit & 1);
+                } else {
+                    row = row * 2 + (character >> bit & 1);
+                }
+                longitudeBit = !longitudeBit;
+            }
+        }
+        return new long[] {row, column};
+    }
+}
@@ -0,0 +1,35 @@
+package greencity.entity.coords;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Amount of litres of undelivered orders with same coordinates, kept up to date
+ * when orders enter or leave PAID status instead of summing orders on every
+ * read.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@ToString
+@Table(name = "pending_litres_by_address")
+public class PendingLitres {
+    @EmbeddedId
+    private Coordinates coordinates;
+
+    @Column(nullable = false)
+    private Long litres;
+}
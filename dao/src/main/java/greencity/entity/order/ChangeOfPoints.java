@@ -9,6 +9,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +26,8 @@ import lombok.Setter;
 @Table(name = "change_of_points")
 public class ChangeOfPoints {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_of_points_id_seq")
+    @SequenceGenerator(name = "change_of_points_id_seq", sequenceName = "change_of_points_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -25,6 +25,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -44,7 +45,8 @@ import org.hibernate.annotations.Cascade;
 @EqualsAndHashCode
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -68,6 +70,9 @@ public class Order {
     @Column(name = "amount")
     private Map<Integer, Integer> amountOfBagsOrdered;
 
+    @Column(name = "total_litres", nullable = false)
+    private Integer totalLitres;
+
     @Column
     private String comment;
 
@@ -0,0 +1,27 @@
+package greencity.entity.order;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Undelivered order along with contacts and address of its ubs user, selected
+ * column by column instead of loading {@link Order} with everything it
+ * references. Address is district, street and house number joined by the query.
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode
+public class UndeliveredOrder {
+    private Long id;
+    private Integer totalLitres;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private String address;
+    private String addressComment;
+    private Double latitude;
+    private Double longitude;
+}
@@ -1,6 +1,7 @@
 package greencity.entity.user.ubs;
 
 import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.Geohash;
 import lombok.*;
 
 import javax.persistence.*;
@@ -19,7 +20,8 @@ public class Address {
     private UBSuser ubsUser;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id_seq")
+    @SequenceGenerator(name = "address_id_seq", sequenceName = "address_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "varchar(12) default 'Kyiv'", nullable = false, length = 20)
@@ -45,4 +47,17 @@ public class Address {
 
     @Embedded
     private Coordinates coordinates;
+
+    @Column(length = 12)
+    private String geohash;
+
+    /**
+     * Method keeps geohash of address in line with its coordinates, so area queries
+     * may find it by geohash prefix.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        geohash = Geohash.encode(coordinates);
+    }
 }
@@ -28,7 +28,8 @@ public class UBSuser {
     private List<Order> orders;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ubs_user_id_seq")
+    @SequenceGenerator(name = "ubs_user_id_seq", sequenceName = "ubs_user_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 30, nullable = false)
@@ -1,10 +1,14 @@
 package greencity.repository;
 
 import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
 import greencity.entity.user.ubs.Address;
+import java.util.List;
 import java.util.Set;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -29,26 +33,77 @@ public interface AddressRepository extends CrudRepository<Address, Long> {
         + "from UBSuser u "
         + "join Address a on a = u.userAddress "
         + "join Order o on u = o.ubsUser "
-        + "join o.amountOfBagsOrdered bags "
-        + "join Bag b on key(bags) = b.id "
         + "where o.orderStatus = 'PAID' "
         + "and a.coordinates is not null "
         + "group by a.coordinates "
-        + "having sum(bags*b.capacity) <= :maxCapacity")
+        + "having sum(o.totalLitres) <= :maxCapacity")
     Set<Coordinates> undeliveredOrdersCoordsWithCapacityLimit(long maxCapacity);
 
+    /**
+     * Method returns amount of litres to be delivered for coordinates of
+     * undelivered orders following given ones in order of latitude and longitude.
+     *
+     * @param latitude  latitude of coordinates before the first one.
+     * @param longitude longitude of coordinates before the first one.
+     * @param pageable  {@link Pageable} limiting amount of coordinates.
+     * @return list of {@link CoordinatesCapacity} ordered by latitude and
+     *         longitude.
+     */
+    @Query("select new greencity.entity.coords.CoordinatesCapacity("
+        + "a.coordinates.latitude, a.coordinates.longitude, sum(o.totalLitres)) "
+        + "from UBSuser u "
+        + "join Address a on a = u.userAddress "
+        + "join Order o on u = o.ubsUser "
+        + "where o.orderStatus = 'PAID' "
+        + "and a.coordinates is not null "
+        + "and (a.coordinates.latitude > :latitude "
+        + "or (a.coordinates.latitude = :latitude and a.coordinates.longitude > :longitude)) "
+        + "group by a.coordinates.latitude, a.coordinates.longitude "
+        + "having sum(o.totalLitres) > 0 "
+        + "order by a.coordinates.latitude, a.coordinates.longitude")
+    List<CoordinatesCapacity> undeliveredOrdersCapacitiesAfter(@Param("latitude") double latitude,
+        @Param("longitude") double longitude, Pageable pageable);
+
+    /**
+     * Method returns amount of litres to be delivered for coordinates of
+     * undelivered orders after {@code from} up to and including {@code to} in order
+     * of latitude and longitude.
+     *
+     * @param fromLatitude  latitude of coordinates before the first one.
+     * @param fromLongitude longitude of coordinates before the first one.
+     * @param toLatitude    latitude of the last coordinates.
+     * @param toLongitude   longitude of the last coordinates.
+     * @return list of {@link CoordinatesCapacity} ordered by latitude and
+     *         longitude.
+     */
+    @Query("select new greencity.entity.coords.CoordinatesCapacity("
+        + "a.coordinates.latitude, a.coordinates.longitude, sum(o.totalLitres)) "
+        + "from UBSuser u "
+        + "join Address a on a = u.userAddress "
+        + "join Order o on u = o.ubsUser "
+        + "where o.orderStatus = 'PAID' "
+        + "and a.coordinates is not null "
+        + "and (a.coordinates.latitude > :fromLatitude "
+        + "or (a.coordinates.latitude = :fromLatitude and a.coordinates.longitude > :fromLongitude)) "
+        + "and (a.coordinates.latitude < :toLatitude "
+        + "or (a.coordinates.latitude = :toLatitude and a.coordinates.longitude <= :toLongitude)) "
+        + "group by a.coordinates.latitude, a.coordinates.longitude "
+        + "having sum(o.totalLitres) > 0 "
+        + "order by a.coordinates.latitude, a.coordinates.longitude")
+    List<CoordinatesCapacity> undeliveredOrdersCapacitiesBetween(@Param("fromLatitude") double fromLatitude,
+        @Param("fromLongitude") double fromLongitude, @Param("toLatitude") double toLatitude,
+        @Param("toLongitude") double toLongitude);
+
     /**
      * Method returns amount of litres to be delivered in 1 or same address orders.
      *
-     * @return {@link Integer}.
+     * @return {@link Long} litres or {@code null} if there are no such orders.
      */
-    @Query("select sum(bags * b.capacity) "
+    @Query("select sum(o.totalLitres) "
         + "from UBSuser u "
         + "join Address a on a = u.userAddress "
         + "join Order o on u = o.ubsUser "
-        + "join o.amountOfBagsOrdered bags "
-        + "join Bag b on key(bags) = b.id "
         + "where o.orderStatus = 'PAID' "
         + "and a.coordinates.latitude  = :latitude and a.coordinates.longitude = :longitude ")
-    int capacity(double latitude, double longitude);
+    Long capacity(@Param("latitude") double latitude, @Param("longitude") double longitude);
 }
@@ -1,9 +1,18 @@
 package greencity.repository;
 
 import greencity.entity.order.Bag;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BagRepository extends CrudRepository<Bag, Integer> {
+    /**
+     * Method returns version of bag capacities, which is incremented by trigger
+     * every time capacity of a bag is changed.
+     *
+     * @return {@link Long} version of bag capacities.
+     */
+    @Query(nativeQuery = true, value = "SELECT version FROM bag_capacity_version WHERE id = 1")
+    Long getCapacityVersion();
 }
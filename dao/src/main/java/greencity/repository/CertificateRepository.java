@@ -1,11 +1,14 @@
 package greencity.repository;
 
 import greencity.entity.order.Certificate;
+import java.time.LocalDate;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -32,6 +35,45 @@ public interface CertificateRepository extends CrudRepository<Certificate, Strin
      * @return list of {@link Certificate}.
      * @author Nazar Struk
      */
-    @Query(value = "SELECT c from Certificate c order by c.creationDate DESC")
+    @Query(value = "SELECT c from Certificate c order by c.creationDate DESC, c.code DESC")
     Page<Certificate> getAll(Pageable page);
+
+    /**
+     * The query for the first certificates in the order of {@link #getAll}, read
+     * from the start of index on creation date and code without counting them.
+     *
+     * @param limit {@link Pageable} with amount of certificates.
+     * @return list of {@link Certificate}.
+     */
+    @Query(value = "SELECT c from Certificate c order by c.creationDate DESC, c.code DESC")
+    List<Certificate> getFirst(Pageable limit);
+
+    /**
+     * The query for certificates following given one in the order of
+     * {@link #getAll}. Certificates are sought in index on creation date and code
+     * from the given one instead of skipping the previous pages, so a deep page
+     * costs as much as the first one. The first condition bounds the index scan,
+     * the second one skips certificates of the same date up to the given code.
+     *
+     * @param creationDate creation date of the last certificate already read.
+     * @param code         code of the last certificate already read.
+     * @param limit        {@link Pageable} with amount of certificates.
+     * @return list of {@link Certificate}.
+     */
+    @Query(value = "SELECT c from Certificate c where c.creationDate <= :creationDate "
+        + "and (c.creationDate < :creationDate or c.code < :code) "
+        + "order by c.creationDate DESC, c.code DESC")
+    List<Certificate> getAllAfter(@Param("creationDate") LocalDate creationDate, @Param("code") String code,
+        Pageable limit);
+
+    /**
+     * The query for amount of certificates estimated by statistics of PostgreSQL,
+     * which are refreshed by autovacuum, instead of counting the whole table.
+     *
+     * @return estimated amount of certificates, 0 or less if the table has never
+     *         been analyzed.
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(reltuples AS bigint) FROM pg_class "
+        + "WHERE oid = CAST('certificate' AS regclass)")
+    long estimateCount();
 }
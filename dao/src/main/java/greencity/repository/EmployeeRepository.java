@@ -0,0 +1,37 @@
+package greencity.repository;
+
+import greencity.entity.enums.EmployeePosition;
+import greencity.entity.user.employee.Employee;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    /**
+     * Method returns employees holding given position.
+     *
+     * @param position {@link EmployeePosition}.
+     * @return list of {@link Employee} ordered by id.
+     */
+    @Query("select distinct e from Employee e join e.employeePosition p "
+        + "where p.position = :position "
+        + "order by e.id")
+    List<Employee> findAllByPosition(@Param("position") EmployeePosition position);
+
+    /**
+     * Method detaches given orders from every employee they are attached to,
+     * whatever position the employee holds now.
+     *
+     * @param orderIds ids of orders, not empty.
+     * @return {@link Integer} amount of detached rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+        value = "DELETE FROM order_employee WHERE order_id IN (:orderIds)")
+    int detachOrders(@Param("orderIds") Collection<Long> orderIds);
+}
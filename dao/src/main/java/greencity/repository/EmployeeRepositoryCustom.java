@@ -0,0 +1,22 @@
+package greencity.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EmployeeRepositoryCustom {
+    /**
+     * Method waits for and takes the lock of attaching orders to employees, which
+     * is held until the end of the current transaction, so orders are detached and
+     * attached again by one transaction at a time.
+     */
+    void lockOrderAssignment();
+
+    /**
+     * Method attaches orders to employees with one batched insert into
+     * {@code order_employee}.
+     *
+     * @param orderIdsByEmployeeId ids of orders by id of employee they are attached
+     *                             to.
+     */
+    void attachOrders(Map<Long, ? extends Collection<Long>> orderIdsByEmployeeId);
+}
@@ -0,0 +1,51 @@
+package greencity.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Implementation of {@link EmployeeRepositoryCustom} writing with plain JDBC,
+ * so attaching thousands of orders takes one batch instead of loading every
+ * employee with attached orders and flushing their collections row by row.
+ */
+@AllArgsConstructor
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+    private static final String INSERT_ORDER_EMPLOYEE =
+        "INSERT INTO order_employee (employee_id, order_id) VALUES (?, ?)";
+    /**
+     * Key of transaction-level advisory lock of PostgreSQL taken while orders are
+     * assigned to employees.
+     */
+    private static final long ORDER_ASSIGNMENT_LOCK = 1_017L;
+    private static final String LOCK_ORDER_ASSIGNMENT = "SELECT pg_advisory_xact_lock(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void lockOrderAssignment() {
+        jdbcTemplate.query(LOCK_ORDER_ASSIGNMENT, resultSet -> null, ORDER_ASSIGNMENT_LOCK);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void attachOrders(Map<Long, ? extends Collection<Long>> orderIdsByEmployeeId) {
+        List<Object[]> rows = new ArrayList<>();
+        orderIdsByEmployeeId.forEach((employeeId, orderIds) -> {
+            for (Long orderId : orderIds) {
+                rows.add(new Object[] {employeeId, orderId});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ORDER_EMPLOYEE, rows);
+        }
+    }
+}
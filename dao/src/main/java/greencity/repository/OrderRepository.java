@@ -1,16 +1,24 @@
 package greencity.repository;
 
+import greencity.entity.coords.Coordinates;
 import greencity.entity.order.Order;
 import greencity.entity.order.Payment;
+import greencity.entity.order.UndeliveredOrder;
 
+import java.util.Collection;
 import java.util.List;
 
 import greencity.entity.user.ubs.UBSuser;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface OrderRepository extends CrudRepository<Order, Long> {
     /**
@@ -30,6 +38,94 @@ public interface OrderRepository extends CrudRepository<Order, Long> {
     List<Order> undeliveredOrdersGroupThem(@Param(value = "latitude") double latitude,
         @Param(value = "longitude") double longitude);
 
+    /**
+     * Method returns undelivered orders with contacts and address of their
+     * {@link UBSuser} selected in the same query.
+     *
+     * @return list of {@link UndeliveredOrder}.
+     */
+    @Query("select new greencity.entity.order.UndeliveredOrder("
+        + "o.id, o.totalLitres, u.firstName, u.lastName, u.phoneNumber, "
+        + "concat(a.district, ' ', a.street, ' ', a.houseNumber), a.comment, "
+        + "a.coordinates.latitude, a.coordinates.longitude) "
+        + "from Order o "
+        + "join o.ubsUser u "
+        + "join u.userAddress a "
+        + "where o.orderStatus = 'PAID' and a.coordinates is not null "
+        + "order by o.id")
+    List<UndeliveredOrder> findUndeliveredOrders();
+
+    /**
+     * Method streams undelivered orders with contacts and address of their
+     * {@link UBSuser} through database cursor, orders with the same coordinates go
+     * one after another. Stream has to be consumed inside a transaction and closed.
+     *
+     * @return {@link Stream} of {@link UndeliveredOrder}.
+     */
+    @Query("select new greencity.entity.order.UndeliveredOrder("
+        + "o.id, o.totalLitres, u.firstName, u.lastName, u.phoneNumber, "
+        + "concat(a.district, ' ', a.street, ' ', a.houseNumber), a.comment, "
+        + "a.coordinates.latitude, a.coordinates.longitude) "
+        + "from Order o "
+        + "join o.ubsUser u "
+        + "join u.userAddress a "
+        + "where o.orderStatus = 'PAID' and a.coordinates is not null "
+        + "order by a.coordinates.latitude, a.coordinates.longitude, o.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<UndeliveredOrder> streamUndeliveredOrders();
+
+    /**
+     * Method returns undelivered orders with given coordinates of address with
+     * contacts and address of their {@link UBSuser} selected in the same query.
+     *
+     * @param coordinates collection of {@link Coordinates}.
+     * @return list of {@link UndeliveredOrder}.
+     */
+    @Query("select new greencity.entity.order.UndeliveredOrder("
+        + "o.id, o.totalLitres, u.firstName, u.lastName, u.phoneNumber, "
+        + "concat(a.district, ' ', a.street, ' ', a.houseNumber), a.comment, "
+        + "a.coordinates.latitude, a.coordinates.longitude) "
+        + "from Order o "
+        + "join o.ubsUser u "
+        + "join u.userAddress a "
+        + "where o.orderStatus = 'PAID' and a.coordinates in :coordinates "
+        + "order by o.id")
+    List<UndeliveredOrder> findUndeliveredOrdersByCoordinates(
+        @Param("coordinates") Collection<Coordinates> coordinates);
+
+    /**
+     * Method returns undelivered orders with address inside bounding box with
+     * contacts and address of their {@link UBSuser} selected in the same query.
+     * Geohash prefixes of the cells covering the box let the query use index on
+     * geohash.
+     *
+     * @param geohashPrefixes four geohashes of cells covering the box, see
+     *                        {@link greencity.entity.coords.Geohash#coveringPrefixes}.
+     * @param minLatitude     southern border of the box.
+     * @param maxLatitude     northern border of the box.
+     * @param minLongitude    western border of the box.
+     * @param maxLongitude    eastern border of the box.
+     * @return list of {@link UndeliveredOrder}.
+     */
+    @Query("select new greencity.entity.order.UndeliveredOrder("
+        + "o.id, o.totalLitres, u.firstName, u.lastName, u.phoneNumber, "
+        + "concat(a.district, ' ', a.street, ' ', a.houseNumber), a.comment, "
+        + "a.coordinates.latitude, a.coordinates.longitude) "
+        + "from Order o "
+        + "join o.ubsUser u "
+        + "join u.userAddress a "
+        + "where o.orderStatus = 'PAID' "
+        + "and (a.geohash like concat(:#{#geohashPrefixes[0]}, '%') "
+        + "or a.geohash like concat(:#{#geohashPrefixes[1]}, '%') "
+        + "or a.geohash like concat(:#{#geohashPrefixes[2]}, '%') "
+        + "or a.geohash like concat(:#{#geohashPrefixes[3]}, '%')) "
+        + "and a.coordinates.latitude between :minLatitude and :maxLatitude "
+        + "and a.coordinates.longitude between :minLongitude and :maxLongitude "
+        + "order by o.id")
+    List<UndeliveredOrder> findUndeliveredOrdersWithin(@Param("geohashPrefixes") List<String> geohashPrefixes,
+        @Param("minLatitude") double minLatitude, @Param("maxLatitude") double maxLatitude,
+        @Param("minLongitude") double minLongitude, @Param("maxLongitude") double maxLongitude);
+
     /**
      * Method returns {@link Order} of undelivered orders.
      *
@@ -41,12 +137,17 @@ public interface OrderRepository extends CrudRepository<Order, Long> {
     List<Order> undeliveredAddresses();
 
     /**
-     * Finds list of Orders which the route and date garbage collection is defined.
+     * Finds list of Orders which the route and date garbage collection is defined,
+     * along with their user and its telegram bot, ubs user and payment fetched in
+     * the same query.
      *
      * @return a {@link List} of {@link Order}.
      */
-    @Query(nativeQuery = true,
-        value = "SELECT * FROM orders o INNER JOIN  ubs_user u ON o.ubs_user_id = u.id "
-            + "WHERE o.order_status LIKE 'ON_THE_ROUTE'")
+    @Query("SELECT o FROM Order o "
+        + "JOIN FETCH o.user u "
+        + "JOIN FETCH u.telegramBot "
+        + "JOIN FETCH o.ubsUser "
+        + "LEFT JOIN FETCH o.payment "
+        + "WHERE o.orderStatus = 'ON_THE_ROUTE'")
     List<Order> getAllUsersInWhichTheRouteIsDefined();
 }
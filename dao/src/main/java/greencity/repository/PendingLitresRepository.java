@@ -0,0 +1,168 @@
+package greencity.repository;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.entity.coords.PendingLitres;
+import java.util.List;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PendingLitresRepository extends JpaRepository<PendingLitres, Coordinates> {
+    /**
+     * Method returns amount of litres to be delivered for every coordinates of
+     * undelivered orders.
+     *
+     * @return list of {@link CoordinatesCapacity} ordered by latitude and
+     *         longitude.
+     */
+    @Query("select new greencity.entity.coords.CoordinatesCapacity("
+        + "p.coordinates.latitude, p.coordinates.longitude, p.litres) "
+        + "from PendingLitres p "
+        + "order by p.coordinates.latitude, p.coordinates.longitude")
+    List<CoordinatesCapacity> findAllCapacities();
+
+    /**
+     * Method returns amount of litres to be delivered for every coordinates of
+     * undelivered orders inside bounding box.
+     *
+     * @param minLatitude  southern border of the box.
+     * @param maxLatitude  northern border of the box.
+     * @param minLongitude western border of the box.
+     * @param maxLongitude eastern border of the box.
+     * @return list of {@link CoordinatesCapacity} ordered by latitude and
+     *         longitude.
+     */
+    @Query("select new greencity.entity.coords.CoordinatesCapacity("
+        + "p.coordinates.latitude, p.coordinates.longitude, p.litres) "
+        + "from PendingLitres p "
+        + "where p.coordinates.latitude between :minLatitude and :maxLatitude "
+        + "and p.coordinates.longitude between :minLongitude and :maxLongitude "
+        + "order by p.coordinates.latitude, p.coordinates.longitude")
+    List<CoordinatesCapacity> findAllCapacitiesWithin(@Param("minLatitude") double minLatitude,
+        @Param("maxLatitude") double maxLatitude, @Param("minLongitude") double minLongitude,
+        @Param("maxLongitude") double maxLongitude);
+
+    /**
+     * Method returns amount of litres to be delivered in undelivered orders with
+     * given coordinates.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @return {@link Long} litres or {@code null} if there are no such orders.
+     */
+    @Query("select p.litres from PendingLitres p "
+        + "where p.coordinates.latitude = :latitude and p.coordinates.longitude = :longitude")
+    Long findLitres(@Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    /**
+     * Method locks and returns litres of coordinates after {@code from} up to and
+     * including {@code to} in order of latitude and longitude.
+     *
+     * @param fromLatitude  latitude of coordinates before the first one.
+     * @param fromLongitude longitude of coordinates before the first one.
+     * @param toLatitude    latitude of the last coordinates.
+     * @param toLongitude   longitude of the last coordinates.
+     * @return list of {@link PendingLitres}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PendingLitres p "
+        + "where (p.coordinates.latitude > :fromLatitude "
+        + "or (p.coordinates.latitude = :fromLatitude and p.coordinates.longitude > :fromLongitude)) "
+        + "and (p.coordinates.latitude < :toLatitude "
+        + "or (p.coordinates.latitude = :toLatitude and p.coordinates.longitude <= :toLongitude)) "
+        + "order by p.coordinates.latitude, p.coordinates.longitude")
+    List<PendingLitres> findAllBetweenForUpdate(@Param("fromLatitude") double fromLatitude,
+        @Param("fromLongitude") double fromLongitude, @Param("toLatitude") double toLatitude,
+        @Param("toLongitude") double toLongitude);
+
+    /**
+     * Method locks and returns litres of coordinates.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @return {@link PendingLitres} or {@code null} if there is no such row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PendingLitres p "
+        + "where p.coordinates.latitude = :latitude and p.coordinates.longitude = :longitude")
+    PendingLitres findForUpdate(@Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    /**
+     * Method adds litres to coordinates, creating their row if there is none.
+     * Negative litres are subtracted.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @param litres    litres to add.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+        value = "INSERT INTO pending_litres_by_address (latitude, longitude, litres) "
+            + "VALUES (:latitude, :longitude, :litres) "
+            + "ON CONFLICT (latitude, longitude) "
+            + "DO UPDATE SET litres = pending_litres_by_address.litres + EXCLUDED.litres")
+    void addLitres(@Param("latitude") double latitude, @Param("longitude") double longitude,
+        @Param("litres") long litres);
+
+    /**
+     * Method sets litres of coordinates, creating their row if there is none.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @param litres    litres of the coordinates.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+        value = "INSERT INTO pending_litres_by_address (latitude, longitude, litres) "
+            + "VALUES (:latitude, :longitude, :litres) "
+            + "ON CONFLICT (latitude, longitude) "
+            + "DO UPDATE SET litres = EXCLUDED.litres")
+    void setLitres(@Param("latitude") double latitude, @Param("longitude") double longitude,
+        @Param("litres") long litres);
+
+    /**
+     * Method creates row of coordinates unless it already exists, litres of
+     * existing row are left as they are.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @param litres    litres of the coordinates.
+     * @return amount of created rows, 0 if the row already exists.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+        value = "INSERT INTO pending_litres_by_address (latitude, longitude, litres) "
+            + "VALUES (:latitude, :longitude, :litres) "
+            + "ON CONFLICT (latitude, longitude) DO NOTHING")
+    int insertLitres(@Param("latitude") double latitude, @Param("longitude") double longitude,
+        @Param("litres") long litres);
+
+    /**
+     * Method removes coordinates which have no litres left.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     */
+    @Modifying
+    @Query("delete from PendingLitres p "
+        + "where p.coordinates.latitude = :latitude and p.coordinates.longitude = :longitude "
+        + "and p.litres <= 0")
+    void deleteIfEmpty(@Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    /**
+     * Method removes coordinates.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     */
+    @Modifying
+    @Query("delete from PendingLitres p "
+        + "where p.coordinates.latitude = :latitude and p.coordinates.longitude = :longitude")
+    void deleteLitres(@Param("latitude") double latitude, @Param("longitude") double longitude);
+}
@@ -4,7 +4,7 @@ import greencity.entity.user.ubs.UBSuser;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.stereotype.Repository;
 
@@ -21,13 +21,17 @@ public interface UBSuserRepository extends CrudRepository<UBSuser, Long> {
     List<UBSuser> getAllByUserId(Long userId);
 
     /**
-     * Finds list of UBSuser who have not paid of the order within three days.
+     * Finds list of UBSuser who have not paid of the order made in given period,
+     * along with their user and its telegram bot fetched in the same query.
      *
-     * @param localDate - date when the user made an order.
+     * @param from - beginning of the period when the user made an order.
+     * @param to   - end of the period, exclusive.
      * @return a {@link List} of {@link UBSuser} - which need to send a message.
      */
-    @Query(nativeQuery = true,
-        value = "SELECT * FROM ubs_user u INNER JOIN orders o ON u.id = o.ubs_user_id "
-            + "WHERE CAST(o.order_date AS DATE) = :localDate AND o.order_status LIKE 'FORMED'")
-    List<UBSuser> getAllUBSusersWhoHaveNotPaid(LocalDate localDate);
+    @Query("SELECT u FROM UBSuser u "
+        + "JOIN FETCH u.user owner "
+        + "JOIN FETCH owner.telegramBot "
+        + "JOIN u.orders o "
+        + "WHERE o.orderDate >= :from AND o.orderDate < :to AND o.orderStatus = 'FORMED'")
+    List<UBSuser> getAllUBSusersWhoHaveNotPaid(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,173 @@
+package greencity.statistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements prepared by Hibernate inside scopes opened on the
+ * current thread, one HTTP request or one run of a scheduled job, and keeps
+ * totals of every scope name. Statements of a JDBC batch are prepared once, so
+ * the count is the amount of round trips rather than of rows. Scopes nest, a
+ * statement counts in every scope open on the thread, and statements executed
+ * outside of any scope are not counted. Statements of every ended scope are
+ * also recorded into {@value #METRIC} distribution summary tagged by scope
+ * name, so they reach whatever monitoring the meter registry publishes to.
+ */
+@Component
+@Slf4j
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    public static final String METRIC = "ubs.sql.statements";
+
+    private static final ThreadLocal<Deque<int[]>> OPEN_SCOPES = new ThreadLocal<>();
+
+    private final Map<String, Totals> totalsByName = new ConcurrentHashMap<>();
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    /**
+     * Method sets registry the statements of scopes are recorded into instead of
+     * the global one.
+     *
+     * @param meterRegistry {@link MeterRegistry} of the application.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Method installs the counter into session factory of Hibernate.
+     *
+     * @param hibernateProperties {@link Map} of properties of Hibernate.
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Method counts the statement in scopes open on the current thread.
+     *
+     * @param sql {@link String} statement to be prepared.
+     * @return the same {@link String}.
+     */
+    @Override
+    public String inspect(String sql) {
+        Deque<int[]> scopes = OPEN_SCOPES.get();
+        if (scopes != null) {
+            for (int[] count : scopes) {
+                count[0]++;
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Method opens scope on the current thread inside the scopes already open on
+     * it.
+     */
+    public void begin() {
+        Deque<int[]> scopes = OPEN_SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            OPEN_SCOPES.set(scopes);
+        }
+        scopes.push(new int[1]);
+    }
+
+    /**
+     * Method ends the scope opened last on the current thread and adds its
+     * statements to totals of given name.
+     *
+     * @param name {@link String} name of the scope, like endpoint or job.
+     * @return amount of statements of the scope, 0 if no scope was opened.
+     */
+    public int end(String name) {
+        Deque<int[]> scopes = OPEN_SCOPES.get();
+        if (scopes == null) {
+            return 0;
+        }
+        int[] count = scopes.pop();
+        if (scopes.isEmpty()) {
+            OPEN_SCOPES.remove();
+        }
+        totalsByName.computeIfAbsent(name, this::createTotals).add(count[0]);
+        log.debug("{} executed {} SQL statements", name, count[0]);
+        return count[0];
+    }
+
+    /**
+     * Method runs job in its own scope.
+     *
+     * @param name {@link String} name of the job.
+     * @param job  {@link Runnable} to run.
+     */
+    public void count(String name, Runnable job) {
+        begin();
+        try {
+            job.run();
+        } finally {
+            end(name);
+        }
+    }
+
+    /**
+     * Method returns totals of every scope name.
+     *
+     * @return list of {@link StatementStats} ordered by name.
+     */
+    public List<StatementStats> getStats() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (Totals totals : totalsByName.values()) {
+            stats.add(totals.snapshot());
+        }
+        stats.sort(Comparator.comparing(StatementStats::getName));
+        return stats;
+    }
+
+    private Totals createTotals(String name) {
+        return new Totals(name, DistributionSummary.builder(METRIC)
+            .description("SQL statements executed by one request or job")
+            .baseUnit("statements")
+            .tag("scope", name)
+            .register(meterRegistry));
+    }
+
+    private static final class Totals {
+        private final String name;
+        private final DistributionSummary summary;
+        private long scopes;
+        private long statements;
+        private int maxStatements;
+
+        private Totals(String name, DistributionSummary summary) {
+            this.name = name;
+            this.summary = summary;
+        }
+
+        private synchronized void add(int count) {
+            summary.record(count);
+            scopes++;
+            statements += count;
+            maxStatements = Math.max(maxStatements, count);
+        }
+
+        private synchronized StatementStats snapshot() {
+            return new StatementStats(name, scopes, statements, maxStatements);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package greencity.statistics;
+
+import lombok.Value;
+
+/**
+ * Statements counted by {@link StatementCounter} in all scopes with the same
+ * name.
+ */
+@Value
+public class StatementStats {
+    String name;
+    long scopes;
+    long statements;
+    int maxStatements;
+}
@@ -0,0 +1,118 @@
+package greencity.repository;
+
+import greencity.statistics.StatementCounter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.opentest4j.TestAbortedException;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Embedded PostgreSQL migrated by Liquibase along with repositories working on
+ * it, Hibernate is configured as in {@code application-dev.properties} and
+ * reports statements to {@link StatementCounter}. Statements executed by
+ * repositories go through {@link ExplainingDataSource}.
+ */
+@Slf4j
+final class EmbeddedDatabase implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ExplainingDataSource dataSource;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+        this.dataSource = new ExplainingDataSource(postgres.getPostgresDatabase());
+        this.context = new SpringApplicationBuilder(Configuration.class)
+            .web(WebApplicationType.NONE)
+            .initializers(ctx -> {
+                ctx.getBeanFactory().registerSingleton("dataSource", dataSource);
+                ctx.getBeanFactory().registerSingleton("statementCounter", new StatementCounter());
+            })
+            .properties(
+                "spring.liquibase.change-log=classpath:db/changelog/db.changelog-master.xml",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.jpa.open-in-view=false",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL9Dialect",
+                "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true",
+                "spring.jpa.properties.hibernate.order_updates=true")
+            .run();
+    }
+
+    /**
+     * Method starts PostgreSQL and migrates it. Tests calling it are skipped when
+     * PostgreSQL cannot be started at all, as under root, which it refuses to run
+     * as, failures of the migration still fail them.
+     *
+     * @return {@link EmbeddedDatabase}.
+     */
+    static EmbeddedDatabase start() {
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException | RuntimeException e) {
+            String message = "Embedded PostgreSQL cannot be started by user " + System.getProperty("user.name")
+                + ", repository queries are not checked against it: " + e.getMessage();
+            log.warn(message);
+            throw new TestAbortedException(message, e);
+        }
+        return new EmbeddedDatabase(postgres);
+    }
+
+    /**
+     * Method returns repository or other bean of the context.
+     *
+     * @param type {@link Class} of the bean.
+     * @return bean.
+     */
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Method returns template working on the database directly, bypassing
+     * {@link ExplainingDataSource}.
+     *
+     * @return {@link JdbcTemplate}.
+     */
+    JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    /**
+     * Method runs callback in a transaction which is rolled back afterwards and
+     * collects plans of all statements executed in it.
+     *
+     * @param callback {@link Runnable} calling repositories.
+     * @return list of {@link QueryPlan} in order of execution.
+     */
+    List<QueryPlan> explainRolledBack(Runnable callback) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return dataSource.explain(callback);
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("greencity.entity")
+    static class Configuration {
+    }
+}
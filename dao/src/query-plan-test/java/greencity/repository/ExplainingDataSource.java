@@ -0,0 +1,111 @@
+package greencity.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source which runs {@code EXPLAIN} for every prepared statement executed
+ * inside {@link #explain(Runnable)}, on the same connection and with the same
+ * parameters, so the plan is the one chosen for the real query.
+ */
+class ExplainingDataSource extends DelegatingDataSource {
+    private final List<QueryPlan> plans = new ArrayList<>();
+    private volatile boolean explaining;
+
+    ExplainingDataSource(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * Method runs queries and collects plans of all statements they execute.
+     *
+     * @param queries {@link Runnable} calling repositories.
+     * @return list of {@link QueryPlan} in order of execution.
+     */
+    synchronized List<QueryPlan> explain(Runnable queries) {
+        plans.clear();
+        explaining = true;
+        try {
+            queries.run();
+        } finally {
+            explaining = false;
+        }
+        return new ArrayList<>(plans);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return explaining(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return explaining(super.getConnection(username, password));
+    }
+
+    private Connection explaining(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (explaining && "prepareStatement".equals(method.getName())) {
+                return explaining(connection, (String) args[0], (PreparedStatement) result);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement explaining(Connection connection, String sql, PreparedStatement statement) {
+        Map<Integer, Object[]> parameters = new TreeMap<>();
+        Map<Integer, Method> setters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            if (method.getName().startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], args);
+                setters.put((Integer) args[0], method);
+            } else if (method.getName().startsWith("execute") && (args == null || args.length == 0)) {
+                plans.add(plan(connection, sql, setters, parameters));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static QueryPlan plan(Connection connection, String sql, Map<Integer, Method> setters,
+        Map<Integer, Object[]> parameters) throws Throwable {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Map.Entry<Integer, Method> setter : setters.entrySet()) {
+                invoke(explain, setter.getValue(), parameters.get(setter.getKey()));
+            }
+            List<String> lines = new ArrayList<>();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            return QueryPlan.parse(sql, lines);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[] {type},
+            handler);
+    }
+}
@@ -0,0 +1,88 @@
+package greencity.repository;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interleaves two assignments of the same orders to couriers, the way
+ * {@code CourierAssignmentServiceImpl} runs them for concurrent requests, when
+ * one of the orders is still attached to an employee who is not a courier.
+ */
+class OrderAssignmentConcurrencyTest {
+    private static EmbeddedDatabase database;
+
+    @BeforeAll
+    static void startDatabase() {
+        database = EmbeddedDatabase.start();
+        database.jdbcTemplate().update("INSERT INTO employees (id, first_name, last_name) "
+            + "SELECT i, 'Name', 'Surname' FROM generate_series(1, 3) i");
+        database.jdbcTemplate().update("INSERT INTO orders (id, order_date, order_status, points_to_use) "
+            + "SELECT i, current_date, 'PAID', 0 FROM generate_series(1, 2) i");
+        database.jdbcTemplate().update("INSERT INTO order_employee (employee_id, order_id) VALUES (3, 1)");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void concurrentAssignmentsOfTheSameOrdersReplaceEachOtherTest() throws Exception {
+        EmployeeRepository repository = database.getBean(EmployeeRepository.class);
+        TransactionTemplate transactionTemplate =
+            new TransactionTemplate(database.getBean(PlatformTransactionManager.class));
+        CountDownLatch attached = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.execute(status -> {
+            assign(repository, 1L);
+            attached.countDown();
+            await(commit);
+            return null;
+        }));
+        assertTrue(attached.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.execute(status -> {
+            assign(repository, 2L);
+            return null;
+        }));
+        Thread.sleep(500);
+        assertFalse(second.isDone(), "second assignment does not wait for the first one");
+        commit.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Map.of("employee_id", 2L, "order_id", 1L), Map.of("employee_id", 2L, "order_id", 2L)),
+            database.jdbcTemplate().queryForList("SELECT employee_id, order_id FROM order_employee "
+                + "ORDER BY order_id"));
+    }
+
+    private static void assign(EmployeeRepository repository, Long courierId) {
+        repository.lockOrderAssignment();
+        repository.detachOrders(List.of(1L, 2L));
+        repository.attachOrders(Map.of(courierId, List.of(1L, 2L)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
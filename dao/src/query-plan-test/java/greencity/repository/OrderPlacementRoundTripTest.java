@@ -0,0 +1,118 @@
+package greencity.repository;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import greencity.entity.order.ChangeOfPoints;
+import greencity.entity.order.Order;
+import greencity.entity.order.Payment;
+import greencity.entity.user.User;
+import greencity.entity.user.ubs.Address;
+import greencity.entity.user.ubs.UBSuser;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts statements sent to the database while order is placed the same way as
+ * {@code UBSClientServiceImpl.saveFullOrderToDB} does it: new data of ubs user
+ * with address, order with bags, additional orders and payment, and points of
+ * the user spent on it. Rows of one table go in one JDBC batch, and ids come
+ * from blocks taken by the first placement, so there are two selects, one
+ * statement per table and the update of the user.
+ */
+class OrderPlacementRoundTripTest {
+    private static final String UUID = "87df9ad5-6393-441f-8423-8b2e770b01a8";
+
+    private static EmbeddedDatabase database;
+
+    @BeforeAll
+    static void startDatabase() {
+        database = EmbeddedDatabase.start();
+        database.jdbcTemplate().execute("INSERT INTO bag (id, capacity, name, price) "
+            + "VALUES (1, 120, 'Mixed waste', 250), (2, 20, 'Glass', 50), (3, 35, 'Paper', 60)");
+        database.jdbcTemplate().update("INSERT INTO users (current_points, uuid, violations) VALUES (500, ?, 0)", UUID);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void placingOrderTakesOneStatementPerTableTest() {
+        database.explainRolledBack(OrderPlacementRoundTripTest::placeOrder);
+
+        List<QueryPlan> statements = database.explainRolledBack(OrderPlacementRoundTripTest::placeOrder);
+
+        assertEquals(10, statements.size(), () -> statements.stream()
+            .map(QueryPlan::getSql)
+            .collect(Collectors.joining("\n")));
+    }
+
+    private static void placeOrder() {
+        UserRepository userRepository = database.getBean(UserRepository.class);
+        User user = userRepository.findByUuid(UUID);
+
+        UBSuser ubsUser = UBSuser.builder()
+            .firstName("Anna")
+            .lastName("Koval")
+            .email("anna@mail.com")
+            .phoneNumber("671234567")
+            .user(user)
+            .userAddress(Address.builder()
+                .city("Lviv")
+                .district("Frankivskyi")
+                .street("Stryiska")
+                .houseNumber("12")
+                .entranceNumber("2")
+                .coordinates(new Coordinates(49.8201, 24.0223))
+                .build())
+            .build();
+        database.getBean(UBSuserRepository.class).save(ubsUser);
+        user.getUbsUsers().add(ubsUser);
+
+        Order order = Order.builder()
+            .orderDate(LocalDateTime.now())
+            .orderStatus(OrderStatus.FORMED)
+            .amountOfBagsOrdered(new HashMap<>(Map.of(1, 2, 2, 1, 3, 3)))
+            .totalLitres(2 * 120 + 20 + 3 * 35)
+            .additionalOrders(new HashSet<>(Set.of("1234567890", "0987654321")))
+            .certificates(new HashSet<>())
+            .pointsToUse(100)
+            .ubsUser(ubsUser)
+            .user(user)
+            .build();
+        order.setPayment(Payment.builder()
+            .amount(55_000L)
+            .orderStatus("created")
+            .currency("UAH")
+            .order(order)
+            .build());
+        database.getBean(OrderRepository.class).save(order);
+
+        user.getOrders().add(order);
+        user.setCurrentPoints(user.getCurrentPoints() - 100);
+        user.getChangeOfPointsList().add(ChangeOfPoints.builder()
+            .amount(-100)
+            .date(order.getOrderDate())
+            .user(user)
+            .order(order)
+            .build());
+        userRepository.save(user);
+        EntityManagerFactoryUtils.getTransactionalEntityManager(database.getBean(EntityManagerFactory.class)).flush();
+    }
+}
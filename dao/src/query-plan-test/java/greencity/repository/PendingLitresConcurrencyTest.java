@@ -0,0 +1,80 @@
+package greencity.repository;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interleaves payment adding litres to coordinates which have no row yet with
+ * reconciliation of the same coordinates, the way
+ * {@code PendingLitresReconciler} and {@code PendingLitresUpdater} meet when
+ * the payment commits after litres of the batch were summed.
+ */
+class PendingLitresConcurrencyTest {
+    private static final double LATITUDE = 49.8201;
+    private static final double LONGITUDE = 24.0223;
+
+    private static EmbeddedDatabase database;
+
+    @BeforeAll
+    static void startDatabase() {
+        database = EmbeddedDatabase.start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void reconciliationDoesNotOverwriteLitresInsertedByPaymentTest() throws Exception {
+        PendingLitresRepository repository = database.getBean(PendingLitresRepository.class);
+        TransactionTemplate transactionTemplate =
+            new TransactionTemplate(database.getBean(PlatformTransactionManager.class));
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> payment = CompletableFuture.runAsync(() -> transactionTemplate.execute(status -> {
+            repository.addLitres(LATITUDE, LONGITUDE, 120L);
+            inserted.countDown();
+            await(commit);
+            return null;
+        }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+
+        // litres of the reconciled batch were summed before the payment, so they miss its 120 litres
+        CompletableFuture<Long> reconciliation = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+            status -> repository.insertLitres(LATITUDE, LONGITUDE, 100L) > 0
+                ? null
+                : repository.findForUpdate(LATITUDE, LONGITUDE).getLitres()));
+        Thread.sleep(500);
+        assertFalse(reconciliation.isDone(), "insert of reconciliation does not wait for the payment");
+        commit.countDown();
+        payment.get(10, TimeUnit.SECONDS);
+
+        assertEquals(120L, reconciliation.get(10, TimeUnit.SECONDS));
+        assertEquals(120L, database.jdbcTemplate().queryForObject("SELECT litres FROM pending_litres_by_address "
+            + "WHERE latitude = ? AND longitude = ?", Long.class, LATITUDE, LONGITUDE));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package greencity.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Value;
+
+/**
+ * Plan chosen by PostgreSQL for one statement, as printed by {@code EXPLAIN}.
+ */
+@Value
+class QueryPlan {
+    private static final Pattern COST = Pattern.compile("cost=[0-9.]+\\.\\.([0-9.]+)");
+    private static final Pattern SEQUENTIAL_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    String sql;
+    String text;
+    double cost;
+    Set<String> sequentiallyScannedTables;
+
+    /**
+     * Method reads estimated total cost of the statement and tables scanned
+     * sequentially from lines of the plan.
+     *
+     * @param sql   {@link String} explained statement.
+     * @param lines list of {@link String} lines of the plan in text format.
+     * @return {@link QueryPlan}.
+     */
+    static QueryPlan parse(String sql, List<String> lines) {
+        String text = String.join(System.lineSeparator(), lines);
+        Matcher cost = COST.matcher(lines.get(0));
+        if (!cost.find()) {
+            throw new IllegalStateException("No cost in plan " + text);
+        }
+        Set<String> tables = new TreeSet<>();
+        Matcher scan = SEQUENTIAL_SCAN.matcher(text);
+        while (scan.find()) {
+            tables.add(scan.group(1));
+        }
+        return new QueryPlan(sql, text, Double.parseDouble(cost.group(1)), tables);
+    }
+}
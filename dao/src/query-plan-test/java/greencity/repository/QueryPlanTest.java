@@ -0,0 +1,262 @@
+package greencity.repository;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.Geohash;
+import greencity.entity.enums.EmployeePosition;
+import greencity.entity.order.UndeliveredOrder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code EXPLAIN} for every repository query against embedded PostgreSQL
+ * migrated by Liquibase and seeded with {@code query-plan-seed.sql}. A query
+ * fails when it scans a big table sequentially or when its estimated cost grows
+ * by more than a quarter of the cost in {@code query-plan-baseline.properties}.
+ * Measured costs are written to {@code target/query-plans.properties}, copy them
+ * to the baseline after intended changes of queries or indexes. The suite runs
+ * with the other tests of the module and is skipped only when PostgreSQL cannot
+ * be started, it refuses to start under root.
+ */
+class QueryPlanTest {
+    private static final double COST_TOLERANCE = 1.25;
+    /**
+     * Tables which stay small whatever the amount of orders is, PostgreSQL reads
+     * them whole instead of going through an index.
+     */
+    private static final Set<String> SMALL_TABLES = Set.of("bag", "bag_capacity_version", "positions",
+        "employee_position", "employees", "pending_litres_by_address");
+    private static final Path MEASURED_COSTS = Paths.get("target", "query-plans.properties");
+    /**
+     * Total amount of certificates for the page is counted over the whole table,
+     * users of all orders on the route are hashed at once instead of being looked
+     * up one by one.
+     */
+    private static final Map<String, Set<String>> SEQUENTIAL_SCANS_ALLOWED = Map.of(
+        "CertificateRepository.getAll", Set.of("certificate"),
+        "OrderRepository.getAllUsersInWhichTheRouteIsDefined", Set.of("users"));
+
+    private static EmbeddedDatabase database;
+    private static Properties baseline;
+    private static Properties measured = new Properties();
+    private static double latitude;
+    private static double longitude;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        database = EmbeddedDatabase.start();
+        seed(database.jdbcTemplate());
+        baseline = new Properties();
+        try (InputStream in = new ClassPathResource("query-plan-baseline.properties").getInputStream()) {
+            baseline.load(in);
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (database == null) {
+            return;
+        }
+        Files.createDirectories(MEASURED_COSTS.getParent());
+        try (OutputStream out = Files.newOutputStream(MEASURED_COSTS)) {
+            measured.store(out, "Estimated costs of repository queries");
+        }
+        database.close();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute((Connection connection) -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("query-plan-seed.sql"));
+            return null;
+        });
+        List<Object[]> geohashes = jdbcTemplate.query(
+            "SELECT id, latitude, longitude FROM address WHERE latitude IS NOT NULL",
+            (resultSet, row) -> new Object[] {
+                Geohash.encode(resultSet.getDouble(2), resultSet.getDouble(3), Geohash.PRECISION),
+                resultSet.getLong(1)});
+        jdbcTemplate.batchUpdate("UPDATE address SET geohash = ? WHERE id = ?", geohashes);
+        jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET default_statistics_target = 10000");
+                statement.execute("VACUUM ANALYZE");
+            }
+            return null;
+        });
+        Map<String, Object> undelivered = jdbcTemplate.queryForMap("SELECT a.latitude, a.longitude FROM orders o "
+            + "JOIN ubs_user u ON u.id = o.ubs_user_id JOIN address a ON a.id = u.address_id "
+            + "WHERE o.order_status = 'PAID' AND a.latitude IS NOT NULL ORDER BY o.id LIMIT 1");
+        latitude = (Double) undelivered.get("latitude");
+        longitude = (Double) undelivered.get("longitude");
+    }
+
+    static Stream<Arguments> queries() {
+        Map<String, Consumer<EmbeddedDatabase>> queries = new LinkedHashMap<>();
+        List<String> geohashPrefixes = Geohash.coveringPrefixes(49.80, 23.95, 49.81, 23.97);
+
+        queries.put("AddressRepository.undeliveredOrdersCoords",
+            db -> db.getBean(AddressRepository.class).undeliveredOrdersCoords());
+        queries.put("AddressRepository.undeliveredOrdersCoordsWithCapacityLimit",
+            db -> db.getBean(AddressRepository.class).undeliveredOrdersCoordsWithCapacityLimit(3000));
+        queries.put("AddressRepository.undeliveredOrdersCapacitiesAfter",
+            db -> db.getBean(AddressRepository.class)
+                .undeliveredOrdersCapacitiesAfter(49.8, 24.0, PageRequest.of(0, 500)));
+        queries.put("AddressRepository.undeliveredOrdersCapacitiesBetween",
+            db -> db.getBean(AddressRepository.class).undeliveredOrdersCapacitiesBetween(49.8, 24.0, 49.81, 24.0));
+        queries.put("AddressRepository.capacity",
+            db -> db.getBean(AddressRepository.class).capacity(latitude, longitude));
+
+        queries.put("OrderRepository.undeliveredOrdersGroupThem",
+            db -> db.getBean(OrderRepository.class).undeliveredOrdersGroupThem(latitude, longitude));
+        queries.put("OrderRepository.findUndeliveredOrders",
+            db -> db.getBean(OrderRepository.class).findUndeliveredOrders());
+        queries.put("OrderRepository.streamUndeliveredOrders", db -> {
+            try (Stream<UndeliveredOrder> orders = db.getBean(OrderRepository.class).streamUndeliveredOrders()) {
+                orders.forEach(order -> {
+                });
+            }
+        });
+        queries.put("OrderRepository.findUndeliveredOrdersByCoordinates",
+            db -> db.getBean(OrderRepository.class).findUndeliveredOrdersByCoordinates(
+                List.of(new Coordinates(latitude, longitude), new Coordinates(49.81, 24.02))));
+        queries.put("OrderRepository.findUndeliveredOrdersWithin",
+            db -> db.getBean(OrderRepository.class)
+                .findUndeliveredOrdersWithin(geohashPrefixes, 49.80, 49.81, 23.95, 23.97));
+        queries.put("OrderRepository.undeliveredAddresses",
+            db -> db.getBean(OrderRepository.class).undeliveredAddresses());
+        queries.put("OrderRepository.getAllUsersInWhichTheRouteIsDefined",
+            db -> db.getBean(OrderRepository.class).getAllUsersInWhichTheRouteIsDefined());
+
+        queries.put("UBSuserRepository.getAllByUserId",
+            db -> db.getBean(UBSuserRepository.class).getAllByUserId(42L));
+        queries.put("UBSuserRepository.getAllUBSusersWhoHaveNotPaid",
+            db -> db.getBean(UBSuserRepository.class).getAllUBSusersWhoHaveNotPaid(
+                LocalDate.now().minusDays(3).atStartOfDay(), LocalDate.now().minusDays(2).atStartOfDay()));
+        queries.put("UserRepository.findByUuid",
+            db -> db.getBean(UserRepository.class).findByUuid("a1d0c6e83f027327d8461063f4ac58a6"));
+
+        queries.put("CertificateRepository.updateCertificateStatusToExpired",
+            db -> db.getBean(CertificateRepository.class).updateCertificateStatusToExpired());
+        queries.put("CertificateRepository.getAll",
+            db -> db.getBean(CertificateRepository.class).getAll(PageRequest.of(0, 20)));
+        queries.put("CertificateRepository.getFirst",
+            db -> db.getBean(CertificateRepository.class).getFirst(PageRequest.of(0, 21)));
+        queries.put("CertificateRepository.getAllAfter",
+            db -> db.getBean(CertificateRepository.class)
+                .getAllAfter(LocalDate.now().minusDays(900), "000025900", PageRequest.of(0, 21)));
+        queries.put("CertificateRepository.estimateCount",
+            db -> db.getBean(CertificateRepository.class).estimateCount());
+
+        queries.put("PendingLitresRepository.findAllCapacities",
+            db -> db.getBean(PendingLitresRepository.class).findAllCapacities());
+        queries.put("PendingLitresRepository.findAllCapacitiesWithin",
+            db -> db.getBean(PendingLitresRepository.class).findAllCapacitiesWithin(49.80, 49.81, 23.95, 23.97));
+        queries.put("PendingLitresRepository.findLitres",
+            db -> db.getBean(PendingLitresRepository.class).findLitres(latitude, longitude));
+        queries.put("PendingLitresRepository.findAllBetweenForUpdate",
+            db -> db.getBean(PendingLitresRepository.class).findAllBetweenForUpdate(49.8, 24.0, 49.81, 24.0));
+        queries.put("PendingLitresRepository.findForUpdate",
+            db -> db.getBean(PendingLitresRepository.class).findForUpdate(latitude, longitude));
+        queries.put("PendingLitresRepository.addLitres",
+            db -> db.getBean(PendingLitresRepository.class).addLitres(latitude, longitude, 120L));
+        queries.put("PendingLitresRepository.setLitres",
+            db -> db.getBean(PendingLitresRepository.class).setLitres(latitude, longitude, 120L));
+        queries.put("PendingLitresRepository.insertLitres",
+            db -> db.getBean(PendingLitresRepository.class).insertLitres(latitude, longitude, 120L));
+        queries.put("PendingLitresRepository.deleteIfEmpty",
+            db -> db.getBean(PendingLitresRepository.class).deleteIfEmpty(latitude, longitude));
+        queries.put("PendingLitresRepository.deleteLitres",
+            db -> db.getBean(PendingLitresRepository.class).deleteLitres(latitude, longitude));
+
+        queries.put("EmployeeRepository.findAllByPosition",
+            db -> db.getBean(EmployeeRepository.class).findAllByPosition(EmployeePosition.COURIER));
+        queries.put("EmployeeRepository.detachOrders",
+            db -> db.getBean(EmployeeRepository.class).detachOrders(List.of(1L, 2L, 3L)));
+
+        queries.put("BagRepository.getCapacityVersion",
+            db -> db.getBean(BagRepository.class).getCapacityVersion());
+
+        queries.put("TelegramBotRepository.findByChatId",
+            db -> db.getBean(TelegramBotRepository.class).findByChatId(100000370L));
+
+        return queries.entrySet().stream().map(query -> Arguments.of(query.getKey(), query.getValue()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesIndexesTest(String name, Consumer<EmbeddedDatabase> query) {
+        List<QueryPlan> plans = database.explainRolledBack(() -> query.accept(database));
+        assertTrue(!plans.isEmpty(), name + " executed no statements");
+
+        Map<String, QueryPlan> plansBySql = new LinkedHashMap<>();
+        for (QueryPlan plan : plans) {
+            plansBySql.merge(plan.getSql(), plan, (a, b) -> a.getCost() >= b.getCost() ? a : b);
+        }
+        Set<String> allowed = SEQUENTIAL_SCANS_ALLOWED.getOrDefault(name, Set.of());
+        for (QueryPlan plan : plansBySql.values()) {
+            Set<String> scanned = plan.getSequentiallyScannedTables().stream()
+                .filter(table -> !SMALL_TABLES.contains(table) && !allowed.contains(table))
+                .collect(Collectors.toCollection(TreeSet::new));
+            assertTrue(scanned.isEmpty(),
+                () -> name + " scans " + scanned + " sequentially:\n" + plan.getSql() + "\n" + plan.getText());
+        }
+
+        double cost = plansBySql.values().stream().mapToDouble(QueryPlan::getCost).sum();
+        measured.setProperty(name, String.format(Locale.ROOT, "%.2f", cost));
+        String expected = baseline.getProperty(name);
+        assertNotNull(expected, () -> name + " has no cost in query-plan-baseline.properties, measured " + cost);
+        assertTrue(cost <= Double.parseDouble(expected) * COST_TOLERANCE,
+            () -> name + " costs " + cost + " instead of " + expected + ":\n" + plansBySql.values().stream()
+                .map(plan -> plan.getSql() + "\n" + plan.getText())
+                .collect(Collectors.joining("\n\n")));
+    }
+
+    @Test
+    void everyRepositoryQueryIsExplainedTest() {
+        Set<String> explained = queries().map(arguments -> (String) arguments.get()[0])
+            .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : List.of(AddressRepository.class, OrderRepository.class, UBSuserRepository.class,
+            UserRepository.class, CertificateRepository.class, PendingLitresRepository.class,
+            EmployeeRepository.class, BagRepository.class, TelegramBotRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Query.class) || method.getName().startsWith("findBy")) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        declared.removeAll(explained);
+        assertEquals(new TreeSet<>(), declared);
+    }
+}
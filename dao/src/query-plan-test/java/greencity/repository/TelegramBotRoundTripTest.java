@@ -0,0 +1,103 @@
+package greencity.repository;
+
+import greencity.entity.order.Order;
+import greencity.entity.user.ubs.UBSuser;
+import greencity.statistics.StatementCounter;
+import greencity.statistics.StatementStats;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts statements sent to the database while telegram bot looks for chats to
+ * notify, the same way as {@code UBSBotService} does it: every user has its
+ * own telegram bot, so loading them one by one would take a statement per
+ * notified user.
+ */
+class TelegramBotRoundTripTest {
+    private static final int USERS = 5;
+
+    private static EmbeddedDatabase database;
+
+    @BeforeAll
+    static void startDatabase() {
+        database = EmbeddedDatabase.start();
+        database.jdbcTemplate().update("INSERT INTO telegram_bot (id, chat_id) "
+            + "SELECT i, 1000 + i FROM generate_series(1, ?) i", USERS);
+        database.jdbcTemplate().update("INSERT INTO users (id, current_points, uuid, violations, telegram_bot_id) "
+            + "SELECT i, 0, md5(i::text), 0, i FROM generate_series(1, ?) i", USERS);
+        database.jdbcTemplate().update("INSERT INTO address (id, city, street, district, house_number, "
+            + "entrance_number, latitude, longitude) "
+            + "SELECT i, 'Lviv', 'Stryiska', 'Frankivskyi', i::text, '1', 49.8, 24.0 "
+            + "FROM generate_series(1, ?) i", USERS);
+        database.jdbcTemplate().update("INSERT INTO ubs_user (id, email, first_name, last_name, phone_number, "
+            + "users_id, address_id) "
+            + "SELECT i, 'user' || i || '@mail.com', 'Name', 'Surname', '671234567', i, i "
+            + "FROM generate_series(1, ?) i", USERS);
+        database.jdbcTemplate().update("INSERT INTO payment (id, amount, currency, order_status) "
+            + "SELECT i, 100, 'UAH', 'approved' FROM generate_series(1, ?) i", USERS);
+        database.jdbcTemplate().update("INSERT INTO orders (id, order_date, order_status, points_to_use, "
+            + "ubs_user_id, users_id, total_litres, payment_id, deliver_from, deliver_to) "
+            + "SELECT i, current_date - 3 + time '10:00', 'FORMED', 0, i, i, 120, NULL, NULL, NULL "
+            + "FROM generate_series(1, ?) i "
+            + "UNION ALL "
+            + "SELECT ? + i, current_date, 'ON_THE_ROUTE', 0, i, i, 120, i, "
+            + "current_date + time '09:00', current_date + time '11:00' "
+            + "FROM generate_series(1, ?) i", USERS, USERS, USERS);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void usersWhoHaveNotPaidAreLoadedWithOneStatementTest() {
+        LocalDate orderDate = LocalDate.now().minusDays(3);
+        List<Long> chatIds = count("notPaid", () -> database.getBean(UBSuserRepository.class)
+            .getAllUBSusersWhoHaveNotPaid(orderDate.atStartOfDay(), orderDate.plusDays(1).atStartOfDay()).stream()
+            .map(UBSuser::getUser)
+            .map(user -> user.getTelegramBot().getChatId())
+            .collect(Collectors.toList()));
+
+        assertEquals(USERS, chatIds.size());
+        assertEquals(1, statementsOf("notPaid"));
+    }
+
+    @Test
+    void ordersOnTheRouteAreLoadedWithOneStatementTest() {
+        List<Long> chatIds = count("onTheRoute", () -> database.getBean(OrderRepository.class)
+            .getAllUsersInWhichTheRouteIsDefined().stream()
+            .map(Order::getUser)
+            .map(user -> user.getTelegramBot().getChatId())
+            .collect(Collectors.toList()));
+
+        assertEquals(USERS, chatIds.size());
+        assertEquals(1, statementsOf("onTheRoute"));
+    }
+
+    private static <T> List<T> count(String name, Supplier<List<T>> query) {
+        AtomicReference<List<T>> result = new AtomicReference<>();
+        database.explainRolledBack(
+            () -> database.getBean(StatementCounter.class).count(name, () -> result.set(query.get())));
+        return result.get();
+    }
+
+    private static int statementsOf(String name) {
+        return database.getBean(StatementCounter.class).getStats().stream()
+            .filter(stats -> stats.getName().equals(name))
+            .mapToInt(StatementStats::getMaxStatements)
+            .findFirst()
+            .orElse(0);
+    }
+}
@@ -0,0 +1,77 @@
+-- Synthetic volume for QueryPlanTest: a year of orders of a city, where only
+-- a small share of orders is not delivered yet, as it is in production.
+INSERT INTO bag (id, capacity, name, price)
+VALUES (1, 120, 'Mixed waste', 250), (2, 20, 'Glass', 50), (3, 35, 'Paper', 60);
+
+INSERT INTO users (id, current_points, uuid, violations)
+SELECT i, 0, md5(i::text), 0
+FROM generate_series(1, 20000) i;
+
+INSERT INTO address (id, city, street, district, house_number, entrance_number, latitude, longitude)
+SELECT i, 'Lviv', 'Street ' || (i % 700), 'District ' || (i % 6), (i % 200)::text, '1',
+       CASE WHEN i % 100 = 0 THEN NULL ELSE 49.75 + (i % 300) * 0.0005 END,
+       CASE WHEN i % 100 = 0 THEN NULL ELSE 23.9 + (i / 300 % 400) * 0.0005 END
+FROM generate_series(1, 100000) i;
+
+INSERT INTO ubs_user (id, email, first_name, last_name, phone_number, users_id, address_id)
+SELECT i, 'user' || i || '@mail.com', 'Name', 'Surname', '671234567', i % 20000 + 1, i
+FROM generate_series(1, 100000) i;
+
+INSERT INTO payment (id, amount, currency, order_status)
+SELECT i, 34500, 'UAH', 'approved'
+FROM generate_series(1, 200000) i
+WHERE i % 1000 <> 1;
+
+INSERT INTO orders (id, order_date, order_status, points_to_use, ubs_user_id, users_id, total_litres, payment_id)
+SELECT i, current_date - (i % 365) + time '10:00' + (i % 480) * interval '1 minute',
+       CASE i % 1000
+           WHEN 0 THEN 'PAID'
+           WHEN 1 THEN 'FORMED'
+           WHEN 2 THEN 'ON_THE_ROUTE'
+           WHEN 3 THEN 'CANCELLED'
+           ELSE 'DONE'
+           END,
+       0, i * 7919 % 100000 + 1, (i * 7919 % 100000 + 1) % 20000 + 1, 2 * 120 + 3 * 35,
+       CASE WHEN i % 1000 = 1 THEN NULL ELSE i END
+FROM generate_series(1, 200000) i;
+
+INSERT INTO order_bag_mapping (order_id, bag_id, amount)
+SELECT i, b.bag_id, b.amount
+FROM generate_series(1, 200000) i
+CROSS JOIN (VALUES (1, 2), (3, 3)) b(bag_id, amount);
+
+INSERT INTO certificate (code, status, expiration_date, creation_date, points)
+SELECT lpad(i::text, 9, '0'),
+       CASE WHEN i % 50 = 0 THEN 'ACTIVE' WHEN i % 50 = 1 THEN 'NEW' WHEN i % 2 = 0 THEN 'USED' ELSE 'EXPIRED' END,
+       current_date - (i % 1000) + 365, current_date - (i % 1000), 100
+FROM generate_series(1, 50000) i;
+
+INSERT INTO pending_litres_by_address (latitude, longitude, litres)
+SELECT a.latitude, a.longitude, sum(o.total_litres)
+FROM orders o
+JOIN ubs_user u ON u.id = o.ubs_user_id
+JOIN address a ON a.id = u.address_id
+WHERE o.order_status = 'PAID' AND a.latitude IS NOT NULL AND a.longitude IS NOT NULL
+GROUP BY a.latitude, a.longitude;
+
+INSERT INTO positions (id, position)
+VALUES (1, 'MANAGER'), (2, 'LOGIST'), (3, 'COURIER'), (4, 'NAVIGATOR');
+
+INSERT INTO employees (id, first_name, last_name)
+SELECT i, 'Name', 'Surname'
+FROM generate_series(1, 40) i;
+
+INSERT INTO employee_position (employee_id, position_id)
+SELECT i, CASE WHEN i <= 30 THEN 3 ELSE i % 4 + 1 END
+FROM generate_series(1, 40) i;
+
+INSERT INTO order_employee (employee_id, order_id)
+SELECT i % 30 + 1, i
+FROM generate_series(1, 200000) i
+WHERE i % 1000 NOT IN (1, 3);
+
+INSERT INTO telegram_bot (id, chat_id)
+SELECT i, 100000000 + i * 37
+FROM generate_series(1, 5000) i;
+
+UPDATE users SET telegram_bot_id = id WHERE id <= 5000;
@@ -16,6 +16,16 @@ public class ErrorMessage {
     public static String NO_SUCH_COORDINATES = "There are no any order with coordinates: ";
     public static String INAVALID_LITRES_AMOUNT = "The amount of litres should be between 0 and 10.000 litres.";
     public static String UNDELIVERED_ORDERS_NOT_FOUND = "There are no any undelivered orders found.";
+    public static String UNKNOWN_CLUSTERING_STRATEGY = "Clustering strategy should be one of: ";
+    public static String CLUSTERING_JOB_NOT_FOUND = "Clustering job does not exist by id: ";
+    public static String TOO_MANY_CLUSTERING_JOBS = "Too many clustering jobs are queued, try again later.";
+    public static String COURIERS_NOT_FOUND = "There are no couriers to assign orders to.";
+    public static String INVALID_BOUNDING_BOX =
+        "Bounding box should have latitudes between -90 and 90, longitudes between -180 and 180 "
+            + "and minimal values not greater than maximal ones.";
+    public static String INVALID_CERTIFICATE_CURSOR =
+        "Certificate cursor should have both creation date and code or neither of them.";
+    public static String INVALID_PAGE_SIZE = "The page size should be between 1 and 100.";
     public static String MINIMAL_SUM_VIOLATION = "The minimal order sum should be 500 UAH.";
     public static String PAYMENT_VALIDATION_ERROR = "The received payment data is not valid.";
     public static String THE_USER_ALREADY_HAS_CONNECTED_TO_TELEGRAM_BOT =
@@ -0,0 +1,22 @@
+package greencity.dto;
+
+import javax.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class BoundingBoxDto {
+    @NotNull
+    private Double minLatitude;
+    @NotNull
+    private Double maxLatitude;
+    @NotNull
+    private Double minLongitude;
+    @NotNull
+    private Double maxLongitude;
+}
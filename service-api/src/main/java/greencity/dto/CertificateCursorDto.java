@@ -0,0 +1,18 @@
+package greencity.dto;
+
+import java.time.LocalDate;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class CertificateCursorDto {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate creationDate;
+    private String code;
+}
@@ -0,0 +1,18 @@
+package greencity.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class CertificateKeysetPageDto {
+    private List<CertificateDtoForSearching> page;
+    private Long totalElements;
+    private Boolean totalEstimated;
+    private CertificateCursorDto next;
+}
@@ -0,0 +1,20 @@
+package greencity.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class ClusteringJobDto {
+    private String id;
+    private ClusteringJobStatus status;
+    private Double progress;
+    private Long resultBytes;
+    private String error;
+    private List<GroupedOrderDto> result;
+}
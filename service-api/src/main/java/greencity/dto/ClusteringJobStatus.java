@@ -0,0 +1,12 @@
+package greencity.dto;
+
+/**
+ * Status of asynchronous clusterization job.
+ */
+public enum ClusteringJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED,
+    CANCELLED
+}
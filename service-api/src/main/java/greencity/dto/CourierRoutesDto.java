@@ -0,0 +1,20 @@
+package greencity.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class CourierRoutesDto {
+    private Long employeeId;
+    private String firstName;
+    private String lastName;
+    private Integer amountOfLitres;
+    private Double routesLength;
+    private List<RouteDto> routes;
+}
@@ -9,6 +9,7 @@ import lombok.*;
 @AllArgsConstructor
 @EqualsAndHashCode
 public class OrderDto {
+    private Long id;
     private String firstName;
     private String lastName;
     private String address;
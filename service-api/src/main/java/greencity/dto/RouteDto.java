@@ -0,0 +1,18 @@
+package greencity.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class RouteDto {
+    private Integer amountOfLitres;
+    private Double length;
+    private Double returnDistance;
+    private List<RouteStopDto> stops;
+}
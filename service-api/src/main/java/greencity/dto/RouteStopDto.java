@@ -0,0 +1,18 @@
+package greencity.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class RouteStopDto {
+    private Double latitude;
+    private Double longitude;
+    private Double legDistance;
+    private List<OrderDto> orders;
+}
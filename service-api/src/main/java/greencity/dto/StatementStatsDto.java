@@ -0,0 +1,18 @@
+package greencity.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class StatementStatsDto {
+    private String name;
+    private Long scopes;
+    private Long statements;
+    private Double averageStatements;
+    private Integer maxStatements;
+}
@@ -0,0 +1,14 @@
+package greencity.exceptions;
+
+/**
+ * Exception shows that clusterization job does not exist or was already
+ * removed.
+ */
+public class ClusteringJobNotFoundException extends RuntimeException {
+    /**
+     * Constructor.
+     */
+    public ClusteringJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package greencity.exceptions;
+
+/**
+ * Exception shows that there are no couriers to assign orders to.
+ */
+public class CouriersNotFoundException extends RuntimeException {
+    /**
+     * Constructor.
+     */
+    public CouriersNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package greencity.exceptions;
+
+/**
+ * Exception shows that queue of clusterization jobs is full.
+ */
+public class TooManyClusteringJobsException extends RuntimeException {
+    /**
+     * Constructor.
+     */
+    public TooManyClusteringJobsException(String message) {
+        super(message);
+    }
+}
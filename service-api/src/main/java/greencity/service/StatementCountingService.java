@@ -0,0 +1,30 @@
+package greencity.service;
+
+import greencity.dto.StatementStatsDto;
+import java.util.List;
+
+/**
+ * Service that counts SQL statements executed by endpoints and scheduled jobs.
+ */
+public interface StatementCountingService {
+    /**
+     * Method opens scope of counting on the current thread.
+     */
+    void begin();
+
+    /**
+     * Method ends the scope opened last on the current thread.
+     *
+     * @param name {@link String} name of the scope, like endpoint or job.
+     * @return amount of statements executed in the scope.
+     */
+    int end(String name);
+
+    /**
+     * Method returns amount of SQL statements executed by every endpoint and
+     * scheduled job.
+     *
+     * @return list of {@link StatementStatsDto} ordered by name.
+     */
+    List<StatementStatsDto> getStatementStats();
+}
@@ -0,0 +1,34 @@
+package greencity.service.ubs;
+
+import greencity.dto.ClusteringJobDto;
+
+public interface ClusteringJobService {
+    /**
+     * Method queues asynchronous clusterization of undelivered orders.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @return {@link ClusteringJobDto} of queued job.
+     */
+    ClusteringJobDto start(double distance, int litres, String strategy, boolean parallel);
+
+    /**
+     * Method returns progress of clusterization job along with its result once it
+     * is done.
+     *
+     * @param id - id of the job.
+     * @return {@link ClusteringJobDto}.
+     */
+    ClusteringJobDto get(String id);
+
+    /**
+     * Method cancels queued or running clusterization job. Finished job is removed
+     * along with its result.
+     *
+     * @param id - id of the job.
+     * @return {@link ClusteringJobDto} of cancelled job.
+     */
+    ClusteringJobDto cancel(String id);
+}
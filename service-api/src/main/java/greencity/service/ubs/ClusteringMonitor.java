@@ -0,0 +1,62 @@
+package greencity.service.ubs;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Observer of long clusterization which receives its progress and may ask it to
+ * stop. Clusterization checks {@link #checkCancelled()} between its steps, so
+ * it is stopped cooperatively.
+ */
+public interface ClusteringMonitor {
+    /**
+     * Monitor which ignores progress and never cancels clusterization.
+     */
+    ClusteringMonitor NONE = new ClusteringMonitor() {
+        @Override
+        public void started(int coordinates) {
+            // progress is not tracked
+        }
+
+        @Override
+        public void coordinatesClustered(int amount) {
+            // progress is not tracked
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Method is called when clusterization of given amount of coordinates starts.
+     *
+     * @param coordinates amount of coordinates to be grouped.
+     */
+    void started(int coordinates);
+
+    /**
+     * Method is called when some coordinates are put into clusters.
+     *
+     * @param amount amount of just grouped coordinates.
+     */
+    void coordinatesClustered(int amount);
+
+    /**
+     * Method tells whether clusterization should be stopped.
+     *
+     * @return {@code true} if clusterization is cancelled.
+     */
+    boolean isCancelled();
+
+    /**
+     * Method stops clusterization if it is cancelled.
+     *
+     * @throws CancellationException if clusterization is cancelled.
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Clusterization is cancelled");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package greencity.service.ubs;
+
+import greencity.dto.CourierRoutesDto;
+import java.util.List;
+
+public interface CourierAssignmentService {
+    /**
+     * Method groups undelivered orders into routes and distributes them between
+     * couriers, balancing litres and length of routes. Routed orders are detached
+     * from employees they were attached to before and attached to their couriers.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @return list of {@link CourierRoutesDto} in order of couriers ids.
+     */
+    List<CourierRoutesDto> assignCouriers(double distance, int litres, String strategy, boolean parallel);
+}
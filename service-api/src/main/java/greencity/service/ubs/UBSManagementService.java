@@ -3,6 +3,7 @@ package greencity.service.ubs;
 import greencity.dto.*;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
 
 public interface UBSManagementService {
@@ -29,6 +30,62 @@ public interface UBSManagementService {
      */
     List<GroupedOrderDto> getClusteredCoords(double distance, int litres);
 
+    /**
+     * Method to group orders into clusters including summary litres with chosen
+     * clustering strategy, optionally clustering geographic tiles of the city in
+     * parallel.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @return List of {@link GroupedOrderDto} lists.
+     */
+    List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy, boolean parallel);
+
+    /**
+     * Method to group orders into clusters including summary litres with chosen
+     * clustering strategy reporting progress to given monitor. Unlike other
+     * methods, clusterization is not shared with concurrent identical requests, so
+     * it may be cancelled by the monitor alone.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @param monitor  {@link ClusteringMonitor} of clusterization.
+     * @return List of {@link GroupedOrderDto} lists.
+     * @throws java.util.concurrent.CancellationException if monitor is cancelled.
+     */
+    List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        ClusteringMonitor monitor);
+
+    /**
+     * Method to group orders with address inside bounding box into clusters
+     * including summary litres. Only orders inside the box are loaded and grouped,
+     * so the result is not shared with requests for the whole city.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param area     - {@link BoundingBoxDto} of the area.
+     * @return List of {@link GroupedOrderDto} lists.
+     */
+    List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy, BoundingBoxDto area);
+
+    /**
+     * Method groups orders into clusters like
+     * {@link #getClusteredCoords(double, int, String, boolean)} and orders stops of
+     * every cluster into route starting and ending at receiving station.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @return List of {@link RouteDto}.
+     */
+    List<RouteDto> getClusteredRoutes(double distance, int litres, String strategy, boolean parallel);
+
     /**
      * Method returns all undelivered orders including litres.
      *
@@ -37,6 +94,57 @@ public interface UBSManagementService {
      */
     List<GroupedOrderDto> getAllUndeliveredOrdersWithLiters();
 
+    /**
+     * Method returns undelivered orders with address inside bounding box grouped by
+     * coordinates including litres.
+     *
+     * @param area - {@link BoundingBoxDto} of the area.
+     * @return List of {@link GroupedOrderDto} lists, empty if there are no orders
+     *         in the area.
+     */
+    List<GroupedOrderDto> getUndeliveredOrdersWithLitersWithin(BoundingBoxDto area);
+
+    /**
+     * Method passes undelivered orders grouped by coordinates to given consumer one
+     * group at a time, reading orders through database cursor, so memory does not
+     * grow with amount of orders. Groups are ordered by coordinates.
+     *
+     * @param consumer {@link Consumer} of {@link GroupedOrderDto}.
+     */
+    void streamAllUndeliveredOrdersWithLiters(Consumer<GroupedOrderDto> consumer);
+
+    /**
+     * Method checks parameters of clusterization, so they can be rejected before a
+     * response is streamed.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @throws greencity.exceptions.IncorrectValueException if parameters are wrong.
+     */
+    void checkClusteringParameters(double distance, int litres, String strategy);
+
+    /**
+     * Method passes clusters of undelivered orders to given consumer one at a time,
+     * loading orders of a few clusters at once, so memory does not grow with amount
+     * of orders.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles should be clustered in parallel.
+     * @param consumer {@link Consumer} of {@link GroupedOrderDto}.
+     */
+    void streamClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        Consumer<GroupedOrderDto> consumer);
+
+    /**
+     * Method returns statistics of cache of grouped undelivered orders.
+     *
+     * @return {@link CacheStatsDto}.
+     */
+    CacheStatsDto getCacheStats();
+
     /**
      * Method returns all certificates.
      *
@@ -45,6 +153,21 @@ public interface UBSManagementService {
      */
     PageableDto<CertificateDtoForSearching> getAllCertificates(Pageable page);
 
+    /**
+     * Method returns certificates following the given one in the order of
+     * {@link #getAllCertificates}, so deep pages cost as much as the first one.
+     * Total amount of certificates is estimated from statistics of the database
+     * unless exact amount is requested.
+     *
+     * @param cursor     {@link CertificateCursorDto} of the last certificate
+     *                   already read, without values for the first page.
+     * @param size       amount of certificates on the page.
+     * @param exactCount whether certificates should be counted exactly.
+     * @return {@link CertificateKeysetPageDto} with cursor of the next page, which
+     *         is {@code null} on the last page.
+     */
+    CertificateKeysetPageDto getCertificatesAfter(CertificateCursorDto cursor, int size, boolean exactCount);
+
     /**
      * Method add a certificates.
      *
@@ -0,0 +1,41 @@
+package greencity.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClusteringConfig {
+    /**
+     * Provides pool for parallel clusterization shared by all requests, so
+     * concurrent clusterizations do not use more threads than there are cores.
+     *
+     * @param parallelism amount of threads, all available processors are used if it
+     *                    is not positive.
+     * @return {@link ForkJoinPool}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool clusteringForkJoinPool(@Value("${ubs.clustering.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Provides executor of asynchronous clusterization jobs. Jobs which do not fit
+     * into the queue are rejected instead of piling up in memory.
+     *
+     * @param threads       amount of jobs running at once.
+     * @param queueCapacity amount of jobs waiting for a free thread.
+     * @return {@link ExecutorService}.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService clusteringJobExecutor(@Value("${ubs.clustering.jobs.threads:2}") int threads,
+        @Value("${ubs.clustering.jobs.queue-capacity:8}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -2,6 +2,9 @@ package greencity.config;
 
 import greencity.entity.order.Certificate;
 import greencity.repository.CertificateRepository;
+import greencity.service.ubs.BagCapacityWatcher;
+import greencity.service.ubs.PendingLitresReconciler;
+import greencity.statistics.StatementCounter;
 import greencity.ubstelegrambot.UBSBotService;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class SenderScheduledMessages {
     private final UBSBotService ubsBotService;
     private final CertificateRepository certificateRepository;
+    private final PendingLitresReconciler pendingLitresReconciler;
+    private final BagCapacityWatcher bagCapacityWatcher;
+    private final StatementCounter statementCounter;
 
     /**
      * The method every day at 09:00 am send a message to users that have not paid
@@ -22,7 +28,7 @@ public class SenderScheduledMessages {
      */
     @Scheduled(cron = "0 0 9 * * ?", zone = "Europe/Kiev")
     public void sendMessageWhenOrderNonPayment() {
-        ubsBotService.sendMessageWhenOrderNonPayment();
+        statementCounter.count("sendMessageWhenOrderNonPayment", ubsBotService::sendMessageWhenOrderNonPayment);
     }
 
     /**
@@ -31,7 +37,8 @@ public class SenderScheduledMessages {
      */
     @Scheduled(cron = "0 0 8 * * ?", zone = "Europe/Kiev")
     public void sendMessageWhenGarbageTruckArrives() {
-        ubsBotService.sendMessageWhenGarbageTruckArrives();
+        statementCounter.count("sendMessageWhenGarbageTruckArrives",
+            ubsBotService::sendMessageWhenGarbageTruckArrives);
     }
 
     /**
@@ -41,6 +48,25 @@ public class SenderScheduledMessages {
     @Transactional
     @Scheduled(cron = "0 0 0 * * ?")
     public void scheduleUpdateExpiredCertificates() {
-        certificateRepository.updateCertificateStatusToExpired();
+        statementCounter.count("scheduleUpdateExpiredCertificates",
+            certificateRepository::updateCertificateStatusToExpired);
+    }
+
+    /**
+     * Method schedules checking litres of undelivered orders kept by coordinates
+     * and repairing drift every hour.
+     */
+    @Scheduled(cron = "${ubs.pending-litres.reconciliation.cron:0 30 * * * ?}")
+    public void schedulePendingLitresReconciliation() {
+        statementCounter.count("schedulePendingLitresReconciliation", pendingLitresReconciler::reconcile);
+    }
+
+    /**
+     * Method schedules checking whether capacity of a bag was changed in the
+     * database, so cached litres are not served until they expire.
+     */
+    @Scheduled(fixedDelayString = "${ubs.bag-capacity.check-delay-millis:10000}")
+    public void scheduleBagCapacityCheck() {
+        statementCounter.count("scheduleBagCapacityCheck", bagCapacityWatcher::checkCapacityVersion);
     }
 }
@@ -0,0 +1,29 @@
+package greencity.event;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Event published when status of an order is changed.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class OrderStatusChangedEvent {
+    private final Long orderId;
+    /**
+     * Coordinates of order address, may be {@code null}.
+     */
+    private final Coordinates coordinates;
+    private final OrderStatus previousStatus;
+    private final OrderStatus newStatus;
+    /**
+     * Litres of bags ordered, may be {@code null}.
+     */
+    private final Integer litres;
+}
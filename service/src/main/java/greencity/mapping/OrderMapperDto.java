@@ -15,6 +15,7 @@ public class OrderMapperDto extends AbstractConverter<Order, OrderDto> {
     @Override
     protected OrderDto convert(Order order) {
         return OrderDto.builder()
+            .id(order.getId())
             .firstName(order.getUbsUser().getFirstName())
             .lastName(order.getUbsUser().getLastName())
             .address(order.getUbsUser().getUserAddress().getDistrict() + " "
@@ -0,0 +1,49 @@
+package greencity.service;
+
+import greencity.dto.StatementStatsDto;
+import greencity.statistics.StatementCounter;
+import greencity.statistics.StatementStats;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@AllArgsConstructor
+public class StatementCountingServiceImpl implements StatementCountingService {
+    private final StatementCounter statementCounter;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void begin() {
+        statementCounter.begin();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int end(String name) {
+        return statementCounter.end(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatementStatsDto> getStatementStats() {
+        List<StatementStatsDto> result = new ArrayList<>();
+        for (StatementStats stats : statementCounter.getStats()) {
+            result.add(StatementStatsDto.builder()
+                .name(stats.getName())
+                .scopes(stats.getScopes())
+                .statements(stats.getStatements())
+                .averageStatements((double) stats.getStatements() / stats.getScopes())
+                .maxStatements(stats.getMaxStatements())
+                .build());
+        }
+        return result;
+    }
+}
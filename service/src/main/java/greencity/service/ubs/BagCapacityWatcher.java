@@ -0,0 +1,46 @@
+package greencity.service.ubs;
+
+import greencity.repository.BagRepository;
+import greencity.service.ubs.clustering.IncrementalClusterModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notices changes of bag capacity. Capacity is changed directly in the
+ * database, where trigger recalculates litres of orders and increments version
+ * of bag capacities, so the version is polled. When it changes, litres kept by
+ * coordinates are reconciled with orders, then cached clusters and snapshots
+ * computed from the old litres are dropped.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BagCapacityWatcher {
+    private final BagRepository bagRepository;
+    private final PendingLitresReconciler pendingLitresReconciler;
+    private final UndeliveredOrdersCache undeliveredOrdersCache;
+    private final IncrementalClusterModel incrementalClusterModel;
+    private Long version;
+
+    /**
+     * Method compares version of bag capacities with the one seen last time and
+     * drops litres computed before the change if it differs. The first check only
+     * remembers the version.
+     *
+     * @return {@code true} if capacity of a bag has changed since the last check.
+     */
+    public synchronized boolean checkCapacityVersion() {
+        Long current = bagRepository.getCapacityVersion();
+        Long previous = version;
+        version = current;
+        if (previous == null || previous.equals(current)) {
+            return false;
+        }
+        log.info("Bag capacity version changed from {} to {}, cached litres are dropped", previous, current);
+        pendingLitresReconciler.reconcile();
+        undeliveredOrdersCache.invalidate();
+        incrementalClusterModel.clear();
+        return true;
+    }
+}
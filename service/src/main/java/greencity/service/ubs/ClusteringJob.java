@@ -0,0 +1,141 @@
+package greencity.service.ubs;
+
+import greencity.dto.ClusteringJobDto;
+import greencity.dto.ClusteringJobStatus;
+import greencity.dto.GroupedOrderDto;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+
+/**
+ * State of asynchronous clusterization which is also its
+ * {@link ClusteringMonitor}. Transitions between statuses are synchronized, so
+ * a job cancelled while queued never starts and a job finished before
+ * cancellation keeps its result.
+ */
+@Getter
+class ClusteringJob implements ClusteringMonitor {
+    private final String id;
+    private final double distance;
+    private final int litres;
+    private final String strategy;
+    private final boolean parallel;
+    private final AtomicInteger clustered = new AtomicInteger();
+    private volatile int total;
+    private volatile boolean cancelled;
+    private volatile ClusteringJobStatus status = ClusteringJobStatus.QUEUED;
+    private volatile List<GroupedOrderDto> result;
+    private volatile long resultBytes;
+    private volatile String error;
+    private volatile long finishedAt;
+    private Future<?> future;
+
+    ClusteringJob(String id, double distance, int litres, String strategy, boolean parallel) {
+        this.id = id;
+        this.distance = distance;
+        this.litres = litres;
+        this.strategy = strategy;
+        this.parallel = parallel;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void started(int coordinates) {
+        total = coordinates;
+        clustered.set(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void coordinatesClustered(int amount) {
+        clustered.addAndGet(amount);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean markRunning() {
+        if (status != ClusteringJobStatus.QUEUED) {
+            return false;
+        }
+        status = ClusteringJobStatus.RUNNING;
+        return true;
+    }
+
+    synchronized void markDone(List<GroupedOrderDto> result, long resultBytes) {
+        this.result = result;
+        this.resultBytes = resultBytes;
+        finish(ClusteringJobStatus.DONE);
+    }
+
+    synchronized void markFailed(String error) {
+        this.error = error;
+        finish(ClusteringJobStatus.FAILED);
+    }
+
+    synchronized void markCancelled() {
+        finish(ClusteringJobStatus.CANCELLED);
+    }
+
+    /**
+     * Method asks the job to stop. Queued job is cancelled at once, running one
+     * stops at the next check of {@link #checkCancelled()}.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        if (status == ClusteringJobStatus.QUEUED) {
+            if (future != null) {
+                future.cancel(false);
+            }
+            markCancelled();
+        }
+    }
+
+    synchronized boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    /**
+     * Method drops result of finished job to free memory.
+     */
+    synchronized void dropResult() {
+        result = null;
+        resultBytes = 0;
+    }
+
+    synchronized ClusteringJobDto toDto() {
+        double progress;
+        if (status == ClusteringJobStatus.DONE) {
+            progress = 1;
+        } else {
+            progress = total == 0 ? 0 : Math.min(1, (double) clustered.get() / total);
+        }
+        return ClusteringJobDto.builder()
+            .id(id)
+            .status(status)
+            .progress(progress)
+            .resultBytes(resultBytes)
+            .error(error)
+            .result(result)
+            .build();
+    }
+
+    private void finish(ClusteringJobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,198 @@
+package greencity.service.ubs;
+
+import greencity.dto.ClusteringJobDto;
+import greencity.dto.GroupedOrderDto;
+import greencity.dto.OrderDto;
+import greencity.exceptions.ClusteringJobNotFoundException;
+import greencity.exceptions.TooManyClusteringJobsException;
+import greencity.service.ubs.clustering.ClusteringStrategies;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import static greencity.constant.ErrorMessage.CLUSTERING_JOB_NOT_FOUND;
+import static greencity.constant.ErrorMessage.TOO_MANY_CLUSTERING_JOBS;
+
+/**
+ * Runs clusterizations of the whole city on bounded executor, so they do not
+ * hold servlet threads. Finished jobs are kept for
+ * {@code ubs.clustering.jobs.retention-seconds}, and when estimated size of
+ * their results exceeds {@code ubs.clustering.jobs.max-result-bytes}, the
+ * oldest ones are removed.
+ */
+@Service
+@Slf4j
+public class ClusteringJobServiceImpl implements ClusteringJobService {
+    private static final long CLUSTER_BYTES = 64;
+    private static final long ORDER_BYTES = 96;
+    private static final long STRING_BYTES = 40;
+
+    private final UBSManagementService ubsManagementService;
+    private final ClusteringStrategies clusteringStrategies;
+    private final ExecutorService clusteringJobExecutor;
+    private final long retentionMillis;
+    private final long maxResultBytes;
+    private final Map<String, ClusteringJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with parameters.
+     */
+    public ClusteringJobServiceImpl(UBSManagementService ubsManagementService,
+        ClusteringStrategies clusteringStrategies,
+        @Qualifier("clusteringJobExecutor") ExecutorService clusteringJobExecutor,
+        @Value("${ubs.clustering.jobs.retention-seconds:600}") long retentionSeconds,
+        @Value("${ubs.clustering.jobs.max-result-bytes:67108864}") long maxResultBytes) {
+        this.ubsManagementService = ubsManagementService;
+        this.clusteringStrategies = clusteringStrategies;
+        this.clusteringJobExecutor = clusteringJobExecutor;
+        this.retentionMillis = retentionSeconds * 1000;
+        this.maxResultBytes = maxResultBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClusteringJobDto start(double distance, int litres, String strategy, boolean parallel) {
+        UBSManagementServiceImpl.checkIfSpecifiedLitresAndDistancesAreValid(distance, litres);
+        clusteringStrategies.get(strategy);
+        removeExpiredJobs();
+
+        ClusteringJob job = new ClusteringJob(UUID.randomUUID().toString(), distance, litres, strategy, parallel);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(clusteringJobExecutor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new TooManyClusteringJobsException(TOO_MANY_CLUSTERING_JOBS);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClusteringJobDto get(String id) {
+        removeExpiredJobs();
+        return findJob(id).toDto();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClusteringJobDto cancel(String id) {
+        ClusteringJob job = findJob(id);
+        job.cancel();
+        if (job.isFinished()) {
+            jobs.remove(id);
+        }
+        return job.toDto();
+    }
+
+    private ClusteringJob findJob(String id) {
+        ClusteringJob job = jobs.get(id);
+        if (job == null) {
+            throw new ClusteringJobNotFoundException(CLUSTERING_JOB_NOT_FOUND + id);
+        }
+        return job;
+    }
+
+    /**
+     * Method clusterizes undelivered orders for given job and records outcome of
+     * clusterization in it.
+     *
+     * @param job {@link ClusteringJob} to run.
+     */
+    private void run(ClusteringJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<GroupedOrderDto> result = ubsManagementService.getClusteredCoords(job.getDistance(),
+                job.getLitres(), job.getStrategy(), job.isParallel(), job);
+            long resultBytes = estimateBytes(result);
+            evictResultsOverLimit(resultBytes);
+            job.markDone(result, resultBytes);
+            log.info("Clustering job {} finished in {} ms, result takes about {} bytes", job.getId(),
+                (System.nanoTime() - start) / 1_000_000, resultBytes);
+        } catch (CancellationException e) {
+            job.markCancelled();
+            log.info("Clustering job {} cancelled after {} ms", job.getId(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            job.markFailed(e.getMessage());
+            log.error("Clustering job {} failed", job.getId(), e);
+        }
+    }
+
+    /**
+     * Method removes finished jobs which were kept longer than retention time.
+     */
+    private void removeExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.getFinishedAt() > retentionMillis);
+    }
+
+    /**
+     * Method removes the oldest finished jobs while their results together with
+     * result of just finished job take more memory than allowed. Just finished job
+     * is always kept.
+     *
+     * @param newResultBytes estimated size of result of just finished job.
+     */
+    private void evictResultsOverLimit(long newResultBytes) {
+        List<ClusteringJob> finished = new ArrayList<>();
+        long retainedBytes = newResultBytes;
+        for (ClusteringJob job : jobs.values()) {
+            if (job.isFinished()) {
+                finished.add(job);
+                retainedBytes += job.getResultBytes();
+            }
+        }
+        finished.sort(Comparator.comparingLong(ClusteringJob::getFinishedAt));
+        for (ClusteringJob job : finished) {
+            if (retainedBytes <= maxResultBytes) {
+                break;
+            }
+            retainedBytes -= job.getResultBytes();
+            jobs.remove(job.getId());
+            job.dropResult();
+            log.info("Clustering job {} removed to free memory", job.getId());
+        }
+    }
+
+    /**
+     * Method roughly estimates amount of heap taken by grouped orders.
+     *
+     * @param result list of {@link GroupedOrderDto}.
+     * @return {@link Long} estimated amount of bytes.
+     */
+    static long estimateBytes(List<GroupedOrderDto> result) {
+        long bytes = 0;
+        for (GroupedOrderDto cluster : result) {
+            bytes += CLUSTER_BYTES;
+            for (OrderDto order : cluster.getGroupOfOrders()) {
+                bytes += ORDER_BYTES + stringBytes(order.getFirstName()) + stringBytes(order.getLastName())
+                    + stringBytes(order.getAddress()) + stringBytes(order.getAddressComment())
+                    + stringBytes(order.getPhoneNumber());
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_BYTES + value.length();
+    }
+}
@@ -0,0 +1,116 @@
+package greencity.service.ubs;
+
+import greencity.dto.CourierRoutesDto;
+import greencity.dto.OrderDto;
+import greencity.dto.RouteDto;
+import greencity.dto.RouteStopDto;
+import greencity.entity.enums.EmployeePosition;
+import greencity.entity.user.employee.Employee;
+import greencity.exceptions.CouriersNotFoundException;
+import greencity.repository.EmployeeRepository;
+import greencity.service.ubs.routing.RouteBalancer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static greencity.constant.ErrorMessage.COURIERS_NOT_FOUND;
+
+/**
+ * Assigns routes to couriers. Routes are made without a transaction, as
+ * clusterization and routing may take long, and orders are attached to couriers
+ * in a short transaction afterwards. Transactions attaching orders take a lock,
+ * so concurrent assignments replace each other instead of inserting the same
+ * rows.
+ */
+@Service
+@Slf4j
+public class CourierAssignmentServiceImpl implements CourierAssignmentService {
+    private final UBSManagementService ubsManagementService;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor with parameters.
+     */
+    public CourierAssignmentServiceImpl(UBSManagementService ubsManagementService,
+        EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.ubsManagementService = ubsManagementService;
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CourierRoutesDto> assignCouriers(double distance, int litres, String strategy, boolean parallel) {
+        List<Employee> couriers = employeeRepository.findAllByPosition(EmployeePosition.COURIER);
+        if (couriers.isEmpty()) {
+            throw new CouriersNotFoundException(COURIERS_NOT_FOUND);
+        }
+        final long start = System.nanoTime();
+        List<RouteDto> routes = ubsManagementService.getClusteredRoutes(distance, litres, strategy, parallel);
+
+        double[] routeLitres = new double[routes.size()];
+        double[] routeLengths = new double[routes.size()];
+        for (int route = 0; route < routes.size(); route++) {
+            routeLitres[route] = routes.get(route).getAmountOfLitres();
+            routeLengths[route] = routes.get(route).getLength();
+        }
+        int[] assignment = RouteBalancer.assign(routeLitres, routeLengths, couriers.size());
+
+        List<List<RouteDto>> routesByCourier = new ArrayList<>();
+        for (int courier = 0; courier < couriers.size(); courier++) {
+            routesByCourier.add(new ArrayList<>());
+        }
+        for (int route = 0; route < routes.size(); route++) {
+            routesByCourier.get(assignment[route]).add(routes.get(route));
+        }
+
+        Map<Long, List<Long>> orderIdsByCourierId = new LinkedHashMap<>();
+        List<Long> orderIds = new ArrayList<>();
+        List<CourierRoutesDto> result = new ArrayList<>();
+        for (int courier = 0; courier < couriers.size(); courier++) {
+            Employee employee = couriers.get(courier);
+            List<RouteDto> courierRoutes = routesByCourier.get(courier);
+            List<Long> courierOrderIds = getOrderIds(courierRoutes);
+            orderIdsByCourierId.put(employee.getId(), courierOrderIds);
+            orderIds.addAll(courierOrderIds);
+            result.add(CourierRoutesDto.builder()
+                .employeeId(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .amountOfLitres(courierRoutes.stream().mapToInt(RouteDto::getAmountOfLitres).sum())
+                .routesLength(courierRoutes.stream().mapToDouble(RouteDto::getLength).sum())
+                .routes(courierRoutes)
+                .build());
+        }
+
+        transactionTemplate.execute(status -> {
+            employeeRepository.lockOrderAssignment();
+            if (!orderIds.isEmpty()) {
+                employeeRepository.detachOrders(orderIds);
+            }
+            employeeRepository.attachOrders(orderIdsByCourierId);
+            return null;
+        });
+        log.info("{} routes assigned to {} couriers in {} ms", routes.size(), couriers.size(),
+            (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private static List<Long> getOrderIds(List<RouteDto> routes) {
+        return routes.stream()
+            .flatMap(route -> route.getStops().stream())
+            .map(RouteStopDto::getOrders)
+            .flatMap(List::stream)
+            .map(OrderDto::getId)
+            .collect(Collectors.toList());
+    }
+}
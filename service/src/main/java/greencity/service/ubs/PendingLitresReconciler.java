@@ -0,0 +1,165 @@
+package greencity.service.ubs;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.entity.coords.PendingLitres;
+import greencity.repository.AddressRepository;
+import greencity.repository.PendingLitresRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verifies litres kept by coordinates against undelivered orders and repairs
+ * drift, e.g. after bag capacity was changed. Coordinates are checked in
+ * batches of bounded size in order of latitude and longitude, every batch in
+ * its own transaction. Kept litres of the batch are locked before orders are
+ * summed, so payments at these coordinates wait for the batch instead of being
+ * overwritten by it. Coordinates without kept litres have no row to lock, so
+ * their row is only created if it is still missing. When a payment has created
+ * it meanwhile, the row is locked and orders are summed again.
+ */
+@Component
+@Slf4j
+public class PendingLitresReconciler {
+    private static final Coordinates BEFORE_ALL = new Coordinates(-91, -181);
+    private static final Coordinates AFTER_ALL = new Coordinates(91, 181);
+
+    private final AddressRepository addressRepository;
+    private final PendingLitresRepository pendingLitresRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructor with parameters.
+     */
+    public PendingLitresReconciler(AddressRepository addressRepository,
+        PendingLitresRepository pendingLitresRepository, PlatformTransactionManager transactionManager,
+        @Value("${ubs.pending-litres.reconciliation.batch-size:500}") int batchSize) {
+        this.addressRepository = addressRepository;
+        this.pendingLitresRepository = pendingLitresRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method checks litres of all coordinates and repairs wrong ones.
+     *
+     * @return {@link Integer} amount of repaired coordinates.
+     */
+    public int reconcile() {
+        final long start = System.nanoTime();
+        int repaired = 0;
+        int batches = 0;
+        Coordinates from = BEFORE_ALL;
+        while (from != AFTER_ALL) {
+            Coordinates to = getBatchEnd(from);
+            Coordinates batchStart = from;
+            Integer batchRepaired = transactionTemplate.execute(status -> reconcileBatch(batchStart, to));
+            repaired += batchRepaired == null ? 0 : batchRepaired;
+            batches++;
+            from = to;
+        }
+        log.info("Pending litres reconciled in {} batches, {} coordinates repaired in {} ms", batches, repaired,
+            (System.nanoTime() - start) / 1_000_000);
+        return repaired;
+    }
+
+    /**
+     * Method returns the last coordinates of batch following given ones, the last
+     * batch takes all coordinates to the end, so it also covers kept litres of
+     * coordinates which have no orders any more.
+     *
+     * @param from {@link Coordinates} before the batch.
+     * @return {@link Coordinates} of the last coordinates of the batch.
+     */
+    private Coordinates getBatchEnd(Coordinates from) {
+        List<CoordinatesCapacity> batch = addressRepository.undeliveredOrdersCapacitiesAfter(from.getLatitude(),
+            from.getLongitude(), PageRequest.of(0, batchSize));
+        if (batch.size() < batchSize) {
+            return AFTER_ALL;
+        }
+        CoordinatesCapacity last = batch.get(batch.size() - 1);
+        return new Coordinates(last.getLatitude(), last.getLongitude());
+    }
+
+    private int reconcileBatch(Coordinates from, Coordinates to) {
+        Map<Coordinates, Long> keptLitres = new HashMap<>();
+        for (PendingLitres pendingLitres : pendingLitresRepository.findAllBetweenForUpdate(from.getLatitude(),
+            from.getLongitude(), to.getLatitude(), to.getLongitude())) {
+            keptLitres.put(pendingLitres.getCoordinates(), pendingLitres.getLitres());
+        }
+        int repaired = 0;
+        for (CoordinatesCapacity capacity : addressRepository.undeliveredOrdersCapacitiesBetween(
+            from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude())) {
+            Long litres = keptLitres.remove(new Coordinates(capacity.getLatitude(), capacity.getLongitude()));
+            if (capacity.getLitres().equals(litres)) {
+                continue;
+            }
+            if (litres != null) {
+                log.warn("Pending litres of ({}, {}) repaired from {} to {}", capacity.getLatitude(),
+                    capacity.getLongitude(), litres, capacity.getLitres());
+                pendingLitresRepository.setLitres(capacity.getLatitude(), capacity.getLongitude(),
+                    capacity.getLitres());
+                repaired++;
+            } else if (pendingLitresRepository.insertLitres(capacity.getLatitude(), capacity.getLongitude(),
+                capacity.getLitres()) > 0) {
+                log.warn("Pending litres of ({}, {}) repaired from none to {}", capacity.getLatitude(),
+                    capacity.getLongitude(), capacity.getLitres());
+                repaired++;
+            } else if (reconcileLocked(capacity.getLatitude(), capacity.getLongitude())) {
+                repaired++;
+            }
+        }
+        for (Coordinates stale : keptLitres.keySet()) {
+            log.warn("Pending litres of ({}, {}) removed as there are no orders", stale.getLatitude(),
+                stale.getLongitude());
+            pendingLitresRepository.deleteLitres(stale.getLatitude(), stale.getLongitude());
+            repaired++;
+        }
+        return repaired;
+    }
+
+    /**
+     * Method reconciles litres of coordinates which row was created by a payment
+     * after the batch was locked, so litres summed for the batch may miss the order
+     * of this payment.
+     *
+     * @param latitude  latitude of the coordinates.
+     * @param longitude longitude of the coordinates.
+     * @return {@code true} if litres were repaired.
+     */
+    private boolean reconcileLocked(double latitude, double longitude) {
+        PendingLitres pendingLitres = pendingLitresRepository.findForUpdate(latitude, longitude);
+        Long kept = pendingLitres == null ? null : pendingLitres.getLitres();
+        Long litres = addressRepository.capacity(latitude, longitude);
+        if (litres == null || litres <= 0) {
+            if (kept == null) {
+                return false;
+            }
+            log.warn("Pending litres of ({}, {}) removed as there are no orders", latitude, longitude);
+            pendingLitresRepository.deleteLitres(latitude, longitude);
+            return true;
+        }
+        if (litres.equals(kept)) {
+            return false;
+        }
+        if (kept == null) {
+            // the row was removed meanwhile, one created again by a payment is left to the
+            // next reconciliation
+            if (pendingLitresRepository.insertLitres(latitude, longitude, litres) == 0) {
+                return false;
+            }
+        } else {
+            pendingLitresRepository.setLitres(latitude, longitude, litres);
+        }
+        log.warn("Pending litres of ({}, {}) repaired from {} to {}", latitude, longitude, kept, litres);
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package greencity.service.ubs;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import greencity.event.OrderStatusChangedEvent;
+import greencity.repository.PendingLitresRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps litres of undelivered orders by coordinates up to date when orders
+ * enter or leave {@link OrderStatus#PAID} status. Litres are changed in the
+ * transaction which changes the status, so they are committed or rolled back
+ * together.
+ */
+@Component
+@AllArgsConstructor
+public class PendingLitresUpdater {
+    private final PendingLitresRepository pendingLitresRepository;
+
+    /**
+     * Method adds litres of order which entered {@link OrderStatus#PAID} status to
+     * its coordinates or subtracts litres of order which left it.
+     *
+     * @param event {@link OrderStatusChangedEvent}.
+     */
+    @Transactional
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Coordinates coordinates = event.getCoordinates();
+        boolean wasPaid = event.getPreviousStatus() == OrderStatus.PAID;
+        boolean isPaid = event.getNewStatus() == OrderStatus.PAID;
+        if (coordinates == null || event.getLitres() == null || wasPaid == isPaid) {
+            return;
+        }
+        if (isPaid) {
+            pendingLitresRepository.addLitres(coordinates.getLatitude(), coordinates.getLongitude(),
+                event.getLitres());
+        } else {
+            pendingLitresRepository.addLitres(coordinates.getLatitude(), coordinates.getLongitude(),
+                -event.getLitres());
+            pendingLitresRepository.deleteIfEmpty(coordinates.getLatitude(), coordinates.getLongitude());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package greencity.service.ubs;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations: the first caller with a key
+ * computes the value while all callers with the same key arriving before it is
+ * done wait for its {@link CompletableFuture} instead of computing again.
+ *
+ * @param <K> type of key identifying computation.
+ * @param <V> type of computed value.
+ */
+public final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Method computes value for given key or waits for computation of the same key
+     * which is already in flight. Exception thrown by computation is rethrown to
+     * every waiting caller.
+     *
+     * @param key         key identifying computation.
+     * @param computation {@link Supplier} computing the value.
+     * @return computed value.
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return join(existing);
+        }
+        try {
+            V value = computation.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Method returns amount of callers which waited for computation of another
+     * caller.
+     *
+     * @return {@link Long} amount of coalesced calls.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import greencity.dto.UbsTableCreationDto;
 import greencity.dto.UserPointsAndAllBagsDto;
 import greencity.entity.enums.CertificateStatus;
 import greencity.entity.enums.OrderStatus;
+import greencity.entity.coords.Coordinates;
 import greencity.entity.order.Bag;
 import greencity.entity.order.Certificate;
 import greencity.entity.order.ChangeOfPoints;
@@ -31,6 +32,7 @@ import greencity.entity.order.Order;
 import greencity.entity.order.Payment;
 import greencity.entity.user.User;
 import greencity.entity.user.ubs.UBSuser;
+import greencity.event.OrderStatusChangedEvent;
 import greencity.exceptions.BagNotFoundException;
 import greencity.exceptions.CertificateExpiredException;
 import greencity.exceptions.CertificateIsUsedException;
@@ -54,6 +56,7 @@ import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -69,6 +72,7 @@ public class UBSClientServiceImpl implements UBSClientService {
     private final CertificateRepository certificateRepository;
     private final OrderRepository orderRepository;
     private final RestClient restClient;
+    private final ApplicationEventPublisher eventPublisher;
     private final String password = "test";
     private final String merchantId = "1396424";
 
@@ -88,6 +92,7 @@ public class UBSClientServiceImpl implements UBSClientService {
             || orderPayment.getAmount() != Long.valueOf(dto.getAmount())) {
             throw new PaymentValidationException(PAYMENT_VALIDATION_ERROR);
         }
+        final OrderStatus previousStatus = order.getOrderStatus();
         if (dto.getOrder_status().equals("approved")) {
             order.setOrderStatus(OrderStatus.PAID);
         }
@@ -95,6 +100,10 @@ public class UBSClientServiceImpl implements UBSClientService {
         order.setPayment(orderPayment);
 
         orderRepository.save(order);
+        if (previousStatus != order.getOrderStatus()) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), getCoordinates(order),
+                previousStatus, order.getOrderStatus(), order.getTotalLitres()));
+        }
     }
 
     /**
@@ -156,7 +165,8 @@ public class UBSClientServiceImpl implements UBSClientService {
         }
 
         Map<Integer, Integer> amountOfBagsOrderedMap = new HashMap<>();
-        int sumToPay = formBagsToBeSavedAndCalculateOrderSum(amountOfBagsOrderedMap, dto.getBags());
+        Map<Integer, Integer> bagsCapacity = new HashMap<>();
+        int sumToPay = formBagsToBeSavedAndCalculateOrderSum(amountOfBagsOrderedMap, bagsCapacity, dto.getBags());
         if (sumToPay < dto.getPointsToUse()) {
             throw new IncorrectValueException(AMOUNT_OF_POINTS_BIGGER_THAN_SUM);
         } else {
@@ -164,6 +174,7 @@ public class UBSClientServiceImpl implements UBSClientService {
         }
 
         Order order = modelMapper.map(dto, Order.class);
+        order.setTotalLitres(calculateOrderLitres(amountOfBagsOrderedMap, bagsCapacity));
         Set<Certificate> orderCertificates = new HashSet<>();
         sumToPay = formCertificatesToBeSavedAndCalculateOrderSum(dto, orderCertificates, order, sumToPay);
 
@@ -274,13 +285,20 @@ public class UBSClientServiceImpl implements UBSClientService {
         return sumToPay;
     }
 
-    private int formBagsToBeSavedAndCalculateOrderSum(Map<Integer, Integer> map, List<BagDto> bags) {
+    private int formBagsToBeSavedAndCalculateOrderSum(Map<Integer, Integer> map, Map<Integer, Integer> bagsCapacity,
+        List<BagDto> bags) {
+        Map<Integer, Bag> bagsById = new HashMap<>();
+        bagRepository.findAllById(bags.stream().map(BagDto::getId).collect(Collectors.toSet()))
+            .forEach(bag -> bagsById.put(bag.getId(), bag));
         int sumToPay = 0;
         for (BagDto temp : bags) {
-            Bag bag = bagRepository.findById(temp.getId())
-                .orElseThrow(() -> new BagNotFoundException(BAG_NOT_FOUND + temp.getId()));
+            Bag bag = bagsById.get(temp.getId());
+            if (bag == null) {
+                throw new BagNotFoundException(BAG_NOT_FOUND + temp.getId());
+            }
             sumToPay += bag.getPrice() * temp.getAmount();
             map.put(temp.getId(), temp.getAmount());
+            bagsCapacity.put(bag.getId(), bag.getCapacity());
         }
         if (sumToPay < 500) {
             throw new IncorrectValueException(MINIMAL_SUM_VIOLATION);
@@ -289,6 +307,23 @@ public class UBSClientServiceImpl implements UBSClientService {
         return sumToPay;
     }
 
+    /**
+     * Method counts litres of ordered bags, which are stored in order so litres
+     * queries do not join its bags.
+     *
+     * @param amountOfBagsOrdered {@link Map} of bag id to amount of bags.
+     * @param bagsCapacity        {@link Map} of bag id to its capacity.
+     * @return {@link Integer} litres.
+     */
+    private static int calculateOrderLitres(Map<Integer, Integer> amountOfBagsOrdered,
+        Map<Integer, Integer> bagsCapacity) {
+        int litres = 0;
+        for (Map.Entry<Integer, Integer> bags : amountOfBagsOrdered.entrySet()) {
+            litres += bags.getValue() * bagsCapacity.get(bags.getKey());
+        }
+        return litres;
+    }
+
     private void validateCertificate(Certificate certificate) {
         if (certificate.getCertificateStatus() != CertificateStatus.ACTIVE) {
             throw new CertificateIsUsedException(CERTIFICATE_IS_USED + certificate.getCode());
@@ -303,4 +338,11 @@ public class UBSClientServiceImpl implements UBSClientService {
     private void createRecordInUBStable(String uuid) {
         userRepository.save(User.builder().currentPoints(0).violations(0).uuid(uuid).build());
     }
+
+    private Coordinates getCoordinates(Order order) {
+        if (order.getUbsUser() == null || order.getUbsUser().getUserAddress() == null) {
+            return null;
+        }
+        return order.getUbsUser().getUserAddress().getCoordinates();
+    }
 }
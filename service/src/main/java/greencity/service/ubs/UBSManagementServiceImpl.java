@@ -2,54 +2,111 @@ package greencity.service.ubs;
 
 import greencity.dto.*;
 import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.Geohash;
 import greencity.entity.order.Certificate;
-import greencity.entity.order.Order;
+import greencity.entity.order.UndeliveredOrder;
 import greencity.exceptions.ActiveOrdersNotFoundException;
 import greencity.exceptions.IncorrectValueException;
-import greencity.repository.AddressRepository;
 
 import greencity.repository.CertificateRepository;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import greencity.repository.OrderRepository;
+import greencity.repository.PendingLitresRepository;
+import greencity.service.ubs.clustering.Cluster;
+import greencity.service.ubs.clustering.ClusteringResult;
+import greencity.service.ubs.clustering.ClusteringStrategies;
+import greencity.service.ubs.clustering.ClusteringStrategy;
+import greencity.service.ubs.clustering.CoordinatesGridIndex;
+import greencity.service.ubs.clustering.CoordinatesKey;
+import greencity.service.ubs.clustering.EarthDistance;
+import greencity.service.ubs.clustering.IncrementalClusterModel;
+import greencity.service.ubs.clustering.LitresByCoordinates;
+import greencity.service.ubs.clustering.MeanShiftClusterer;
+import greencity.service.ubs.clustering.NearestRowsQueue;
+import greencity.service.ubs.clustering.OrdersByCoordinates;
+import greencity.service.ubs.clustering.TiledClusteringEngine;
+import greencity.service.ubs.routing.Route;
+import greencity.service.ubs.routing.RouteSequencer;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import static greencity.constant.ErrorMessage.*;
 
 @Service
 @AllArgsConstructor
+@Slf4j
 public class UBSManagementServiceImpl implements UBSManagementService {
-    private final AddressRepository addressRepository;
+    /**
+     * Amount of coordinates which orders are loaded with one query while clusters
+     * are streamed.
+     */
+    private static final int STREAMED_COORDINATES_PER_QUERY = 500;
+
+    private final PendingLitresRepository pendingLitresRepository;
     private final OrderRepository orderRepository;
     private final ModelMapper modelMapper;
     private final CertificateRepository certificateRepository;
+    private final ClusteringStrategies clusteringStrategies;
+    private final TiledClusteringEngine tiledClusteringEngine;
+    private final IncrementalClusterModel incrementalClusterModel;
+    private final UndeliveredOrdersCache undeliveredOrdersCache;
+    private final RouteSequencer routeSequencer;
 
     /**
      * {@inheritDoc}
      */
     @Override
     public List<GroupedOrderDto> getAllUndeliveredOrdersWithLiters() {
-        Set<Coordinates> allCoords = addressRepository.undeliveredOrdersCoords();
-        List<Order> allOrders = getAllUndeliveredOrders();
-        List<GroupedOrderDto> allOrdersWithLitres = new ArrayList<>();
-        for (Coordinates temp : allCoords) {
-            int currentCoordinatesCapacity =
-                addressRepository.capacity(temp.getLatitude(), temp.getLongitude());
-            List<Order> currentCoordinatesOrders = allOrders.stream().filter(
-                o -> o.getUbsUser().getUserAddress().getCoordinates().equals(temp)).collect(Collectors.toList());
-            List<OrderDto> currentCoordinatesOrdersDto = currentCoordinatesOrders.stream()
-                .map(o -> modelMapper.map(o, OrderDto.class)).collect(Collectors.toList());
-            allOrdersWithLitres.add(GroupedOrderDto.builder()
-                .amountOfLitres(currentCoordinatesCapacity)
-                .groupOfOrders(currentCoordinatesOrdersDto)
-                .build());
+        return undeliveredOrdersCache.getAllUndeliveredOrdersWithLiters(this::groupAllUndeliveredOrdersWithLiters);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<GroupedOrderDto> getUndeliveredOrdersWithLitersWithin(BoundingBoxDto area) {
+        checkIfBoundingBoxIsValid(area);
+        LitresByCoordinates litresByCoords = getLitresByCoordinatesWithin(area);
+        OrdersByCoordinates ordersByCoords = getOrdersByCoordinatesWithin(area);
+        List<GroupedOrderDto> groupedOrders = new ArrayList<>();
+        for (int i = 0; i < litresByCoords.size(); i++) {
+            getUndeliveredOrdersByGroupedCoordinates(Set.of(litresByCoords.getCoordinates(i)),
+                litresByCoords.getLitres(i), ordersByCoords, groupedOrders);
         }
-        return allOrdersWithLitres;
+        return groupedOrders;
+    }
+
+    /**
+     * Method groups all undelivered orders by coordinates. Litres of a group are
+     * the ones kept for its coordinates, the same clustering works with, rather
+     * than sum of litres of its orders.
+     *
+     * @return List of {@link GroupedOrderDto}.
+     */
+    private List<GroupedOrderDto> groupAllUndeliveredOrdersWithLiters() {
+        LitresByCoordinates litresByCoords = getLitresByCoordinates();
+        Map<Long, GroupedOrderDto> allOrdersWithLitres = new LinkedHashMap<>();
+        for (UndeliveredOrder order : getAllUndeliveredOrders()) {
+            GroupedOrderDto currentCoordinatesOrders = allOrdersWithLitres.computeIfAbsent(
+                CoordinatesKey.of(order.getLatitude(), order.getLongitude()), k -> GroupedOrderDto.builder()
+                    .amountOfLitres(litresByCoords.getLitres(new Coordinates(order.getLatitude(),
+                        order.getLongitude())))
+                    .groupOfOrders(new ArrayList<>())
+                    .build());
+            currentCoordinatesOrders.getGroupOfOrders().add(toOrderDto(order));
+        }
+        return new ArrayList<>(allOrdersWithLitres.values());
     }
 
     /**
@@ -57,52 +114,208 @@ public class UBSManagementServiceImpl implements UBSManagementService {
      */
     @Override
     public List<GroupedOrderDto> getClusteredCoords(double distance, int litres) {
+        return getClusteredCoords(distance, litres, MeanShiftClusterer.NAME, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy,
+        boolean parallel) {
         checkIfSpecifiedLitresAndDistancesAreValid(distance, litres);
-        Set<Coordinates> allCoords = addressRepository.undeliveredOrdersCoordsWithCapacityLimit(litres);
-        List<GroupedOrderDto> allClusters = new ArrayList<>();
+        ClusteringStrategy clusteringStrategy = clusteringStrategies.get(strategy);
+        return undeliveredOrdersCache.getClusteredCoords(distance, litres, strategy, parallel,
+            () -> groupClusteredCoords(clusteringStrategy, distance, litres, parallel, ClusteringMonitor.NONE));
+    }
 
-        while (allCoords.size() > 0) {
-            Coordinates currentlyCoord = allCoords.stream().findAny().get();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        ClusteringMonitor monitor) {
+        checkIfSpecifiedLitresAndDistancesAreValid(distance, litres);
+        ClusteringStrategy clusteringStrategy = clusteringStrategies.get(strategy);
+        return undeliveredOrdersCache.loadClusteredCoords(distance, litres, strategy, parallel,
+            () -> groupClusteredCoords(clusteringStrategy, distance, litres, parallel, monitor));
+    }
 
-            Set<Coordinates> closeRelatives = getCoordinateCloseRelatives(distance,
-                allCoords, currentlyCoord);
-            Coordinates centralCoord = getNewCentralCoordinate(closeRelatives);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy,
+        BoundingBoxDto area) {
+        checkIfSpecifiedLitresAndDistancesAreValid(distance, litres);
+        ClusteringStrategy clusteringStrategy = clusteringStrategies.get(strategy);
+        checkIfBoundingBoxIsValid(area);
 
-            while (!centralCoord.equals(currentlyCoord)) {
-                currentlyCoord = centralCoord;
-                closeRelatives = getCoordinateCloseRelatives(distance, allCoords, currentlyCoord);
-                centralCoord = getNewCentralCoordinate(closeRelatives);
-            }
+        LitresByCoordinates litresByCoords = getLitresByCoordinatesWithin(area);
+        List<Coordinates> areaCoords = litresByCoords.getCoordinatesWithLitresNotMoreThan(litres);
+        List<Cluster> clusters = clusteringStrategy.cluster(areaCoords, litresByCoords, distance, litres)
+            .getClusters();
 
-            int amountOfLitresInCluster = 0;
-            for (Coordinates current : closeRelatives) {
-                int currentCoordinatesCapacity =
-                    addressRepository.capacity(current.getLatitude(), current.getLongitude());
-                amountOfLitresInCluster += currentCoordinatesCapacity;
+        // mapping coordinates to orderDto
+        OrdersByCoordinates ordersByCoords = getOrdersByCoordinatesWithin(area);
+        List<GroupedOrderDto> areaClusters = new ArrayList<>();
+        for (Cluster cluster : clusters) {
+            getUndeliveredOrdersByGroupedCoordinates(cluster.getCoordinates(),
+                cluster.getLitres(), ordersByCoords, areaClusters);
+        }
+        return areaClusters;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RouteDto> getClusteredRoutes(double distance, int litres, String strategy, boolean parallel) {
+        List<GroupedOrderDto> clusters = getClusteredCoords(distance, litres, strategy, parallel);
+        List<Map<Coordinates, List<OrderDto>>> ordersByStops = new ArrayList<>();
+        for (GroupedOrderDto cluster : clusters) {
+            Map<Coordinates, List<OrderDto>> ordersByStop = new HashMap<>();
+            for (OrderDto order : cluster.getGroupOfOrders()) {
+                ordersByStop.computeIfAbsent(new Coordinates(order.getLatitude(), order.getLongitude()),
+                    k -> new ArrayList<>()).add(order);
+            }
+            ordersByStops.add(ordersByStop);
+        }
+        List<Route> routes = routeSequencer.sequenceAll(ordersByStops.stream()
+            .map(Map::keySet).collect(Collectors.toList()));
+
+        List<RouteDto> result = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            List<RouteStopDto> stops = new ArrayList<>();
+            for (int stop = 0; stop < route.getStops().size(); stop++) {
+                Coordinates coordinates = route.getStops().get(stop);
+                stops.add(RouteStopDto.builder()
+                    .latitude(coordinates.getLatitude())
+                    .longitude(coordinates.getLongitude())
+                    .legDistance(route.getLegDistances().get(stop))
+                    .orders(ordersByStops.get(i).get(coordinates))
+                    .build());
             }
+            result.add(RouteDto.builder()
+                .amountOfLitres(clusters.get(i).getAmountOfLitres())
+                .length(route.getLength())
+                .returnDistance(route.getReturnDistance())
+                .stops(stops)
+                .build());
+        }
+        return result;
+    }
 
-            if (amountOfLitresInCluster > litres) {
-                List<Coordinates> closeRelativesSorted = new ArrayList<>(closeRelatives);
-                Collections.sort(closeRelativesSorted, getComparatorByDistanceFromCenter(centralCoord));
-                int indexOfCoordToBeDeleted = -1;
-                while (amountOfLitresInCluster > litres) {
-                    Coordinates coordToBeDeleted = closeRelativesSorted.get(++indexOfCoordToBeDeleted);
-                    int anountOfLitresInCurrentOrder = addressRepository
-                        .capacity(coordToBeDeleted.getLatitude(), coordToBeDeleted.getLongitude());
-                    amountOfLitresInCluster -= anountOfLitresInCurrentOrder;
-                    closeRelatives.remove(coordToBeDeleted);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUndeliveredOrdersWithLiters(Consumer<GroupedOrderDto> consumer) {
+        LitresByCoordinates litresByCoords = getLitresByCoordinates();
+        try (Stream<UndeliveredOrder> orders = orderRepository.streamUndeliveredOrders()) {
+            Iterator<UndeliveredOrder> iterator = orders.iterator();
+            GroupedOrderDto current = null;
+            long currentKey = 0;
+            while (iterator.hasNext()) {
+                UndeliveredOrder order = iterator.next();
+                long key = CoordinatesKey.of(order.getLatitude(), order.getLongitude());
+                if (current == null || key != currentKey) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = GroupedOrderDto.builder()
+                        .amountOfLitres(litresByCoords.getLitres(
+                            new Coordinates(order.getLatitude(), order.getLongitude())))
+                        .groupOfOrders(new ArrayList<>())
+                        .build();
+                    currentKey = key;
                 }
+                current.getGroupOfOrders().add(toOrderDto(order));
             }
-
-            for (Coordinates grouped : closeRelatives) {
-                allCoords.remove(grouped);
+            if (current != null) {
+                consumer.accept(current);
             }
+        }
+    }
 
-            // mapping coordinates to orderDto
-            getUndeliveredOrdersByGroupedCoordinates(closeRelatives,
-                amountOfLitresInCluster, allClusters);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        Consumer<GroupedOrderDto> consumer) {
+        checkClusteringParameters(distance, litres, strategy);
+        ClusteringStrategy clusteringStrategy = clusteringStrategies.get(strategy);
+        List<Cluster> clusters = incrementalClusterModel.getClusters(strategy, distance, litres, parallel)
+            .orElseGet(() -> clusterFromScratch(clusteringStrategy, distance, litres, parallel,
+                ClusteringMonitor.NONE));
+
+        int from = 0;
+        while (from < clusters.size()) {
+            Set<Coordinates> coordinates = new HashSet<>();
+            int to = from;
+            while (to < clusters.size() && (to == from || coordinates.size()
+                + clusters.get(to).getCoordinates().size() <= STREAMED_COORDINATES_PER_QUERY)) {
+                coordinates.addAll(clusters.get(to).getCoordinates());
+                to++;
+            }
+            OrdersByCoordinates ordersByCoords = new OrdersByCoordinates(
+                orderRepository.findUndeliveredOrdersByCoordinates(coordinates));
+            List<GroupedOrderDto> chunk = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                getUndeliveredOrdersByGroupedCoordinates(clusters.get(i).getCoordinates(),
+                    clusters.get(i).getLitres(), ordersByCoords, chunk);
+            }
+            chunk.forEach(consumer);
+            from = to;
         }
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void checkClusteringParameters(double distance, int litres, String strategy) {
+        checkIfSpecifiedLitresAndDistancesAreValid(distance, litres);
+        clusteringStrategies.get(strategy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheStatsDto getCacheStats() {
+        return undeliveredOrdersCache.getStats();
+    }
+
+    /**
+     * Method groups undelivered orders into clusters, reusing clusters of
+     * {@link IncrementalClusterModel} when they are available.
+     *
+     * @param clusteringStrategy {@link ClusteringStrategy} to group with.
+     * @param distance           - preferred distance for clusterization.
+     * @param litres             - preferred amount of litres.
+     * @param parallel           - whether tiles should be clustered in parallel.
+     * @param monitor            {@link ClusteringMonitor} of clusterization.
+     * @return List of {@link GroupedOrderDto}.
+     */
+    private List<GroupedOrderDto> groupClusteredCoords(ClusteringStrategy clusteringStrategy, double distance,
+        int litres, boolean parallel, ClusteringMonitor monitor) {
+        String strategy = clusteringStrategy.getName();
+        List<Cluster> clusters = incrementalClusterModel.getClusters(strategy, distance, litres, parallel)
+            .orElseGet(() -> clusterFromScratch(clusteringStrategy, distance, litres, parallel, monitor));
+        monitor.checkCancelled();
+
+        // mapping coordinates to orderDto
+        OrdersByCoordinates ordersByCoords = getOrdersByCoordinates();
+        List<GroupedOrderDto> allClusters = new ArrayList<>();
+        for (Cluster cluster : clusters) {
+            getUndeliveredOrdersByGroupedCoordinates(cluster.getCoordinates(),
+                cluster.getLitres(), ordersByCoords, allClusters);
+        }
         return allClusters;
     }
 
@@ -114,73 +327,108 @@ public class UBSManagementServiceImpl implements UBSManagementService {
         int litres, double additionalDistance) {
         checkIfSpecifiedLitresAndDistancesAreValid(additionalDistance, litres);
 
-        Set<Coordinates> allCoords = addressRepository.undeliveredOrdersCoords();
         Set<Coordinates> result = specified.stream()
             .map(c -> modelMapper.map(c, Coordinates.class)).collect(Collectors.toSet());
+        Coordinates centralCoord = Cluster.getNewCentralCoordinate(result);
+        double newRadius = 0;
         for (Coordinates temp : result) {
-            if (!allCoords.contains(temp)) {
-                throw new IncorrectValueException(NO_SUCH_COORDINATES + temp.getLatitude()
-                    + ", " + temp.getLongitude());
-            }
+            newRadius = Math.max(newRadius, EarthDistance.between(temp.getLatitude(), temp.getLongitude(),
+                centralCoord.getLatitude(), centralCoord.getLongitude()));
         }
+        newRadius += additionalDistance;
 
-        Coordinates centralCoord = getNewCentralCoordinate(result);
+        // only the neighbourhood is loaded, a metre more keeps rounding from leaving
+        // the farthest specified coordinates outside of it
+        BoundingBoxDto area = boundingBoxAround(centralCoord, newRadius + 0.001);
+        LitresByCoordinates litresByCoords = getLitresByCoordinatesWithin(area);
         int specifiedCoordsCapacity = 0;
-        double newRadius = 0;
         for (Coordinates temp : result) {
-            double distanceFromCentralCoord = distanceBetweenEarthCoordinates(temp.getLatitude(), temp.getLongitude(),
-                centralCoord.getLatitude(), centralCoord.getLongitude());
-            if (distanceFromCentralCoord > newRadius) {
-                newRadius = distanceFromCentralCoord;
+            if (!litresByCoords.contains(temp)) {
+                throw new IncorrectValueException(NO_SUCH_COORDINATES + temp.getLatitude()
+                    + ", " + temp.getLongitude());
             }
-            specifiedCoordsCapacity += addressRepository.capacity(temp.getLatitude(), temp.getLongitude());
+            specifiedCoordsCapacity += litresByCoords.getLitres(temp);
         }
-        newRadius += additionalDistance;
 
-        List<Coordinates> coordinatesInsideRadiusWithoutSpecifiedCoords = new ArrayList<>();
-        for (Coordinates temp : allCoords) {
-            double distanceFromCentralCoord = distanceBetweenEarthCoordinates(temp.getLatitude(), temp.getLongitude(),
-                centralCoord.getLatitude(), centralCoord.getLongitude());
-            if (distanceFromCentralCoord < newRadius) {
-                coordinatesInsideRadiusWithoutSpecifiedCoords.add(temp);
-            }
+        CoordinatesGridIndex index = new CoordinatesGridIndex(litresByCoords,
+            IntStream.range(0, litresByCoords.size()).toArray(), newRadius);
+        for (Coordinates temp : result) {
+            index.remove(litresByCoords.indexOf(temp));
+        }
+        int[] rowsInsideRadius = new int[index.size()];
+        int count = index.withinRadius(centralCoord.getLatitude(), centralCoord.getLongitude(), newRadius,
+            rowsInsideRadius);
+        double cosLat = EarthDistance.cosLatitude(centralCoord.getLatitude());
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = litresByCoords.getKernel().distance(rowsInsideRadius[i], centralCoord.getLatitude(),
+                centralCoord.getLongitude(), cosLat);
         }
-        coordinatesInsideRadiusWithoutSpecifiedCoords.removeAll(result);
 
-        Collections.sort(coordinatesInsideRadiusWithoutSpecifiedCoords,
-            getComparatorByDistanceFromCenter(centralCoord));
+        // closest coordinates are taken first, so the rest is never sorted
+        NearestRowsQueue closestFirst = new NearestRowsQueue(rowsInsideRadius, distances, count);
         int amountOfLitresToFill = litres - specifiedCoordsCapacity;
         double fill = 0;
         int allCoordsCapacity = specifiedCoordsCapacity;
-        for (int i = coordinatesInsideRadiusWithoutSpecifiedCoords.size() - 1; i > -1; i--) {
-            Coordinates temp = coordinatesInsideRadiusWithoutSpecifiedCoords.get(i);
-            int capacity = addressRepository.capacity(temp.getLatitude(), temp.getLongitude());
-            if (fill < amountOfLitresToFill) {
-                if ((fill + capacity) <= amountOfLitresToFill) {
-                    fill += capacity;
-                    allCoordsCapacity += capacity;
-                    result.add(temp);
-                }
-            } else {
-                break;
+        while (fill < amountOfLitresToFill && !closestFirst.isEmpty()) {
+            int row = closestFirst.poll();
+            int capacity = litresByCoords.getLitres(row);
+            if ((fill + capacity) <= amountOfLitresToFill) {
+                fill += capacity;
+                allCoordsCapacity += capacity;
+                result.add(litresByCoords.getCoordinates(row));
             }
         }
 
         // mapping coordinates to orderDto
         List<GroupedOrderDto> groupedOrderDtos = new ArrayList<>();
         getUndeliveredOrdersByGroupedCoordinates(result,
-            allCoordsCapacity, groupedOrderDtos);
+            allCoordsCapacity, getOrdersByCoordinatesWithin(area), groupedOrderDtos);
 
         return groupedOrderDtos;
     }
 
+    /**
+     * Method groups all undelivered orders coordinates from scratch and remembers
+     * the result in {@link IncrementalClusterModel}.
+     *
+     * @param clusteringStrategy {@link ClusteringStrategy} to group with.
+     * @param distance           - preferred distance for clusterization.
+     * @param litres             - preferred amount of litres.
+     * @param parallel           - whether tiles should be clustered in parallel.
+     * @param monitor            {@link ClusteringMonitor} of clusterization.
+     * @return list of {@link Cluster}.
+     */
+    private List<Cluster> clusterFromScratch(ClusteringStrategy clusteringStrategy, double distance, int litres,
+        boolean parallel, ClusteringMonitor monitor) {
+        long modifications = incrementalClusterModel.getModifications();
+        LitresByCoordinates litresByCoords = getLitresByCoordinates();
+        List<Coordinates> allCoords = litresByCoords.getCoordinatesWithLitresNotMoreThan(litres);
+        monitor.started(allCoords.size());
+
+        long start = System.nanoTime();
+        ClusteringResult result = parallel
+            ? tiledClusteringEngine.cluster(clusteringStrategy, allCoords, litresByCoords, distance, litres, monitor)
+            : clusteringStrategy.cluster(allCoords, litresByCoords, distance, litres, monitor);
+        log.info("Clustering strategy '{}' (parallel: {}) grouped {} coordinates in {} ms: {} iterations, {} clusters",
+            clusteringStrategy.getName(), parallel, allCoords.size(), (System.nanoTime() - start) / 1_000_000,
+            result.getIterations(), result.getClusters().size());
+
+        if (!incrementalClusterModel.put(clusteringStrategy.getName(), distance, litres, parallel, modifications,
+            litresByCoords, result.getClusters())) {
+            log.info("Clusters of strategy '{}' are not remembered, litres were changed while they were made",
+                clusteringStrategy.getName());
+        }
+        return result.getClusters();
+    }
+
     /**
      * Method checks if entered parameters are valid.
      *
      * @param distance - preferred amount of litres.
      * @param litres   - preferred search radius.
      */
-    private void checkIfSpecifiedLitresAndDistancesAreValid(double distance, int litres) {
+    static void checkIfSpecifiedLitresAndDistancesAreValid(double distance, int litres) {
         if (distance < 0 || distance > 20) {
             throw new IncorrectValueException(INAVALID_DISTANCE_AMOUNT);
         }
@@ -190,138 +438,184 @@ public class UBSManagementServiceImpl implements UBSManagementService {
     }
 
     /**
-     * Method finds undelivered orders.
+     * Method checks if bounding box lies on the earth and is not turned inside out.
      *
-     * @return List of {@link Order}
+     * @param area - {@link BoundingBoxDto} of the area.
      */
-    private List<Order> getAllUndeliveredOrders() {
-        List<Order> allCoords = orderRepository.undeliveredAddresses();
-        if (allCoords.isEmpty()) {
-            throw new ActiveOrdersNotFoundException(UNDELIVERED_ORDERS_NOT_FOUND);
+    static void checkIfBoundingBoxIsValid(BoundingBoxDto area) {
+        if (area.getMinLatitude() == null || area.getMaxLatitude() == null
+            || area.getMinLongitude() == null || area.getMaxLongitude() == null
+            || area.getMinLatitude() < -90 || area.getMaxLatitude() > 90
+            || area.getMinLongitude() < -180 || area.getMaxLongitude() > 180
+            || area.getMinLatitude() > area.getMaxLatitude()
+            || area.getMinLongitude() > area.getMaxLongitude()) {
+            throw new IncorrectValueException(INVALID_BOUNDING_BOX);
         }
-        return allCoords;
     }
 
     /**
-     * Method returns coordinates comparator by theirs distance from center of
-     * cluster.
+     * Method checks if cursor of certificates has both of its values or neither and
+     * page size is reasonable.
      *
-     * @param centralCoord {@link Integer}.
-     * @return {@link Comparator} of Coordinates.
-     * @author Oleh Bilonizhka
+     * @param cursor - {@link CertificateCursorDto} of the last certificate read.
+     * @param size   - amount of certificates on the page.
      */
-    private Comparator<Coordinates> getComparatorByDistanceFromCenter(Coordinates centralCoord) {
-        return (o1, o2) -> {
-            Double o1Int = distanceBetweenEarthCoordinates(o1.getLatitude(), o1.getLongitude(),
-                centralCoord.getLatitude(), centralCoord.getLongitude()) * 1000;
-
-            Double o2Int = distanceBetweenEarthCoordinates(o2.getLatitude(), o2.getLongitude(),
-                centralCoord.getLatitude(), centralCoord.getLongitude()) * 1000;
-
-            return o2Int.compareTo(o1Int);
-        };
+    static void checkIfCertificatePageIsValid(CertificateCursorDto cursor, int size) {
+        if ((cursor.getCreationDate() == null) != (cursor.getCode() == null)) {
+            throw new IncorrectValueException(INVALID_CERTIFICATE_CURSOR);
+        }
+        if (size < 1 || size > 100) {
+            throw new IncorrectValueException(INVALID_PAGE_SIZE);
+        }
     }
 
     /**
-     * Method defines and returns all coordinates in certain radius.
+     * Method returns bounding box containing every point not farther than distance
+     * from center.
      *
-     * @param distance       - preferred distance for clusterization.
-     * @param allCoords      - list of {@link Coordinates} which shows all
-     *                       unclustered coordinates.
-     * @param currentlyCoord - {@link Coordinates} - chosen start coordinates.
-     * @return list of {@link Coordinates} - start coordinates with it's in
-     *         distant @relatives.
-     * @author Oleh Bilonizhka
+     * @param center   {@link Coordinates} of the center.
+     * @param distance - distance in kilometers.
+     * @return {@link BoundingBoxDto}.
      */
-    private Set<Coordinates> getCoordinateCloseRelatives(double distance,
-        Set<Coordinates> allCoords, Coordinates currentlyCoord) {
-        Set<Coordinates> coordinateWithCloseRelativesList = new HashSet<>();
-
-        for (Coordinates checked : allCoords) {
-            if (distanceBetweenEarthCoordinates(currentlyCoord.getLatitude(), currentlyCoord.getLongitude(),
-                checked.getLatitude(), checked.getLongitude()) <= distance) {
-                coordinateWithCloseRelativesList.add(checked);
-            }
-        }
-
-        return coordinateWithCloseRelativesList;
+    static BoundingBoxDto boundingBoxAround(Coordinates center, double distance) {
+        double latSpan = EarthDistance.latitudeSpan(distance);
+        double lonSpan = EarthDistance.longitudeSpan(center.getLatitude(), distance);
+        return new BoundingBoxDto(Math.max(center.getLatitude() - latSpan, -90),
+            Math.min(center.getLatitude() + latSpan, 90), Math.max(center.getLongitude() - lonSpan, -180),
+            Math.min(center.getLongitude() + lonSpan, 180));
     }
 
     /**
-     * Method defines new central coordinate for existing ones.
+     * Method loads litres of all undelivered orders kept by coordinates.
      *
-     * @param coordinateWithCloseRelatives list of {@link Coordinates}.
-     * @return {@link Coordinates} new central coordinate.
-     * @author Oleh Bilonizhka
+     * @return {@link LitresByCoordinates}.
      */
-    private Coordinates getNewCentralCoordinate(Set<Coordinates> coordinateWithCloseRelatives) {
-        double sumLat = 0;
-        double sumLon = 0;
-        int amountOfCoords = coordinateWithCloseRelatives.size();
-
-        for (Coordinates checked : coordinateWithCloseRelatives) {
-            sumLat += checked.getLatitude();
-            sumLon += checked.getLongitude();
-        }
-
-        return new Coordinates(sumLat / amountOfCoords, sumLon / amountOfCoords);
+    private LitresByCoordinates getLitresByCoordinates() {
+        return new LitresByCoordinates(pendingLitresRepository.findAllCapacities());
     }
 
     /**
-     * Method to convert degrees to radians.
+     * Method loads litres of undelivered orders kept by coordinates inside bounding
+     * box.
      *
-     * @param degrees {@link Double} degrees.
-     * @return {@link Double} radians.
+     * @param area {@link BoundingBoxDto} of the area.
+     * @return {@link LitresByCoordinates}.
      */
-    private double degreesToRadians(double degrees) {
-        return degrees * Math.PI / 180;
+    private LitresByCoordinates getLitresByCoordinatesWithin(BoundingBoxDto area) {
+        return new LitresByCoordinates(pendingLitresRepository.findAllCapacitiesWithin(area.getMinLatitude(),
+            area.getMaxLatitude(), area.getMinLongitude(), area.getMaxLongitude()));
     }
 
     /**
-     * Method to determine distance between 2 earth coordinates.
+     * Method loads all undelivered orders with contacts and addresses of their
+     * users with one query and groups them by coordinates.
      *
-     * @param lat1 {@link Double} - latitude of 1 coordinate.
-     * @param lon1 {@link Double} - longitude of 1 coordinate.
-     * @param lat2 {@link Double} - latitude of 2 coordinate.
-     * @param lon2 {@link Double} - longitude of 2 coordinate.
-     * @return {@link Integer} distance in meters.
+     * @return {@link OrdersByCoordinates}.
      */
-    private double distanceBetweenEarthCoordinates(double lat1, double lon1, double lat2, double lon2) {
-        double earthRadiusKm = 6371;
+    private OrdersByCoordinates getOrdersByCoordinates() {
+        return new OrdersByCoordinates(orderRepository.findUndeliveredOrders());
+    }
 
-        double radiansLatitude = degreesToRadians(lat2 - lat1);
-        double radiansLongitude = degreesToRadians(lon2 - lon1);
+    /**
+     * Method loads undelivered orders inside bounding box with contacts and
+     * addresses of their users with one query and groups them by coordinates.
+     *
+     * @param area {@link BoundingBoxDto} of the area.
+     * @return {@link OrdersByCoordinates}.
+     */
+    private OrdersByCoordinates getOrdersByCoordinatesWithin(BoundingBoxDto area) {
+        return new OrdersByCoordinates(orderRepository.findUndeliveredOrdersWithin(
+            coveringGeohashes(area), area.getMinLatitude(), area.getMaxLatitude(), area.getMinLongitude(),
+            area.getMaxLongitude()));
+    }
 
-        lat1 = degreesToRadians(lat1);
-        lat2 = degreesToRadians(lat2);
+    private static List<String> coveringGeohashes(BoundingBoxDto area) {
+        return Geohash.coveringPrefixes(area.getMinLatitude(), area.getMinLongitude(), area.getMaxLatitude(),
+            area.getMaxLongitude());
+    }
 
-        double a = Math.sin(radiansLatitude / 2) * Math.sin(radiansLatitude / 2)
-            + Math.sin(radiansLongitude / 2) * Math.sin(radiansLongitude / 2) * Math.cos(lat1) * Math.cos(lat2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return earthRadiusKm * c;
+    /**
+     * Method finds undelivered orders.
+     *
+     * @return List of {@link UndeliveredOrder}
+     */
+    private List<UndeliveredOrder> getAllUndeliveredOrders() {
+        List<UndeliveredOrder> allCoords = orderRepository.findUndeliveredOrders();
+        if (allCoords.isEmpty()) {
+            throw new ActiveOrdersNotFoundException(UNDELIVERED_ORDERS_NOT_FOUND);
+        }
+        return allCoords;
     }
 
     private void getUndeliveredOrdersByGroupedCoordinates(Set<Coordinates> closeRelatives, int amountOfLitresInCluster,
-        List<GroupedOrderDto> allClusters) {
-        List<Order> orderslist = new ArrayList<>();
+        OrdersByCoordinates ordersByCoords, List<GroupedOrderDto> allClusters) {
+        List<UndeliveredOrder> orderslist = new ArrayList<>();
         for (Coordinates coordinates : closeRelatives) {
-            List<Order> orders =
-                orderRepository.undeliveredOrdersGroupThem(coordinates.getLatitude(), coordinates.getLongitude());
-            orderslist.addAll(orders);
+            orderslist.addAll(ordersByCoords.getOrders(coordinates));
         }
         GroupedOrderDto cluster = new GroupedOrderDto();
         cluster.setGroupOfOrders(
-            orderslist.stream().map(order -> modelMapper.map(order, OrderDto.class)).collect(Collectors.toList()));
+            orderslist.stream().map(UBSManagementServiceImpl::toOrderDto).collect(Collectors.toList()));
         cluster.setAmountOfLitres(amountOfLitresInCluster);
         allClusters.add(cluster);
     }
 
+    /**
+     * Method builds {@link OrderDto} of undelivered order.
+     *
+     * @param order {@link UndeliveredOrder}.
+     * @return {@link OrderDto}.
+     */
+    private static OrderDto toOrderDto(UndeliveredOrder order) {
+        return OrderDto.builder()
+            .id(order.getId())
+            .firstName(order.getFirstName())
+            .lastName(order.getLastName())
+            .address(order.getAddress())
+            .addressComment(order.getAddressComment())
+            .phoneNumber(order.getPhoneNumber())
+            .latitude(order.getLatitude())
+            .longitude(order.getLongitude())
+            .build();
+    }
+
     @Override
     public PageableDto<CertificateDtoForSearching> getAllCertificates(Pageable page) {
         Page<Certificate> certificates = certificateRepository.getAll(page);
         return getAllCertificatesTranslationDto(certificates);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CertificateKeysetPageDto getCertificatesAfter(CertificateCursorDto cursor, int size,
+        boolean exactCount) {
+        checkIfCertificatePageIsValid(cursor, size);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Certificate> certificates = cursor.getCreationDate() == null
+            ? certificateRepository.getFirst(limit)
+            : certificateRepository.getAllAfter(cursor.getCreationDate(), cursor.getCode(), limit);
+        CertificateCursorDto next = null;
+        if (certificates.size() > size) {
+            certificates = certificates.subList(0, size);
+            Certificate last = certificates.get(size - 1);
+            next = new CertificateCursorDto(last.getCreationDate(), last.getCode());
+        }
+        // statistics of a table which has never been analyzed hold no estimate
+        long estimate = exactCount ? 0 : certificateRepository.estimateCount();
+        boolean estimated = estimate > 0;
+        long total = estimated ? estimate : certificateRepository.count();
+        return CertificateKeysetPageDto.builder()
+            .page(certificates.stream()
+                .map(certificate -> modelMapper.map(certificate, CertificateDtoForSearching.class))
+                .collect(Collectors.toList()))
+            .totalElements(total)
+            .totalEstimated(estimated)
+            .next(next)
+            .build();
+    }
+
     @Override
     public void addCertificate(CertificateDtoForAdding add) {
         Certificate certificate = modelMapper.map(add, Certificate.class);
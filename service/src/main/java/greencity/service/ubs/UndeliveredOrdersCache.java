@@ -0,0 +1,169 @@
+package greencity.service.ubs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import greencity.dto.CacheStatsDto;
+import greencity.dto.GroupedOrderDto;
+import greencity.event.OrderStatusChangedEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded cache of grouped undelivered orders served by management endpoints.
+ * Every entry is stored under current version of data, which is bumped when
+ * status of an order or capacity of a bag is changed, so results computed from
+ * outdated data are never served. Changed capacity of a bag is noticed by
+ * {@link BagCapacityWatcher} within its polling delay. Concurrent misses of the
+ * same entry are coalesced with {@link SingleFlight}, so only one of them
+ * computes the result.
+ */
+@Component
+public class UndeliveredOrdersCache {
+    private static final String ALL_UNDELIVERED = "all-undelivered";
+
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<Key, List<GroupedOrderDto>> cache;
+    private final SingleFlight<Key, List<GroupedOrderDto>> singleFlight = new SingleFlight<>();
+
+    /**
+     * Constructor with parameters.
+     *
+     * @param maximumSize maximum amount of cached results.
+     * @param ttlSeconds  time after which cached result expires.
+     */
+    public UndeliveredOrdersCache(@Value("${ubs.orders-cache.maximum-size:64}") long maximumSize,
+        @Value("${ubs.orders-cache.ttl-seconds:60}") long ttlSeconds) {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Method returns cached clusters of undelivered orders or computes them with
+     * given loader.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles are clustered in parallel.
+     * @param loader   {@link Supplier} computing clusters on cache miss.
+     * @return unmodifiable list of {@link GroupedOrderDto}.
+     */
+    public List<GroupedOrderDto> getClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        Supplier<List<GroupedOrderDto>> loader) {
+        return get(new Key(strategy, distance, litres, parallel, version.get()), loader);
+    }
+
+    /**
+     * Method returns cached clusters of undelivered orders or computes them with
+     * given loader. Unlike
+     * {@link #getClusteredCoords(double, int, String, boolean, Supplier)}, the
+     * loader is not shared with concurrent callers, so it may fail or be cancelled
+     * without failing them.
+     *
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param strategy - name of clustering strategy.
+     * @param parallel - whether tiles are clustered in parallel.
+     * @param loader   {@link Supplier} computing clusters on cache miss.
+     * @return unmodifiable list of {@link GroupedOrderDto}.
+     */
+    public List<GroupedOrderDto> loadClusteredCoords(double distance, int litres, String strategy, boolean parallel,
+        Supplier<List<GroupedOrderDto>> loader) {
+        Key key = new Key(strategy, distance, litres, parallel, version.get());
+        List<GroupedOrderDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<GroupedOrderDto> loaded = List.copyOf(loader.get());
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Method returns cached undelivered orders grouped by coordinates or computes
+     * them with given loader.
+     *
+     * @param loader {@link Supplier} computing orders on cache miss.
+     * @return unmodifiable list of {@link GroupedOrderDto}.
+     */
+    public List<GroupedOrderDto> getAllUndeliveredOrdersWithLiters(Supplier<List<GroupedOrderDto>> loader) {
+        return get(new Key(ALL_UNDELIVERED, 0, 0, false, version.get()), loader);
+    }
+
+    /**
+     * Method bumps version of data and drops all cached results.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Method invalidates cache once changed status of an order is committed.
+     *
+     * @param event {@link OrderStatusChangedEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Method returns hit, miss, eviction and coalesced misses statistics of the
+     * cache.
+     *
+     * @return {@link CacheStatsDto}.
+     */
+    public CacheStatsDto getStats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsDto.builder()
+            .size(cache.estimatedSize())
+            .version(version.get())
+            .hitCount(stats.hitCount())
+            .missCount(stats.missCount())
+            .hitRate(stats.hitRate())
+            .evictionCount(stats.evictionCount())
+            .coalescedCount(singleFlight.getCoalescedCount())
+            .build();
+    }
+
+    private List<GroupedOrderDto> get(Key key, Supplier<List<GroupedOrderDto>> loader) {
+        List<GroupedOrderDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.execute(key, () -> {
+            // the entry may have been loaded by computation which finished after the miss
+            List<GroupedOrderDto> loaded = cache.asMap().get(key);
+            if (loaded == null) {
+                loaded = List.copyOf(loader.get());
+                cache.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Parameters of cached result along with version of data it was computed from.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String name;
+        private final double distance;
+        private final int litres;
+        private final boolean parallel;
+        private final long version;
+    }
+}
@@ -0,0 +1,194 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Capacity-constrained k-means clusterization of undelivered orders
+ * coordinates. Amount of clusters starts from the least amount of trucks which
+ * can carry all litres, centers are seeded with the farthest-point rule, and on
+ * every iteration coordinates closest to their centers are assigned first to
+ * the nearest center with enough free litres. Coordinate which fits nowhere
+ * opens a new cluster, while centers left without coordinates are dropped, so
+ * the amount of centers grows only as much as litres require. Iterations stop
+ * when assignments do not change.
+ */
+@Component
+public class CapacitatedKMeansClusterer implements ClusteringStrategy {
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "kmeans";
+
+    private static final int MAX_ITERATIONS = 50;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc} Distance is not used, clusters are bounded by litres only.
+     * Every assignment pass is counted as iteration. Progress is reported once all
+     * coordinates are assigned.
+     */
+    @Override
+    public ClusteringResult cluster(Collection<Coordinates> coordinates, LitresByCoordinates litresByCoords,
+        double distance, int litres, ClusteringMonitor monitor) {
+        Coordinates[] points = new LinkedHashSet<>(coordinates).toArray(new Coordinates[0]);
+        if (points.length == 0) {
+            return new ClusteringResult(new ArrayList<>(), 0);
+        }
+        int[] pointLitres = new int[points.length];
+        long totalLitres = 0;
+        for (int i = 0; i < points.length; i++) {
+            pointLitres[i] = litresByCoords.getLitres(points[i]);
+            totalLitres += pointLitres[i];
+        }
+
+        long trucks = (totalLitres + litres - 1) / Math.max(litres, 1);
+        int initialClusters = (int) Math.min(points.length, Math.max(1, trucks));
+        DistanceKernel kernel = new DistanceKernel(Arrays.asList(points));
+        List<Coordinates> centers = seedCenters(points, kernel, initialClusters);
+        int[] assignment = new int[points.length];
+        Arrays.fill(assignment, -1);
+        int iterations = 0;
+        boolean changed = true;
+        while (changed && iterations < MAX_ITERATIONS) {
+            monitor.checkCancelled();
+            iterations++;
+            int[] newAssignment = assign(points, kernel, pointLitres, centers, litres);
+            changed = !Arrays.equals(assignment, newAssignment);
+            assignment = newAssignment;
+            centers = recomputeCenters(points, assignment, centers);
+        }
+
+        List<Set<Coordinates>> clusterCoords = new ArrayList<>();
+        int[] clusterLitres = new int[centers.size()];
+        for (int c = 0; c < centers.size(); c++) {
+            clusterCoords.add(new HashSet<>());
+        }
+        for (int i = 0; i < points.length; i++) {
+            clusterCoords.get(assignment[i]).add(points[i]);
+            clusterLitres[assignment[i]] += pointLitres[i];
+        }
+        List<Cluster> allClusters = new ArrayList<>();
+        for (int c = 0; c < centers.size(); c++) {
+            allClusters.add(new Cluster(clusterCoords.get(c), clusterLitres[c]));
+        }
+        monitor.coordinatesClustered(points.length);
+        return new ClusteringResult(allClusters, iterations);
+    }
+
+    /**
+     * Method picks the first coordinate as the first center and then every time the
+     * coordinate farthest from already picked centers.
+     */
+    private List<Coordinates> seedCenters(Coordinates[] points, DistanceKernel kernel, int amount) {
+        List<Coordinates> centers = new ArrayList<>();
+        double[] distanceToCenters = new double[points.length];
+        Arrays.fill(distanceToCenters, Double.MAX_VALUE);
+        int next = 0;
+        while (centers.size() < amount) {
+            Coordinates center = points[next];
+            centers.add(center);
+            double cosLat = EarthDistance.cosLatitude(center.getLatitude());
+            next = 0;
+            for (int i = 0; i < points.length; i++) {
+                distanceToCenters[i] = Math.min(distanceToCenters[i],
+                    kernel.distance(i, center.getLatitude(), center.getLongitude(), cosLat));
+                if (distanceToCenters[i] > distanceToCenters[next]) {
+                    next = i;
+                }
+            }
+        }
+        return centers;
+    }
+
+    /**
+     * Method assigns every coordinate to the nearest center with enough free
+     * litres, coordinates closest to their nearest centers go first. Centers opened
+     * for coordinates which fit nowhere are added to given list.
+     */
+    static int[] assign(Coordinates[] points, DistanceKernel kernel, int[] pointLitres, List<Coordinates> centers,
+        int litres) {
+        double[] centersCosLat = new double[centers.size() + points.length];
+        for (int c = 0; c < centers.size(); c++) {
+            centersCosLat[c] = EarthDistance.cosLatitude(centers.get(c).getLatitude());
+        }
+        double[] nearestDistance = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            nearestDistance[i] = Double.MAX_VALUE;
+            for (int c = 0; c < centers.size(); c++) {
+                nearestDistance[i] =
+                    Math.min(nearestDistance[i], distance(kernel, i, centers.get(c), centersCosLat[c]));
+            }
+        }
+        int[] order = DistanceKernel.sortedIndexes(nearestDistance);
+
+        int[] freeLitres = new int[centersCosLat.length];
+        Arrays.fill(freeLitres, litres);
+        int[] assignment = new int[points.length];
+        for (int i : order) {
+            int best = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int c = 0; c < centers.size(); c++) {
+                double checked = distance(kernel, i, centers.get(c), centersCosLat[c]);
+                if (freeLitres[c] >= pointLitres[i] && checked < bestDistance) {
+                    best = c;
+                    bestDistance = checked;
+                }
+            }
+            if (best == -1) {
+                best = centers.size();
+                centers.add(points[i]);
+                centersCosLat[best] = EarthDistance.cosLatitude(points[i].getLatitude());
+            }
+            assignment[i] = best;
+            freeLitres[best] -= pointLitres[i];
+        }
+        return assignment;
+    }
+
+    /**
+     * Method moves centers to the middle of their coordinates and drops centers
+     * without coordinates. Assignment is renumbered in place, so it can be compared
+     * with assignment of the next pass.
+     */
+    static List<Coordinates> recomputeCenters(Coordinates[] points, int[] assignment, List<Coordinates> centers) {
+        List<List<Coordinates>> members = new ArrayList<>();
+        for (int c = 0; c < centers.size(); c++) {
+            members.add(new ArrayList<>());
+        }
+        for (int i = 0; i < points.length; i++) {
+            members.get(assignment[i]).add(points[i]);
+        }
+        int[] newIndex = new int[centers.size()];
+        List<Coordinates> newCenters = new ArrayList<>();
+        for (int c = 0; c < centers.size(); c++) {
+            if (!members.get(c).isEmpty()) {
+                newIndex[c] = newCenters.size();
+                newCenters.add(Cluster.getNewCentralCoordinate(members.get(c)));
+            }
+        }
+        for (int i = 0; i < points.length; i++) {
+            assignment[i] = newIndex[assignment[i]];
+        }
+        return newCenters;
+    }
+
+    private static double distance(DistanceKernel kernel, int index, Coordinates center, double cosLat) {
+        return kernel.distance(index, center.getLatitude(), center.getLongitude(), cosLat);
+    }
+}
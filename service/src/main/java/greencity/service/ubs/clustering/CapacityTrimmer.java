@@ -0,0 +1,112 @@
+package greencity.service.ubs.clustering;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses which coordinates stay in a cluster which exceeds litres limit, so
+ * that the cluster is filled as fully as possible. The choice is a 0/1 knapsack
+ * solved by branch and bound over coordinates ordered by priority, starting
+ * from greedy solution. Search stops after
+ * {@code ubs.clustering.trim-budget-ms} and the best solution found so far is
+ * returned.
+ */
+@Component
+public class CapacityTrimmer {
+    /**
+     * Clusters with more coordinates are trimmed greedily only, as search depth
+     * grows with amount of coordinates.
+     */
+    private static final int MAX_SEARCHED_ITEMS = 2000;
+    private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+
+    private final long budgetNanos;
+
+    /**
+     * Constructor with parameters.
+     */
+    public CapacityTrimmer(@Value("${ubs.clustering.trim-budget-ms:20}") long budgetMillis) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    /**
+     * Method chooses items with the biggest total litres not exceeding capacity.
+     * Among solutions found first, items with higher priority are preferred.
+     *
+     * @param litres   array of litres of items, ordered by priority.
+     * @param capacity - litres limit.
+     * @return array of flags of items to keep.
+     */
+    public boolean[] trim(int[] litres, int capacity) {
+        Search search = new Search(litres, capacity, System.nanoTime() + budgetNanos);
+        search.greedy();
+        if (search.bestSum < capacity && litres.length <= MAX_SEARCHED_ITEMS && budgetNanos > 0) {
+            search.branchAndBound(0, 0);
+        }
+        return search.best;
+    }
+
+    /**
+     * State of one knapsack search.
+     */
+    private static final class Search {
+        private final int[] litres;
+        private final int capacity;
+        private final long deadline;
+        private final long[] suffixSums;
+        private final boolean[] taken;
+        private boolean[] best;
+        private int bestSum;
+        private int nodes;
+
+        private Search(int[] litres, int capacity, long deadline) {
+            this.litres = litres;
+            this.capacity = capacity;
+            this.deadline = deadline;
+            suffixSums = new long[litres.length + 1];
+            for (int i = litres.length - 1; i >= 0; i--) {
+                suffixSums[i] = suffixSums[i + 1] + litres[i];
+            }
+            taken = new boolean[litres.length];
+        }
+
+        private void greedy() {
+            best = new boolean[litres.length];
+            for (int i = 0; i < litres.length; i++) {
+                if (bestSum + litres[i] <= capacity) {
+                    best[i] = true;
+                    bestSum += litres[i];
+                }
+            }
+        }
+
+        /**
+         * Returns true when search has to stop, because the capacity is filled
+         * completely or the time is over.
+         */
+        private boolean branchAndBound(int item, int sum) {
+            if (sum > bestSum) {
+                bestSum = sum;
+                best = taken.clone();
+                if (bestSum == capacity) {
+                    return true;
+                }
+            }
+            if (item == litres.length || sum + suffixSums[item] <= bestSum) {
+                return false;
+            }
+            if (++nodes % NODES_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() > deadline) {
+                return true;
+            }
+            if (sum + litres[item] <= capacity) {
+                taken[item] = true;
+                if (branchAndBound(item + 1, sum + litres[item])) {
+                    return true;
+                }
+                taken[item] = false;
+            }
+            return branchAndBound(item + 1, sum);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import java.util.Collection;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Group of coordinates which orders can be delivered together.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class Cluster {
+    private final Set<Coordinates> coordinates;
+    private final int litres;
+
+    /**
+     * Method returns central coordinate of cluster.
+     *
+     * @return {@link Coordinates} central coordinate.
+     */
+    public Coordinates getCenter() {
+        return getNewCentralCoordinate(coordinates);
+    }
+
+    /**
+     * Method defines new central coordinate for existing ones.
+     *
+     * @param coordinateWithCloseRelatives list of {@link Coordinates}.
+     * @return {@link Coordinates} new central coordinate.
+     * @author Oleh Bilonizhka
+     */
+    public static Coordinates getNewCentralCoordinate(Collection<Coordinates> coordinateWithCloseRelatives) {
+        double sumLat = 0;
+        double sumLon = 0;
+        int amountOfCoords = coordinateWithCloseRelatives.size();
+
+        for (Coordinates checked : coordinateWithCloseRelatives) {
+            sumLat += checked.getLatitude();
+            sumLon += checked.getLongitude();
+        }
+
+        return new Coordinates(sumLat / amountOfCoords, sumLon / amountOfCoords);
+    }
+}
@@ -0,0 +1,38 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import greencity.event.OrderStatusChangedEvent;
+import greencity.repository.PendingLitresRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link IncrementalClusterModel} up to date when orders enter or leave
+ * {@link OrderStatus#PAID} status.
+ */
+@Component
+@AllArgsConstructor
+public class ClusterModelUpdater {
+    private final PendingLitresRepository pendingLitresRepository;
+    private final IncrementalClusterModel incrementalClusterModel;
+
+    /**
+     * Method reloads litres of coordinates which order entered or left
+     * {@link OrderStatus#PAID} status once the change is committed.
+     *
+     * @param event {@link OrderStatusChangedEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Coordinates coordinates = event.getCoordinates();
+        boolean wasPaid = event.getPreviousStatus() == OrderStatus.PAID;
+        boolean isPaid = event.getNewStatus() == OrderStatus.PAID;
+        if (coordinates == null || wasPaid == isPaid) {
+            return;
+        }
+        Long litres = pendingLitresRepository.findLitres(coordinates.getLatitude(), coordinates.getLongitude());
+        incrementalClusterModel.update(coordinates, litres == null ? 0 : litres.intValue());
+    }
+}
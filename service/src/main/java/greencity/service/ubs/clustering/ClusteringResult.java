@@ -0,0 +1,20 @@
+package greencity.service.ubs.clustering;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Clusters produced by {@link ClusteringStrategy} along with the amount of
+ * iterations it took, so strategies can be compared with each other.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ClusteringResult {
+    private final List<Cluster> clusters;
+    private final int iterations;
+}
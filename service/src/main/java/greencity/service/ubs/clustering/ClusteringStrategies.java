@@ -0,0 +1,41 @@
+package greencity.service.ubs.clustering;
+
+import greencity.exceptions.IncorrectValueException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.stereotype.Component;
+
+import static greencity.constant.ErrorMessage.UNKNOWN_CLUSTERING_STRATEGY;
+
+/**
+ * Registry of all available {@link ClusteringStrategy} beans.
+ */
+@Component
+public class ClusteringStrategies {
+    private final Map<String, ClusteringStrategy> strategiesByName = new TreeMap<>();
+
+    /**
+     * Constructor with parameters.
+     */
+    public ClusteringStrategies(List<ClusteringStrategy> strategies) {
+        for (ClusteringStrategy strategy : strategies) {
+            strategiesByName.put(strategy.getName(), strategy);
+        }
+    }
+
+    /**
+     * Method returns strategy by its name.
+     *
+     * @param name {@link String} name of strategy.
+     * @return {@link ClusteringStrategy}.
+     * @throws IncorrectValueException if there is no strategy with such name.
+     */
+    public ClusteringStrategy get(String name) {
+        ClusteringStrategy strategy = strategiesByName.get(name);
+        if (strategy == null) {
+            throw new IncorrectValueException(UNKNOWN_CLUSTERING_STRATEGY + strategiesByName.keySet());
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,47 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.Collection;
+
+/**
+ * Algorithm which groups undelivered orders coordinates into clusters none of
+ * which exceeds litres limit.
+ */
+public interface ClusteringStrategy {
+    /**
+     * Method returns name by which strategy is chosen.
+     *
+     * @return {@link String} name of strategy.
+     */
+    String getName();
+
+    /**
+     * Method groups coordinates into clusters.
+     *
+     * @param coordinates    collection of {@link Coordinates} to be grouped.
+     * @param litresByCoords {@link LitresByCoordinates} litres of coordinates.
+     * @param distance       - preferred distance for clusterization.
+     * @param litres         - preferred amount of litres.
+     * @return {@link ClusteringResult} with clusters and amount of iterations.
+     */
+    default ClusteringResult cluster(Collection<Coordinates> coordinates, LitresByCoordinates litresByCoords,
+        double distance, int litres) {
+        return cluster(coordinates, litresByCoords, distance, litres, ClusteringMonitor.NONE);
+    }
+
+    /**
+     * Method groups coordinates into clusters reporting progress to given monitor
+     * and stopping when it is cancelled.
+     *
+     * @param coordinates    collection of {@link Coordinates} to be grouped.
+     * @param litresByCoords {@link LitresByCoordinates} litres of coordinates.
+     * @param distance       - preferred distance for clusterization.
+     * @param litres         - preferred amount of litres.
+     * @param monitor        {@link ClusteringMonitor} of clusterization.
+     * @return {@link ClusteringResult} with clusters and amount of iterations.
+     * @throws java.util.concurrent.CancellationException if monitor is cancelled.
+     */
+    ClusteringResult cluster(Collection<Coordinates> coordinates, LitresByCoordinates litresByCoords,
+        double distance, int litres, ClusteringMonitor monitor);
+}
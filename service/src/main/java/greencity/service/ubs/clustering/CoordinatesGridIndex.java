@@ -0,0 +1,210 @@
+package greencity.service.ubs.clustering;
+
+import java.util.Arrays;
+
+/**
+ * In-memory spatial index which splits rows of {@link LitresByCoordinates} into
+ * a regular latitude/longitude grid. Radius queries only visit cells that may
+ * contain points within the searched distance and removing a point costs O(1),
+ * so the index can be built once per clusterization and drained while clusters
+ * are formed. Points are addressed by row indexes and cells are stored in
+ * primitive arrays, so queries allocate nothing.
+ */
+public class CoordinatesGridIndex {
+    private static final double MIN_CELL_SIZE_KM = 0.001;
+    private static final double MIN_COS_LATITUDE = 0.01;
+
+    private final LitresByCoordinates store;
+    private final double cellLatDegrees;
+    private final double cellLonDegrees;
+    private final int[] rows;
+    private final int[] pointOfRow;
+    private final int[] positionOfPoint;
+    private final int[] cellOfPoint;
+    private final int[] cellStart;
+    private final int[] cellCount;
+    private final int[] cellPoints;
+    private final LongIntHashMap cellIds;
+    private int size;
+    private int firstRemaining;
+
+    /**
+     * Builds index for given rows.
+     *
+     * @param store    {@link LitresByCoordinates} which rows are indexed.
+     * @param rows     array of different row indexes, order of which is kept by
+     *                 {@link #first()}.
+     * @param cellSize preferred cell size in kilometers, usually equals to search
+     *                 radius.
+     */
+    public CoordinatesGridIndex(LitresByCoordinates store, int[] rows, double cellSize) {
+        this.store = store;
+        this.rows = rows;
+        size = rows.length;
+        pointOfRow = new int[store.size()];
+        positionOfPoint = new int[size];
+        cellOfPoint = new int[size];
+        cellIds = new LongIntHashMap(size);
+
+        double sumLat = 0;
+        for (int row : rows) {
+            sumLat += store.getLatitude(row);
+        }
+        double meanLat = size == 0 ? 0 : sumLat / size;
+        cellLatDegrees = Math.max(cellSize, MIN_CELL_SIZE_KM) / EarthDistance.KM_PER_DEGREE;
+        cellLonDegrees = cellLatDegrees
+            / Math.max(Math.cos(EarthDistance.degreesToRadians(meanLat)), MIN_COS_LATITUDE);
+
+        Arrays.fill(pointOfRow, -1);
+        int[] pointsInCell = new int[size];
+        for (int point = 0; point < size; point++) {
+            int row = rows[point];
+            pointOfRow[row] = point;
+            long cell = cellKey(row(store.getLatitude(row)), column(store.getLongitude(row)));
+            int cellId = cellIds.putIfAbsent(cell, cellIds.size());
+            if (cellId == LongIntHashMap.ABSENT) {
+                cellId = cellIds.size() - 1;
+            }
+            cellOfPoint[point] = cellId;
+            pointsInCell[cellId]++;
+        }
+
+        int cells = cellIds.size();
+        cellStart = new int[cells];
+        cellCount = new int[cells];
+        cellPoints = new int[size];
+        for (int cell = 1; cell < cells; cell++) {
+            cellStart[cell] = cellStart[cell - 1] + pointsInCell[cell - 1];
+        }
+        for (int point = 0; point < size; point++) {
+            int cell = cellOfPoint[point];
+            positionOfPoint[point] = cellStart[cell] + cellCount[cell];
+            cellPoints[positionOfPoint[point]] = point;
+            cellCount[cell]++;
+        }
+    }
+
+    /**
+     * Method returns amount of rows which are still in index.
+     *
+     * @return {@link Integer} amount of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method checks whether all rows were removed from index.
+     *
+     * @return {@link Boolean} true if index is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Method checks whether row is still in index.
+     *
+     * @param row {@link Integer} row index.
+     * @return {@link Boolean} true if index contains row.
+     */
+    public boolean contains(int row) {
+        return row >= 0 && row < pointOfRow.length && pointOfRow[row] >= 0
+            && positionOfPoint[pointOfRow[row]] >= 0;
+    }
+
+    /**
+     * Method returns first not removed row in initial order.
+     *
+     * @return {@link Integer} row index or -1 if index is empty.
+     */
+    public int first() {
+        while (firstRemaining < rows.length && positionOfPoint[firstRemaining] < 0) {
+            firstRemaining++;
+        }
+        return firstRemaining < rows.length ? rows[firstRemaining] : -1;
+    }
+
+    /**
+     * Method removes row from index.
+     *
+     * @param row {@link Integer} row index.
+     * @return {@link Boolean} true if row was in index.
+     */
+    public boolean remove(int row) {
+        if (!contains(row)) {
+            return false;
+        }
+        int point = pointOfRow[row];
+        int cell = cellOfPoint[point];
+        int position = positionOfPoint[point];
+        int lastPosition = cellStart[cell] + --cellCount[cell];
+        int last = cellPoints[lastPosition];
+        cellPoints[position] = last;
+        positionOfPoint[last] = position;
+        positionOfPoint[point] = -1;
+        size--;
+        return true;
+    }
+
+    /**
+     * Method finds all rows in certain radius.
+     *
+     * @param latitude  {@link Double} latitude of center of searched area.
+     * @param longitude {@link Double} longitude of center of searched area.
+     * @param distance  - searched radius in kilometers.
+     * @param result    array to be filled with row indexes, not shorter than
+     *                  {@link #size()}.
+     * @return {@link Integer} amount of found rows.
+     */
+    public int withinRadius(double latitude, double longitude, double distance, int[] result) {
+        double cosLat = EarthDistance.cosLatitude(latitude);
+        double latSpan = EarthDistance.latitudeSpan(distance);
+        double lonSpan = EarthDistance.longitudeSpan(latitude, distance);
+
+        int rowFrom = row(latitude - latSpan);
+        int rowTo = row(latitude + latSpan);
+        int columnFrom = column(longitude - lonSpan);
+        int columnTo = column(longitude + lonSpan);
+        int count = 0;
+        if ((long) (rowTo - rowFrom + 1) * (columnTo - columnFrom + 1) > cellStart.length) {
+            for (int cell = 0; cell < cellStart.length; cell++) {
+                count = addWithinRadius(cell, latitude, longitude, cosLat, distance, result, count);
+            }
+            return count;
+        }
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int column = columnFrom; column <= columnTo; column++) {
+                int cell = cellIds.get(cellKey(row, column));
+                if (cell != LongIntHashMap.ABSENT) {
+                    count = addWithinRadius(cell, latitude, longitude, cosLat, distance, result, count);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int addWithinRadius(int cell, double lat, double lon, double cosLat, double distance, int[] result,
+        int count) {
+        DistanceKernel kernel = store.getKernel();
+        for (int position = cellStart[cell]; position < cellStart[cell] + cellCount[cell]; position++) {
+            int row = rows[cellPoints[position]];
+            if (kernel.isWithin(row, lat, lon, cosLat, distance)) {
+                result[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellLatDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellLonDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
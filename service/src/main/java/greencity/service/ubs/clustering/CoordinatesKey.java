@@ -0,0 +1,52 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+
+/**
+ * Utility class which packs latitude and longitude into one primitive
+ * {@code long} key. Both values are stored as fixed-point numbers with 7
+ * decimal digits (about 1 cm precision), latitude in high 32 bits and longitude
+ * in low 32 bits.
+ */
+public final class CoordinatesKey {
+    private static final double SCALE = 1e7;
+
+    private CoordinatesKey() {
+    }
+
+    /**
+     * Method returns key for given latitude and longitude.
+     *
+     * @param latitude  {@link Double} latitude in degrees.
+     * @param longitude {@link Double} longitude in degrees.
+     * @return {@link Long} key.
+     */
+    public static long of(double latitude, double longitude) {
+        return ((long) Math.round(latitude * SCALE) << 32) | (Math.round(longitude * SCALE) & 0xffffffffL);
+    }
+
+    /**
+     * Method returns key for given coordinates.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return {@link Long} key.
+     */
+    public static long of(Coordinates coordinates) {
+        return of(coordinates.getLatitude(), coordinates.getLongitude());
+    }
+
+    /**
+     * Method spreads key bits to be used as hash in open addressing tables.
+     *
+     * @param key {@link Long} key.
+     * @return {@link Integer} hash.
+     */
+    public static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,112 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Density based clusterization of undelivered orders coordinates on
+ * {@link CoordinatesGridIndex}. Cluster grows from the first unclustered
+ * coordinate which has at least {@link #MIN_POINTS} unclustered coordinates in
+ * radius, through other such coordinates, closest ones first, until litres
+ * limit is reached. Coordinates reached by no cluster form clusters on their
+ * own, because every order has to be delivered.
+ */
+@Component
+public class DbscanClusterer implements ClusteringStrategy {
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "dbscan";
+
+    /**
+     * Minimal amount of coordinates in radius, including the checked one, which
+     * makes coordinate a core of cluster.
+     */
+    private static final int MIN_POINTS = 3;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc} Every radius query is counted as iteration.
+     */
+    @Override
+    public ClusteringResult cluster(Collection<Coordinates> coordinates, LitresByCoordinates litresByCoords,
+        double distance, int litres, ClusteringMonitor monitor) {
+        int[] rows = litresByCoords.indexesOf(coordinates);
+        CoordinatesGridIndex coordsIndex = new CoordinatesGridIndex(litresByCoords, rows, distance);
+        int[] neighbours = new int[rows.length];
+        int[] toExpand = new int[rows.length];
+        List<Cluster> allClusters = new ArrayList<>();
+        int iterations = 0;
+
+        for (int seed : rows) {
+            if (!coordsIndex.contains(seed)) {
+                continue;
+            }
+            monitor.checkCancelled();
+            iterations++;
+            if (withinRadius(coordsIndex, litresByCoords, seed, distance, neighbours) < MIN_POINTS) {
+                continue;
+            }
+            coordsIndex.remove(seed);
+            Set<Coordinates> closeRelatives = new HashSet<>();
+            closeRelatives.add(litresByCoords.getCoordinates(seed));
+            int amountOfLitresInCluster = litresByCoords.getLitres(seed);
+
+            int head = 0;
+            int tail = 0;
+            toExpand[tail++] = seed;
+            while (head < tail && amountOfLitresInCluster < litres) {
+                int current = toExpand[head++];
+                int count = withinRadius(coordsIndex, litresByCoords, current, distance, neighbours);
+                iterations++;
+                if (current != seed && count + 1 < MIN_POINTS) {
+                    continue;
+                }
+                int[] sorted = litresByCoords.getKernel().sortByDistanceFrom(neighbours, count,
+                    litresByCoords.getLatitude(current), litresByCoords.getLongitude(current), false);
+                for (int neighbour : sorted) {
+                    int neighbourLitres = litresByCoords.getLitres(neighbour);
+                    if (amountOfLitresInCluster + neighbourLitres <= litres) {
+                        amountOfLitresInCluster += neighbourLitres;
+                        closeRelatives.add(litresByCoords.getCoordinates(neighbour));
+                        coordsIndex.remove(neighbour);
+                        toExpand[tail++] = neighbour;
+                    }
+                }
+            }
+            allClusters.add(new Cluster(closeRelatives, amountOfLitresInCluster));
+            monitor.coordinatesClustered(closeRelatives.size());
+        }
+
+        // coordinates which were reached by no cluster are delivered on their own
+        while (!coordsIndex.isEmpty()) {
+            int noise = coordsIndex.first();
+            coordsIndex.remove(noise);
+            Set<Coordinates> single = new HashSet<>();
+            single.add(litresByCoords.getCoordinates(noise));
+            allClusters.add(new Cluster(single, litresByCoords.getLitres(noise)));
+            monitor.coordinatesClustered(1);
+        }
+
+        return new ClusteringResult(allClusters, iterations);
+    }
+
+    private static int withinRadius(CoordinatesGridIndex coordsIndex, LitresByCoordinates litresByCoords, int row,
+        double distance, int[] result) {
+        return coordsIndex.withinRadius(litresByCoords.getLatitude(row), litresByCoords.getLongitude(row), distance,
+            result);
+    }
+}
@@ -0,0 +1,200 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Coordinates stored as primitive arrays of latitudes, longitudes and cosines
+ * of latitudes, so trigonometry of every coordinate is computed once and
+ * distance loops do not touch {@link Coordinates} objects.
+ */
+public final class DistanceKernel {
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+
+    /**
+     * Creates kernel for given amount of coordinates to be set later.
+     *
+     * @param capacity amount of coordinates.
+     */
+    public DistanceKernel(int capacity) {
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+        cosLatitudes = new double[capacity];
+    }
+
+    /**
+     * Creates kernel for given coordinates in their iteration order.
+     *
+     * @param coordinates collection of {@link Coordinates}.
+     */
+    public DistanceKernel(Collection<Coordinates> coordinates) {
+        this(coordinates.size());
+        int index = 0;
+        for (Coordinates temp : coordinates) {
+            set(index++, temp);
+        }
+    }
+
+    /**
+     * Method puts coordinate at given index.
+     *
+     * @param index       {@link Integer} index.
+     * @param coordinates {@link Coordinates}.
+     */
+    public void set(int index, Coordinates coordinates) {
+        set(index, coordinates.getLatitude(), coordinates.getLongitude());
+    }
+
+    /**
+     * Method puts coordinate at given index.
+     *
+     * @param index     {@link Integer} index.
+     * @param latitude  {@link Double} latitude.
+     * @param longitude {@link Double} longitude.
+     */
+    public void set(int index, double latitude, double longitude) {
+        latitudes[index] = latitude;
+        longitudes[index] = longitude;
+        cosLatitudes[index] = EarthDistance.cosLatitude(latitude);
+    }
+
+    /**
+     * Method returns amount of coordinates.
+     *
+     * @return {@link Integer} amount of coordinates.
+     */
+    public int size() {
+        return latitudes.length;
+    }
+
+    /**
+     * Method returns distance between coordinate at index and given point.
+     *
+     * @param index     {@link Integer} index of coordinate.
+     * @param latitude  {@link Double} latitude of point.
+     * @param longitude {@link Double} longitude of point.
+     * @param cosLat    {@link Double} cosine of latitude of point.
+     * @return {@link Double} distance in kilometers.
+     */
+    public double distance(int index, double latitude, double longitude, double cosLat) {
+        return EarthDistance.between(latitude, longitude, cosLat,
+            latitudes[index], longitudes[index], cosLatitudes[index]);
+    }
+
+    /**
+     * Method checks whether coordinate at index is not farther than distance from
+     * given point.
+     *
+     * @param index     {@link Integer} index of coordinate.
+     * @param latitude  {@link Double} latitude of point.
+     * @param longitude {@link Double} longitude of point.
+     * @param cosLat    {@link Double} cosine of latitude of point.
+     * @param distance  {@link Double} distance in kilometers.
+     * @return {@link Boolean} true if coordinate is within distance.
+     */
+    public boolean isWithin(int index, double latitude, double longitude, double cosLat, double distance) {
+        return EarthDistance.isWithin(latitude, longitude, cosLat,
+            latitudes[index], longitudes[index], cosLatitudes[index], distance);
+    }
+
+    /**
+     * Method returns indexes of coordinates sorted by distance from center. Every
+     * distance is computed once, coordinates at equal distances keep their order.
+     *
+     * @param center        {@link Coordinates} center.
+     * @param farthestFirst {@link Boolean} whether the farthest coordinates go
+     *                      first.
+     * @return array of indexes.
+     */
+    public int[] indexesByDistanceFrom(Coordinates center, boolean farthestFirst) {
+        int[] indexes = new int[size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return sortByDistanceFrom(indexes, indexes.length, center.getLatitude(), center.getLongitude(),
+            farthestFirst);
+    }
+
+    /**
+     * Method returns first indexes of given array sorted by distance of their
+     * coordinates from center. Every distance is computed once, coordinates at
+     * equal distances keep their order.
+     *
+     * @param indexes       array of indexes.
+     * @param count         {@link Integer} amount of indexes to sort.
+     * @param latitude      {@link Double} latitude of center.
+     * @param longitude     {@link Double} longitude of center.
+     * @param farthestFirst {@link Boolean} whether the farthest coordinates go
+     *                      first.
+     * @return new array of sorted indexes.
+     */
+    public int[] sortByDistanceFrom(int[] indexes, int count, double latitude, double longitude,
+        boolean farthestFirst) {
+        double cosLat = EarthDistance.cosLatitude(latitude);
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            double distance = distance(indexes[i], latitude, longitude, cosLat);
+            keys[i] = farthestFirst ? -distance : distance;
+        }
+        int[] order = sortedIndexes(keys);
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = indexes[order[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Method returns new list of coordinates sorted by distance from center.
+     *
+     * @param coordinates   collection of {@link Coordinates}.
+     * @param center        {@link Coordinates} center.
+     * @param farthestFirst {@link Boolean} whether the farthest coordinates go
+     *                      first.
+     * @return list of {@link Coordinates}.
+     */
+    public static List<Coordinates> sortByDistanceFrom(Collection<Coordinates> coordinates, Coordinates center,
+        boolean farthestFirst) {
+        List<Coordinates> source = new ArrayList<>(coordinates);
+        int[] order = new DistanceKernel(source).indexesByDistanceFrom(center, farthestFirst);
+        List<Coordinates> sorted = new ArrayList<>(order.length);
+        for (int index : order) {
+            sorted.add(source.get(index));
+        }
+        return sorted;
+    }
+
+    /**
+     * Stable merge sort of indexes by primitive keys.
+     */
+    static int[] sortedIndexes(double[] keys) {
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        int[] buffer = new int[keys.length];
+        for (int width = 1; width < indexes.length; width *= 2) {
+            for (int from = 0; from < indexes.length - width; from += 2 * width) {
+                merge(keys, indexes, buffer, from, from + width, Math.min(from + 2 * width, indexes.length));
+            }
+        }
+        return indexes;
+    }
+
+    private static void merge(double[] keys, int[] indexes, int[] buffer, int from, int middle, int to) {
+        System.arraycopy(indexes, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && keys[buffer[left]] <= keys[buffer[right]])) {
+                indexes[i] = buffer[left++];
+            } else {
+                indexes[i] = buffer[right++];
+            }
+        }
+    }
+}
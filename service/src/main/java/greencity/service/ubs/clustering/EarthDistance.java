@@ -0,0 +1,149 @@
+package greencity.service.ubs.clustering;
+
+/**
+ * Utility class with distance calculations on the earth surface.
+ */
+public final class EarthDistance {
+    /**
+     * Mean earth radius in kilometers.
+     */
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    /**
+     * Length of one degree of latitude in kilometers.
+     */
+    public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    /**
+     * Equirectangular approximation differs from haversine by far less than this
+     * part of distance on distances up to {@link #MAX_APPROXIMATED_DISTANCE_KM} and
+     * latitudes up to {@link #MAX_APPROXIMATED_LATITUDE}.
+     */
+    private static final double APPROXIMATION_MARGIN = 0.01;
+    private static final double MAX_APPROXIMATED_DISTANCE_KM = 100;
+    private static final double MAX_APPROXIMATED_LATITUDE = 70;
+
+    private EarthDistance() {
+    }
+
+    /**
+     * Method to convert degrees to radians.
+     *
+     * @param degrees {@link Double} degrees.
+     * @return {@link Double} radians.
+     */
+    public static double degreesToRadians(double degrees) {
+        return degrees * Math.PI / 180;
+    }
+
+    /**
+     * Method returns cosine of latitude, which may be computed once per coordinate
+     * and passed to distance methods.
+     *
+     * @param latitude {@link Double} latitude in degrees.
+     * @return {@link Double} cosine of latitude.
+     */
+    public static double cosLatitude(double latitude) {
+        return Math.cos(degreesToRadians(latitude));
+    }
+
+    /**
+     * Method returns latitude half-height of the area which contains every point
+     * not farther than distance from its center.
+     *
+     * @param distance {@link Double} distance in kilometers.
+     * @return {@link Double} half-height in degrees.
+     */
+    public static double latitudeSpan(double distance) {
+        return distance / KM_PER_DEGREE;
+    }
+
+    /**
+     * Method returns longitude half-width of the area which contains every point
+     * not farther than distance from its center. Haversine distance is not less
+     * than {@code cos(lat1) * cos(lat2) * hav(dLon)}, so the smallest cosine in the
+     * latitude band gives a safe bound.
+     *
+     * @param latitude {@link Double} latitude of the center in degrees.
+     * @param distance {@link Double} distance in kilometers.
+     * @return {@link Double} half-width in degrees, 180 if the area goes round the
+     *         earth.
+     */
+    public static double longitudeSpan(double latitude, double distance) {
+        double latSpan = latitudeSpan(distance);
+        double maxAbsLat = Math.min(Math.max(Math.abs(latitude - latSpan), Math.abs(latitude + latSpan)), 90);
+        double cos = Math.cos(degreesToRadians(maxAbsLat));
+        double sinHalf = Math.sin(distance / EARTH_RADIUS_KM / 2);
+        if (cos <= 0 || sinHalf >= cos) {
+            return 180;
+        }
+        return Math.toDegrees(2 * Math.asin(sinHalf / cos));
+    }
+
+    /**
+     * Method to determine distance between 2 earth coordinates.
+     *
+     * @param lat1 {@link Double} - latitude of 1 coordinate.
+     * @param lon1 {@link Double} - longitude of 1 coordinate.
+     * @param lat2 {@link Double} - latitude of 2 coordinate.
+     * @param lon2 {@link Double} - longitude of 2 coordinate.
+     * @return {@link Double} distance in kilometers.
+     */
+    public static double between(double lat1, double lon1, double lat2, double lon2) {
+        return between(lat1, lon1, cosLatitude(lat1), lat2, lon2, cosLatitude(lat2));
+    }
+
+    /**
+     * Method to determine distance between 2 earth coordinates with cosines of
+     * their latitudes computed in advance.
+     *
+     * @param lat1 {@link Double} - latitude of 1 coordinate.
+     * @param lon1 {@link Double} - longitude of 1 coordinate.
+     * @param cos1 {@link Double} - cosine of latitude of 1 coordinate.
+     * @param lat2 {@link Double} - latitude of 2 coordinate.
+     * @param lon2 {@link Double} - longitude of 2 coordinate.
+     * @param cos2 {@link Double} - cosine of latitude of 2 coordinate.
+     * @return {@link Double} distance in kilometers.
+     */
+    public static double between(double lat1, double lon1, double cos1, double lat2, double lon2, double cos2) {
+        double radiansLatitude = degreesToRadians(lat2 - lat1);
+        double radiansLongitude = degreesToRadians(lon2 - lon1);
+
+        double a = Math.sin(radiansLatitude / 2) * Math.sin(radiansLatitude / 2)
+            + Math.sin(radiansLongitude / 2) * Math.sin(radiansLongitude / 2) * cos1 * cos2;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Method checks whether 2 earth coordinates are not farther than distance from
+     * each other. Equirectangular approximation decides when it is clearly far from
+     * the distance, exact haversine is computed only near it.
+     *
+     * @param lat1     {@link Double} - latitude of 1 coordinate.
+     * @param lon1     {@link Double} - longitude of 1 coordinate.
+     * @param cos1     {@link Double} - cosine of latitude of 1 coordinate.
+     * @param lat2     {@link Double} - latitude of 2 coordinate.
+     * @param lon2     {@link Double} - longitude of 2 coordinate.
+     * @param cos2     {@link Double} - cosine of latitude of 2 coordinate.
+     * @param distance {@link Double} - distance in kilometers.
+     * @return {@link Boolean} true if coordinates are within distance.
+     */
+    public static boolean isWithin(double lat1, double lon1, double cos1, double lat2, double lon2, double cos2,
+        double distance) {
+        double deltaLon = lon2 - lon1;
+        if (distance <= MAX_APPROXIMATED_DISTANCE_KM && deltaLon > -180 && deltaLon < 180
+            && Math.abs(lat1) < MAX_APPROXIMATED_LATITUDE) {
+            double x = degreesToRadians(deltaLon) * (cos1 + cos2) / 2;
+            double y = degreesToRadians(lat2 - lat1);
+            double approximated = EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+            if (approximated < distance * (1 - APPROXIMATION_MARGIN)) {
+                return true;
+            }
+            if (approximated > distance * (1 + APPROXIMATION_MARGIN)) {
+                return false;
+            }
+        }
+        return between(lat1, lon1, cos1, lat2, lon2, cos2) <= distance;
+    }
+}
@@ -0,0 +1,227 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory snapshots of clusterizations made with different parameters. When
+ * litres of some coordinates change, only clusters in the neighbourhood of
+ * these coordinates are dissolved and grouped again, the rest of every snapshot
+ * is kept as it is. Snapshots older than
+ * {@code ubs.clustering.snapshot-ttl-seconds} are not served, so changes made
+ * bypassing the application are picked up eventually. Clusters of a snapshot
+ * are never changed, updated clusters are published as a new snapshot, so
+ * readers do not wait for updates, which are made one at a time. Clusterization
+ * made from scratch is remembered only if no update came while it was running,
+ * as the update would be missing from it.
+ */
+@Component
+public class IncrementalClusterModel {
+    private static final int MAX_SNAPSHOTS = 16;
+
+    private final ClusteringStrategies clusteringStrategies;
+    private final TiledClusteringEngine tiledClusteringEngine;
+    private final long snapshotTtlMillis;
+    private final Map<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Object updateLock = new Object();
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * Constructor with parameters.
+     */
+    public IncrementalClusterModel(ClusteringStrategies clusteringStrategies,
+        TiledClusteringEngine tiledClusteringEngine,
+        @Value("${ubs.clustering.snapshot-ttl-seconds:600}") long snapshotTtlSeconds) {
+        this.clusteringStrategies = clusteringStrategies;
+        this.tiledClusteringEngine = tiledClusteringEngine;
+        this.snapshotTtlMillis = snapshotTtlSeconds * 1000;
+    }
+
+    /**
+     * Method returns clusters of snapshot made with given parameters.
+     *
+     * @param strategy - name of clustering strategy.
+     * @param distance - preferred distance for clusterization.
+     * @param litres   - preferred amount of litres.
+     * @param parallel - whether tiles were clustered in parallel.
+     * @return list of {@link Cluster} or empty {@link Optional} if there is no
+     *         fresh snapshot.
+     */
+    public Optional<List<Cluster>> getClusters(String strategy, double distance, int litres, boolean parallel) {
+        Snapshot snapshot = snapshots.get(new SnapshotKey(strategy, distance, litres, parallel));
+        if (snapshot == null || System.currentTimeMillis() - snapshot.createdAt > snapshotTtlMillis) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.clusters);
+    }
+
+    /**
+     * Method returns amount of updates made so far. It has to be read before litres
+     * of clusterization from scratch are loaded and passed to
+     * {@link #put(String, double, int, boolean, long, LitresByCoordinates, List)}.
+     *
+     * @return amount of updates.
+     */
+    public long getModifications() {
+        return modifications.get();
+    }
+
+    /**
+     * Method remembers clusterization made from scratch, forgetting the oldest
+     * snapshot when there are too many of them. Clusterization is not remembered if
+     * snapshots were updated or cleared since its litres were loaded.
+     *
+     * @param strategy       - name of clustering strategy.
+     * @param distance       - preferred distance for clusterization.
+     * @param litres         - preferred amount of litres.
+     * @param parallel       - whether tiles were clustered in parallel.
+     * @param modifications  - amount of updates read before litres were loaded.
+     * @param litresByCoords {@link LitresByCoordinates} litres of all undelivered
+     *                       orders coordinates.
+     * @param clusters       list of {@link Cluster}.
+     * @return {@code true} if clusterization is remembered.
+     */
+    public boolean put(String strategy, double distance, int litres, boolean parallel, long modifications,
+        LitresByCoordinates litresByCoords, List<Cluster> clusters) {
+        Map<Long, Integer> litresByKey = new HashMap<>();
+        for (int i = 0; i < litresByCoords.size(); i++) {
+            litresByKey.put(CoordinatesKey.of(litresByCoords.getCoordinates(i)), litresByCoords.getLitres(i));
+        }
+        Snapshot snapshot = new Snapshot(litresByKey, Collections.unmodifiableList(new ArrayList<>(clusters)),
+            System.currentTimeMillis());
+        synchronized (updateLock) {
+            if (this.modifications.get() != modifications) {
+                return false;
+            }
+            snapshots.put(new SnapshotKey(strategy, distance, litres, parallel), snapshot);
+            while (snapshots.size() > MAX_SNAPSHOTS) {
+                snapshots.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().createdAt))
+                    .ifPresent(eldest -> snapshots.remove(eldest.getKey()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method updates all snapshots with new amount of litres to be delivered to
+     * coordinates, regrouping only clusters which centers are within two distances
+     * from them. Snapshots made in parallel are regrouped by
+     * {@link TiledClusteringEngine}.
+     *
+     * @param coordinates {@link Coordinates} which orders were changed.
+     * @param litres      - litres of all undelivered orders with these coordinates,
+     *                    0 if there are no more such orders.
+     */
+    public void update(Coordinates coordinates, int litres) {
+        long key = CoordinatesKey.of(coordinates);
+        synchronized (updateLock) {
+            modifications.incrementAndGet();
+            for (Map.Entry<SnapshotKey, Snapshot> entry : snapshots.entrySet()) {
+                Snapshot snapshot = entry.getValue();
+                if (snapshot.litresByKey.getOrDefault(key, 0) != litres) {
+                    entry.setValue(update(entry.getKey(), snapshot, coordinates, key, litres));
+                }
+            }
+        }
+    }
+
+    private Snapshot update(SnapshotKey params, Snapshot snapshot, Coordinates coordinates, long key, int litres) {
+        List<Cluster> kept = new ArrayList<>();
+        List<Coordinates> affected = new ArrayList<>();
+        for (Cluster cluster : snapshot.clusters) {
+            Coordinates center = cluster.getCenter();
+            double distanceFromCenter = EarthDistance.between(center.getLatitude(), center.getLongitude(),
+                coordinates.getLatitude(), coordinates.getLongitude());
+            if (cluster.getCoordinates().contains(coordinates) || distanceFromCenter <= 2 * params.distance) {
+                for (Coordinates temp : cluster.getCoordinates()) {
+                    if (!temp.equals(coordinates)) {
+                        affected.add(temp);
+                    }
+                }
+            } else {
+                kept.add(cluster);
+            }
+        }
+        if (litres > 0 && litres <= params.litres) {
+            affected.add(coordinates);
+        }
+
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (Coordinates temp : affected) {
+            long tempLitres = temp.equals(coordinates) ? litres : snapshot.litresByKey.get(CoordinatesKey.of(temp));
+            capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), tempLitres));
+        }
+        ClusteringStrategy strategy = clusteringStrategies.get(params.strategy);
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(capacities);
+        kept.addAll((params.parallel
+            ? tiledClusteringEngine.cluster(strategy, affected, litresByCoords, params.distance, params.litres)
+            : strategy.cluster(affected, litresByCoords, params.distance, params.litres)).getClusters());
+
+        // litres are changed in place only once clusters are made, updates do not run
+        // concurrently
+        if (litres > 0) {
+            snapshot.litresByKey.put(key, litres);
+        } else {
+            snapshot.litresByKey.remove(key);
+        }
+        return new Snapshot(snapshot.litresByKey, Collections.unmodifiableList(kept), snapshot.createdAt);
+    }
+
+    /**
+     * Method forgets all snapshots.
+     */
+    public void clear() {
+        synchronized (updateLock) {
+            modifications.incrementAndGet();
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * Parameters of clusterization.
+     */
+    @EqualsAndHashCode
+    private static final class SnapshotKey {
+        private final String strategy;
+        private final double distance;
+        private final int litres;
+        private final boolean parallel;
+
+        private SnapshotKey(String strategy, double distance, int litres, boolean parallel) {
+            this.strategy = strategy;
+            this.distance = distance;
+            this.litres = litres;
+            this.parallel = parallel;
+        }
+    }
+
+    /**
+     * Clusters along with litres of every undelivered orders coordinates they were
+     * made from. Clusters are published to readers, litres are read and changed by
+     * updates only.
+     */
+    private static final class Snapshot {
+        private final Map<Long, Integer> litresByKey;
+        private final List<Cluster> clusters;
+        private final long createdAt;
+
+        private Snapshot(Map<Long, Integer> litresByKey, List<Cluster> clusters, long createdAt) {
+            this.litresByKey = litresByKey;
+            this.clusters = clusters;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lookup of litres to be delivered by coordinates. It is loaded once per
+ * request from {@link CoordinatesCapacity} rows into primitive arrays and an
+ * open addressing table keyed by {@link CoordinatesKey}, so no boxing happens
+ * on lookups. Rows keep their initial order and can be accessed by index, which
+ * clusterization uses instead of {@link Coordinates} objects.
+ */
+public class LitresByCoordinates {
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] litres;
+    private final LongIntHashMap rowsByKey;
+    private final DistanceKernel kernel;
+    private int size;
+
+    /**
+     * Builds lookup from given rows.
+     *
+     * @param rows list of {@link CoordinatesCapacity}.
+     */
+    public LitresByCoordinates(List<CoordinatesCapacity> rows) {
+        latitudes = new double[rows.size()];
+        longitudes = new double[rows.size()];
+        litres = new int[rows.size()];
+        rowsByKey = new LongIntHashMap(rows.size());
+        kernel = new DistanceKernel(rows.size());
+
+        for (CoordinatesCapacity row : rows) {
+            int index = rowsByKey.putIfAbsent(CoordinatesKey.of(row.getLatitude(), row.getLongitude()), size);
+            if (index == LongIntHashMap.ABSENT) {
+                index = size++;
+                latitudes[index] = row.getLatitude();
+                longitudes[index] = row.getLongitude();
+                kernel.set(index, row.getLatitude(), row.getLongitude());
+            }
+            litres[index] += row.getLitres().intValue();
+        }
+    }
+
+    /**
+     * Method returns amount of different coordinates.
+     *
+     * @return {@link Integer} amount of coordinates.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method returns coordinates by row index.
+     *
+     * @param index {@link Integer} row index.
+     * @return {@link Coordinates}.
+     */
+    public Coordinates getCoordinates(int index) {
+        return new Coordinates(latitudes[index], longitudes[index]);
+    }
+
+    /**
+     * Method returns litres by row index.
+     *
+     * @param index {@link Integer} row index.
+     * @return {@link Integer} litres.
+     */
+    public int getLitres(int index) {
+        return litres[index];
+    }
+
+    /**
+     * Method returns litres to be delivered to given coordinates.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return {@link Integer} litres or 0 if there are no undelivered orders.
+     */
+    public int getLitres(Coordinates coordinates) {
+        int index = indexOf(coordinates);
+        return index == LongIntHashMap.ABSENT ? 0 : litres[index];
+    }
+
+    /**
+     * Method returns latitude by row index.
+     *
+     * @param index {@link Integer} row index.
+     * @return {@link Double} latitude.
+     */
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    /**
+     * Method returns longitude by row index.
+     *
+     * @param index {@link Integer} row index.
+     * @return {@link Double} longitude.
+     */
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    /**
+     * Method returns distance kernel of all rows, indexes of which are equal to row
+     * indexes.
+     *
+     * @return {@link DistanceKernel}.
+     */
+    public DistanceKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Method returns row index of given coordinates.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return {@link Integer} row index or {@link LongIntHashMap#ABSENT} if
+     *         coordinates are unknown.
+     */
+    public int indexOf(Coordinates coordinates) {
+        return rowsByKey.get(CoordinatesKey.of(coordinates));
+    }
+
+    /**
+     * Method returns row indexes of given coordinates in their iteration order,
+     * skipping unknown and repeated ones.
+     *
+     * @param coordinates collection of {@link Coordinates}.
+     * @return array of row indexes.
+     */
+    public int[] indexesOf(Collection<Coordinates> coordinates) {
+        int[] indexes = new int[coordinates.size()];
+        boolean[] seen = new boolean[size];
+        int count = 0;
+        for (Coordinates temp : coordinates) {
+            int index = indexOf(temp);
+            if (index != LongIntHashMap.ABSENT && !seen[index]) {
+                seen[index] = true;
+                indexes[count++] = index;
+            }
+        }
+        return count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * Method checks whether there are undelivered orders with given coordinates.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return {@link Boolean} true if coordinates are known.
+     */
+    public boolean contains(Coordinates coordinates) {
+        return indexOf(coordinates) != LongIntHashMap.ABSENT;
+    }
+
+    /**
+     * Method returns coordinates which litres do not exceed given limit.
+     *
+     * @param maxLitres {@link Integer} litres limit.
+     * @return list of {@link Coordinates} in rows order.
+     */
+    public List<Coordinates> getCoordinatesWithLitresNotMoreThan(int maxLitres) {
+        List<Coordinates> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (litres[i] <= maxLitres) {
+                result.add(getCoordinates(i));
+            }
+        }
+        return result;
+    }
+}
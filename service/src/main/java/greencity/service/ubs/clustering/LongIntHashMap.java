@@ -0,0 +1,94 @@
+package greencity.service.ubs.clustering;
+
+/**
+ * Open addressing hash map from primitive {@code long} keys to non-negative
+ * {@code int} values, so lookups by {@link CoordinatesKey} do not box keys or
+ * allocate entries.
+ */
+public final class LongIntHashMap {
+    /**
+     * Value returned for absent keys.
+     */
+    public static final int ABSENT = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates map which holds given amount of keys without resizing.
+     *
+     * @param expectedSize expected amount of keys.
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1);
+    }
+
+    /**
+     * Method returns amount of keys.
+     *
+     * @return {@link Integer} amount of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method returns value of key.
+     *
+     * @param key {@link Long} key.
+     * @return {@link Integer} value or {@link #ABSENT}.
+     */
+    public int get(long key) {
+        return values[findSlot(key)] - 1;
+    }
+
+    /**
+     * Method puts value of key if key is absent.
+     *
+     * @param key   {@link Long} key.
+     * @param value {@link Integer} non-negative value.
+     * @return {@link Integer} value which key already had or {@link #ABSENT} if
+     *         value was put.
+     */
+    public int putIfAbsent(long key, int value) {
+        int slot = findSlot(key);
+        if (values[slot] != 0) {
+            return values[slot] - 1;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+        return ABSENT;
+    }
+
+    private int findSlot(long key) {
+        int slot = CoordinatesKey.hash(key) & mask;
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mean-shift clusterization of undelivered orders coordinates. Every cluster
+ * starts from the first unclustered coordinate, moves its center to the mean of
+ * coordinates in radius until it stops. If litres limit is exceeded,
+ * {@link CapacityTrimmer} chooses coordinates which fill the cluster best,
+ * preferring ones closer to the center, the rest are left for next clusters.
+ */
+@Component
+public class MeanShiftClusterer implements ClusteringStrategy {
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "mean-shift";
+
+    private final CapacityTrimmer capacityTrimmer;
+
+    /**
+     * Constructor with parameters.
+     */
+    public MeanShiftClusterer(CapacityTrimmer capacityTrimmer) {
+        this.capacityTrimmer = capacityTrimmer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc} First unclustered coordinate starts the next cluster, every
+     * shift of the center is counted as iteration.
+     */
+    @Override
+    public ClusteringResult cluster(Collection<Coordinates> coordinates, LitresByCoordinates litresByCoords,
+        double distance, int litres, ClusteringMonitor monitor) {
+        int[] rows = litresByCoords.indexesOf(coordinates);
+        CoordinatesGridIndex coordsIndex = new CoordinatesGridIndex(litresByCoords, rows, distance);
+        int[] closeRelatives = new int[rows.length];
+        List<Cluster> allClusters = new ArrayList<>();
+        int iterations = 0;
+
+        while (!coordsIndex.isEmpty()) {
+            monitor.checkCancelled();
+            int first = coordsIndex.first();
+            double currentLat = litresByCoords.getLatitude(first);
+            double currentLon = litresByCoords.getLongitude(first);
+
+            int count = coordsIndex.withinRadius(currentLat, currentLon, distance, closeRelatives);
+            double centralLat = meanLatitude(litresByCoords, closeRelatives, count);
+            double centralLon = meanLongitude(litresByCoords, closeRelatives, count);
+            iterations++;
+
+            while (Double.compare(centralLat, currentLat) != 0 || Double.compare(centralLon, currentLon) != 0) {
+                monitor.checkCancelled();
+                currentLat = centralLat;
+                currentLon = centralLon;
+                count = coordsIndex.withinRadius(currentLat, currentLon, distance, closeRelatives);
+                centralLat = meanLatitude(litresByCoords, closeRelatives, count);
+                centralLon = meanLongitude(litresByCoords, closeRelatives, count);
+                iterations++;
+            }
+            if (count == 0) {
+                closeRelatives[count++] = first;
+            }
+
+            int amountOfLitresInCluster = 0;
+            for (int i = 0; i < count; i++) {
+                amountOfLitresInCluster += litresByCoords.getLitres(closeRelatives[i]);
+            }
+
+            int[] members = closeRelatives;
+            boolean[] kept = null;
+            if (amountOfLitresInCluster > litres) {
+                members = litresByCoords.getKernel()
+                    .sortByDistanceFrom(closeRelatives, count, centralLat, centralLon, false);
+                int[] membersLitres = new int[count];
+                for (int i = 0; i < count; i++) {
+                    membersLitres[i] = litresByCoords.getLitres(members[i]);
+                }
+                kept = capacityTrimmer.trim(membersLitres, litres);
+                amountOfLitresInCluster = 0;
+                for (int i = 0; i < count; i++) {
+                    amountOfLitresInCluster += kept[i] ? membersLitres[i] : 0;
+                }
+            }
+
+            Set<Coordinates> grouped = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                if (kept == null || kept[i]) {
+                    coordsIndex.remove(members[i]);
+                    grouped.add(litresByCoords.getCoordinates(members[i]));
+                }
+            }
+            if (grouped.isEmpty()) {
+                coordsIndex.remove(first);
+                grouped.add(litresByCoords.getCoordinates(first));
+                amountOfLitresInCluster = litresByCoords.getLitres(first);
+            }
+            allClusters.add(new Cluster(grouped, amountOfLitresInCluster));
+            monitor.coordinatesClustered(grouped.size());
+        }
+
+        return new ClusteringResult(allClusters, iterations);
+    }
+
+    private static double meanLatitude(LitresByCoordinates litresByCoords, int[] rows, int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += litresByCoords.getLatitude(rows[i]);
+        }
+        return sum / count;
+    }
+
+    private static double meanLongitude(LitresByCoordinates litresByCoords, int[] rows, int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += litresByCoords.getLongitude(rows[i]);
+        }
+        return sum / count;
+    }
+}
@@ -0,0 +1,95 @@
+package greencity.service.ubs.clustering;
+
+/**
+ * Binary min-heap of rows of {@link LitresByCoordinates} ordered by their
+ * distance from some point, rows at equal distance are ordered by index. Heap
+ * is built in linear time, so taking only few nearest rows does not pay for
+ * sorting all of them.
+ */
+public final class NearestRowsQueue {
+    private final int[] rows;
+    private final double[] distances;
+    private int size;
+
+    /**
+     * Creates queue of first count rows. Given arrays are reordered in place.
+     *
+     * @param rows      array of row indexes.
+     * @param distances array of distances of rows, in the same order as rows.
+     * @param count     {@link Integer} amount of rows to take.
+     */
+    public NearestRowsQueue(int[] rows, double[] distances, int count) {
+        this.rows = rows;
+        this.distances = distances;
+        this.size = count;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Method returns amount of rows left in queue.
+     *
+     * @return {@link Integer} amount of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method checks whether queue has no rows left.
+     *
+     * @return {@link Boolean} true if queue is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Method removes the nearest row from queue.
+     *
+     * @return {@link Integer} index of the nearest row.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        int nearest = rows[0];
+        size--;
+        if (size > 0) {
+            rows[0] = rows[size];
+            distances[0] = distances[size];
+            siftDown(0);
+        }
+        return nearest;
+    }
+
+    private void siftDown(int position) {
+        int row = rows[position];
+        double distance = distances[position];
+        int half = size / 2;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && isCloser(right, child)) {
+                child = right;
+            }
+            if (!isCloser(distances[child], rows[child], distance, row)) {
+                break;
+            }
+            rows[position] = rows[child];
+            distances[position] = distances[child];
+            position = child;
+        }
+        rows[position] = row;
+        distances[position] = distance;
+    }
+
+    private boolean isCloser(int first, int second) {
+        return isCloser(distances[first], rows[first], distances[second], rows[second]);
+    }
+
+    private static boolean isCloser(double firstDistance, int firstRow, double secondDistance, int secondRow) {
+        return firstDistance < secondDistance || firstDistance == secondDistance && firstRow < secondRow;
+    }
+}
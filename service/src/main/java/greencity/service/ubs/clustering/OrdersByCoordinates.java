@@ -0,0 +1,67 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.order.UndeliveredOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Undelivered orders bucketed by coordinates of their address. Orders are
+ * fetched once per request and kept in one array grouped by coordinates, with
+ * buckets found through an open addressing table keyed by
+ * {@link CoordinatesKey}.
+ */
+public class OrdersByCoordinates {
+    private final LongIntHashMap bucketsByKey;
+    private final int[] bucketStart;
+    private final UndeliveredOrder[] orders;
+
+    /**
+     * Groups given orders by coordinates of their address, keeping their order
+     * inside every group.
+     *
+     * @param orders list of {@link UndeliveredOrder}.
+     */
+    public OrdersByCoordinates(List<UndeliveredOrder> orders) {
+        bucketsByKey = new LongIntHashMap(orders.size());
+        int[] bucketOfOrder = new int[orders.size()];
+        int[] bucketSize = new int[orders.size() + 1];
+        for (int i = 0; i < orders.size(); i++) {
+            UndeliveredOrder order = orders.get(i);
+            int bucket = bucketsByKey.putIfAbsent(CoordinatesKey.of(order.getLatitude(), order.getLongitude()),
+                bucketsByKey.size());
+            if (bucket == LongIntHashMap.ABSENT) {
+                bucket = bucketsByKey.size() - 1;
+            }
+            bucketOfOrder[i] = bucket;
+            bucketSize[bucket + 1]++;
+        }
+
+        bucketStart = new int[bucketsByKey.size() + 1];
+        for (int bucket = 0; bucket < bucketsByKey.size(); bucket++) {
+            bucketStart[bucket + 1] = bucketStart[bucket] + bucketSize[bucket + 1];
+        }
+        this.orders = new UndeliveredOrder[orders.size()];
+        int[] filled = Arrays.copyOf(bucketStart, bucketStart.length);
+        for (int i = 0; i < orders.size(); i++) {
+            this.orders[filled[bucketOfOrder[i]]++] = orders.get(i);
+        }
+    }
+
+    /**
+     * Method returns orders with given coordinates.
+     *
+     * @param coordinates {@link Coordinates}.
+     * @return unmodifiable list of {@link UndeliveredOrder}, empty if there are no
+     *         such orders.
+     */
+    public List<UndeliveredOrder> getOrders(Coordinates coordinates) {
+        int bucket = bucketsByKey.get(CoordinatesKey.of(coordinates));
+        if (bucket == LongIntHashMap.ABSENT) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(
+            Arrays.asList(orders).subList(bucketStart[bucket], bucketStart[bucket + 1]));
+    }
+}
@@ -0,0 +1,262 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parallel clusterization which splits coordinates into geographic tiles,
+ * groups every tile with given {@link ClusteringStrategy} on a
+ * {@link ForkJoinPool} and then merges clusters lying on both sides of tile
+ * borders. Tiles are processed and merged in fixed order, so the result does
+ * not depend on threads scheduling.
+ */
+@Component
+public class TiledClusteringEngine {
+    /**
+     * Tile side measured in clusterization radiuses. Big tiles keep the amount of
+     * clusters cut by borders low, small tiles give more parallel tasks.
+     */
+    private static final int TILE_SIZE_IN_RADIUSES = 10;
+    private static final double MIN_TILE_SIZE_KM = 1;
+
+    private final ForkJoinPool clusteringForkJoinPool;
+
+    /**
+     * Constructor with parameters.
+     */
+    public TiledClusteringEngine(ForkJoinPool clusteringForkJoinPool) {
+        this.clusteringForkJoinPool = clusteringForkJoinPool;
+    }
+
+    /**
+     * Method groups coordinates into clusters tile by tile in parallel.
+     *
+     * @param strategy       {@link ClusteringStrategy} used inside every tile.
+     * @param coordinates    collection of {@link Coordinates} to be grouped.
+     * @param litresByCoords {@link LitresByCoordinates} litres of coordinates.
+     * @param distance       - preferred distance for clusterization.
+     * @param litres         - preferred amount of litres.
+     * @return {@link ClusteringResult} with iterations of all tiles summed up.
+     */
+    public ClusteringResult cluster(ClusteringStrategy strategy, Collection<Coordinates> coordinates,
+        LitresByCoordinates litresByCoords, double distance, int litres) {
+        return cluster(strategy, coordinates, litresByCoords, distance, litres, ClusteringMonitor.NONE);
+    }
+
+    /**
+     * Method groups coordinates into clusters tile by tile in parallel reporting
+     * progress of all tiles to given monitor.
+     *
+     * @param strategy       {@link ClusteringStrategy} used inside every tile.
+     * @param coordinates    collection of {@link Coordinates} to be grouped.
+     * @param litresByCoords {@link LitresByCoordinates} litres of coordinates.
+     * @param distance       - preferred distance for clusterization.
+     * @param litres         - preferred amount of litres.
+     * @param monitor        thread safe {@link ClusteringMonitor} of
+     *                       clusterization.
+     * @return {@link ClusteringResult} with iterations of all tiles summed up.
+     * @throws java.util.concurrent.CancellationException if monitor is cancelled.
+     */
+    public ClusteringResult cluster(ClusteringStrategy strategy, Collection<Coordinates> coordinates,
+        LitresByCoordinates litresByCoords, double distance, int litres, ClusteringMonitor monitor) {
+        TileGrid grid = new TileGrid(coordinates, Math.max(distance * TILE_SIZE_IN_RADIUSES, MIN_TILE_SIZE_KM));
+        Map<Long, List<Coordinates>> tiles = new TreeMap<>();
+        for (Coordinates temp : coordinates) {
+            tiles.computeIfAbsent(grid.tileOf(temp), k -> new ArrayList<>()).add(temp);
+        }
+        List<Long> tileKeys = new ArrayList<>(tiles.keySet());
+        List<List<Coordinates>> tileCoordinates = new ArrayList<>(tiles.values());
+
+        List<ClusteringResult> tileResults = clusteringForkJoinPool.invoke(
+            new TilesTask(strategy, tileCoordinates, 0, tileCoordinates.size(), litresByCoords, distance, litres,
+                monitor));
+        monitor.checkCancelled();
+
+        List<List<Cluster>> tileClusters = new ArrayList<>();
+        int iterations = 0;
+        for (ClusteringResult tileResult : tileResults) {
+            tileClusters.add(tileResult.getClusters());
+            iterations += tileResult.getIterations();
+        }
+        return new ClusteringResult(
+            mergeClustersOnTileBorders(grid, tileKeys, tileClusters, distance, litres), iterations);
+    }
+
+    /**
+     * Method merges pairs of clusters from neighbouring tiles which centers are
+     * within distance and which litres together do not exceed the limit. Closest
+     * pairs are merged first and every cluster is merged at most once.
+     */
+    private List<Cluster> mergeClustersOnTileBorders(TileGrid grid, List<Long> tileKeys,
+        List<List<Cluster>> tileClusters, double distance, int litres) {
+        List<Cluster> clusters = new ArrayList<>();
+        List<Coordinates> centers = new ArrayList<>();
+        List<Long> clusterTiles = new ArrayList<>();
+        Map<Long, List<Integer>> clustersByTile = new TreeMap<>();
+        for (int tile = 0; tile < tileKeys.size(); tile++) {
+            for (Cluster cluster : tileClusters.get(tile)) {
+                clustersByTile.computeIfAbsent(tileKeys.get(tile), k -> new ArrayList<>()).add(clusters.size());
+                clusters.add(cluster);
+                centers.add(cluster.getCenter());
+                clusterTiles.add(tileKeys.get(tile));
+            }
+        }
+
+        List<MergeCandidate> candidates = new ArrayList<>();
+        for (int first = 0; first < clusters.size(); first++) {
+            for (long neighbourTile : grid.neighboursOf(clusterTiles.get(first))) {
+                if (neighbourTile <= clusterTiles.get(first)) {
+                    continue;
+                }
+                for (int second : clustersByTile.getOrDefault(neighbourTile, List.of())) {
+                    double centersDistance = EarthDistance.between(
+                        centers.get(first).getLatitude(), centers.get(first).getLongitude(),
+                        centers.get(second).getLatitude(), centers.get(second).getLongitude());
+                    if (centersDistance <= distance
+                        && clusters.get(first).getLitres() + clusters.get(second).getLitres() <= litres) {
+                        candidates.add(new MergeCandidate(first, second, centersDistance));
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(MergeCandidate::getDistance)
+            .thenComparingInt(MergeCandidate::getFirst)
+            .thenComparingInt(MergeCandidate::getSecond));
+
+        Cluster[] merged = clusters.toArray(new Cluster[0]);
+        boolean[] used = new boolean[merged.length];
+        for (MergeCandidate candidate : candidates) {
+            int first = candidate.getFirst();
+            int second = candidate.getSecond();
+            if (used[first] || used[second]) {
+                continue;
+            }
+            used[first] = true;
+            used[second] = true;
+            Set<Coordinates> union = new HashSet<>(merged[first].getCoordinates());
+            union.addAll(merged[second].getCoordinates());
+            merged[first] = new Cluster(union, merged[first].getLitres() + merged[second].getLitres());
+            merged[second] = null;
+        }
+
+        List<Cluster> result = new ArrayList<>();
+        for (Cluster cluster : merged) {
+            if (cluster != null) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task which clusterizes range of tiles, splitting it in halves until one tile
+     * is left.
+     */
+    private static final class TilesTask extends RecursiveTask<List<ClusteringResult>> {
+        private final ClusteringStrategy strategy;
+        private final List<List<Coordinates>> tiles;
+        private final int from;
+        private final int to;
+        private final LitresByCoordinates litresByCoords;
+        private final double distance;
+        private final int litres;
+        private final ClusteringMonitor monitor;
+
+        private TilesTask(ClusteringStrategy strategy, List<List<Coordinates>> tiles, int from, int to,
+            LitresByCoordinates litresByCoords, double distance, int litres, ClusteringMonitor monitor) {
+            this.strategy = strategy;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.litresByCoords = litresByCoords;
+            this.distance = distance;
+            this.litres = litres;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected List<ClusteringResult> compute() {
+            List<ClusteringResult> result = new ArrayList<>();
+            if (to - from <= 1) {
+                for (int tile = from; tile < to; tile++) {
+                    result.add(strategy.cluster(tiles.get(tile), litresByCoords, distance, litres, monitor));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            TilesTask left = new TilesTask(strategy, tiles, from, middle, litresByCoords, distance, litres, monitor);
+            left.fork();
+            List<ClusteringResult> right =
+                new TilesTask(strategy, tiles, middle, to, litresByCoords, distance, litres, monitor).compute();
+            result.addAll(left.join());
+            result.addAll(right);
+            return result;
+        }
+    }
+
+    /**
+     * Pair of clusters from neighbouring tiles which may be merged.
+     */
+    @AllArgsConstructor
+    @Getter
+    private static final class MergeCandidate {
+        private final int first;
+        private final int second;
+        private final double distance;
+    }
+
+    /**
+     * Regular latitude/longitude grid of tiles.
+     */
+    private static final class TileGrid {
+        private final double tileLatDegrees;
+        private final double tileLonDegrees;
+
+        private TileGrid(Collection<Coordinates> coordinates, double tileSize) {
+            double sumLat = 0;
+            for (Coordinates temp : coordinates) {
+                sumLat += temp.getLatitude();
+            }
+            double meanLat = coordinates.isEmpty() ? 0 : sumLat / coordinates.size();
+            tileLatDegrees = tileSize / EarthDistance.KM_PER_DEGREE;
+            tileLonDegrees = tileLatDegrees / Math.max(Math.cos(EarthDistance.degreesToRadians(meanLat)), 0.01);
+        }
+
+        private long tileOf(Coordinates coordinates) {
+            return key((int) Math.floor(coordinates.getLatitude() / tileLatDegrees),
+                (int) Math.floor(coordinates.getLongitude() / tileLonDegrees));
+        }
+
+        private long[] neighboursOf(long tile) {
+            int row = (int) (tile >> 32);
+            int column = (int) tile;
+            long[] neighbours = new long[8];
+            int index = 0;
+            for (int rowShift = -1; rowShift <= 1; rowShift++) {
+                for (int columnShift = -1; columnShift <= 1; columnShift++) {
+                    if (rowShift != 0 || columnShift != 0) {
+                        neighbours[index++] = key(row + rowShift, column + columnShift);
+                    }
+                }
+            }
+            return neighbours;
+        }
+
+        private static long key(int row, int column) {
+            return ((long) row << 32) | (column & 0xffffffffL);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package greencity.service.ubs.routing;
+
+import greencity.entity.coords.Coordinates;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Stops of a cluster in order of visiting. Leg distance of every stop is
+ * measured from the previous stop, or from depot for the first one.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class Route {
+    private final Coordinates depot;
+    private final List<Coordinates> stops;
+    private final List<Double> legDistances;
+    private final double returnDistance;
+    private final double length;
+}
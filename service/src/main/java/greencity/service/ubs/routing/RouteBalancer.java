@@ -0,0 +1,65 @@
+package greencity.service.ubs.routing;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Distributes routes between couriers, so they get similar amount of litres and
+ * similar length of routes. Load of a route is the sum of its shares of all
+ * litres and of all length, and routes are taken from the heaviest one and
+ * given to the least loaded courier. Such greedy assignment is at most a third
+ * worse than the best one and takes {@code O(n log n)} for {@code n} routes.
+ */
+public final class RouteBalancer {
+    private RouteBalancer() {
+    }
+
+    /**
+     * Method assigns routes to couriers.
+     *
+     * @param litres   array of litres of routes.
+     * @param lengths  array of lengths of routes, in the same order as litres.
+     * @param couriers {@link Integer} positive amount of couriers.
+     * @return array of courier indexes from 0 to couriers - 1 by route.
+     */
+    public static int[] assign(double[] litres, double[] lengths, int couriers) {
+        if (couriers <= 0) {
+            throw new IllegalArgumentException("Amount of couriers must be positive");
+        }
+        double totalLitres = 0;
+        double totalLength = 0;
+        for (int route = 0; route < litres.length; route++) {
+            totalLitres += litres[route];
+            totalLength += lengths[route];
+        }
+        double[] loads = new double[litres.length];
+        for (int route = 0; route < litres.length; route++) {
+            loads[route] = share(litres[route], totalLitres) + share(lengths[route], totalLength);
+        }
+
+        double[] courierLoads = new double[couriers];
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(couriers,
+            Comparator.<Integer>comparingDouble(courier -> courierLoads[courier]).thenComparingInt(c -> c));
+        for (int courier = 0; courier < couriers; courier++) {
+            leastLoaded.add(courier);
+        }
+        int[] heaviestFirst = IntStream.range(0, loads.length).boxed()
+            .sorted(Comparator.<Integer>comparingDouble(route -> -loads[route]).thenComparingInt(r -> r))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        int[] assignment = new int[loads.length];
+        for (int route : heaviestFirst) {
+            int courier = leastLoaded.poll();
+            assignment[route] = courier;
+            courierLoads[courier] += loads[route];
+            leastLoaded.add(courier);
+        }
+        return assignment;
+    }
+
+    private static double share(double value, double total) {
+        return total == 0 ? 0 : value / total;
+    }
+}
@@ -0,0 +1,97 @@
+package greencity.service.ubs.routing;
+
+import greencity.entity.coords.Coordinates;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders stops of every cluster into a route starting and ending at receiving
+ * station. Route is built by nearest neighbour and then improved with 2-opt and
+ * Or-opt moves until {@code ubs.routing.time-limit-millis} per cluster passes.
+ * Clusters are sequenced in parallel on the pool shared with clusterization.
+ */
+@Component
+public class RouteSequencer {
+    private final ForkJoinPool clusteringForkJoinPool;
+    private final Coordinates depot;
+    private final long timeLimitNanos;
+
+    /**
+     * Constructor with parameters.
+     *
+     * @param clusteringForkJoinPool {@link ForkJoinPool} clusters are sequenced on.
+     * @param depotLatitude          latitude of receiving station.
+     * @param depotLongitude         longitude of receiving station.
+     * @param timeLimitMillis        time of improving route of one cluster.
+     */
+    public RouteSequencer(ForkJoinPool clusteringForkJoinPool,
+        @Value("${ubs.routing.depot.latitude:49.8397}") double depotLatitude,
+        @Value("${ubs.routing.depot.longitude:24.0297}") double depotLongitude,
+        @Value("${ubs.routing.time-limit-millis:100}") long timeLimitMillis) {
+        this.clusteringForkJoinPool = clusteringForkJoinPool;
+        this.depot = new Coordinates(depotLatitude, depotLongitude);
+        this.timeLimitNanos = TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+    }
+
+    /**
+     * Method orders stops of one cluster into route.
+     *
+     * @param stops collection of {@link Coordinates} to visit.
+     * @return {@link Route}.
+     */
+    public Route sequence(Collection<Coordinates> stops) {
+        Tour tour = Tour.nearestNeighbour(depot, stops);
+        tour.improve(timeLimitNanos);
+        return tour.toRoute();
+    }
+
+    /**
+     * Method orders stops of every cluster into route in parallel.
+     *
+     * @param clusters list of collections of {@link Coordinates}.
+     * @return list of {@link Route} in order of clusters.
+     */
+    public List<Route> sequenceAll(List<? extends Collection<Coordinates>> clusters) {
+        return clusteringForkJoinPool.invoke(new RoutesTask(clusters, 0, clusters.size()));
+    }
+
+    /**
+     * Task which sequences range of clusters, splitting it in halves until one
+     * cluster is left.
+     */
+    private final class RoutesTask extends RecursiveTask<List<Route>> {
+        private final List<? extends Collection<Coordinates>> clusters;
+        private final int from;
+        private final int to;
+
+        private RoutesTask(List<? extends Collection<Coordinates>> clusters, int from, int to) {
+            this.clusters = clusters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Route> compute() {
+            List<Route> result = new ArrayList<>();
+            if (to - from <= 1) {
+                for (int cluster = from; cluster < to; cluster++) {
+                    result.add(sequence(clusters.get(cluster)));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            RoutesTask left = new RoutesTask(clusters, from, middle);
+            left.fork();
+            List<Route> right = new RoutesTask(clusters, middle, to).compute();
+            result.addAll(left.join());
+            result.addAll(right);
+            return result;
+        }
+    }
+}
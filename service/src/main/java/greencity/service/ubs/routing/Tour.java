@@ -0,0 +1,261 @@
+package greencity.service.ubs.routing;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.clustering.EarthDistance;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import lombok.AllArgsConstructor;
+
+/**
+ * Closed tour which starts at depot, visits every stop once and returns to
+ * depot. Distances between all points are computed once into a matrix, so
+ * improving moves only look them up. Point 0 is depot and it always stays at
+ * the first position of the tour.
+ */
+public final class Tour {
+    /**
+     * Moves which shorten tour by less than this amount of kilometers are ignored,
+     * so rounding errors do not make improvement loop forever.
+     */
+    private static final double EPSILON_KM = 1e-9;
+    private static final int MAX_MOVED_SEGMENT = 3;
+
+    private final Coordinates[] points;
+    private final int size;
+    private final double[] distances;
+    private int[] order;
+
+    private Tour(Coordinates depot, Collection<Coordinates> stops) {
+        List<Coordinates> sortedStops = new ArrayList<>(stops);
+        // input is usually a hash set, sorting keeps the tour independent of its order
+        sortedStops.sort(Comparator.comparingDouble(Coordinates::getLatitude)
+            .thenComparingDouble(Coordinates::getLongitude));
+        size = sortedStops.size() + 1;
+        points = new Coordinates[size];
+        points[0] = depot;
+        for (int i = 1; i < size; i++) {
+            points[i] = sortedStops.get(i - 1);
+        }
+
+        double[] cosLatitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            cosLatitudes[i] = EarthDistance.cosLatitude(points[i].getLatitude());
+        }
+        distances = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double distance = EarthDistance.between(points[i].getLatitude(), points[i].getLongitude(),
+                    cosLatitudes[i], points[j].getLatitude(), points[j].getLongitude(), cosLatitudes[j]);
+                distances[i * size + j] = distance;
+                distances[j * size + i] = distance;
+            }
+        }
+    }
+
+    /**
+     * Method builds tour going every time to the nearest not visited stop.
+     *
+     * @param depot {@link Coordinates} where tour starts and ends.
+     * @param stops collection of {@link Coordinates} to visit.
+     * @return {@link Tour}.
+     */
+    public static Tour nearestNeighbour(Coordinates depot, Collection<Coordinates> stops) {
+        Tour tour = new Tour(depot, stops);
+        int[] order = new int[tour.size];
+        boolean[] visited = new boolean[tour.size];
+        visited[0] = true;
+        for (int position = 1; position < tour.size; position++) {
+            int current = order[position - 1];
+            int nearest = -1;
+            for (int candidate = 1; candidate < tour.size; candidate++) {
+                if (!visited[candidate] && (nearest == -1
+                    || tour.distance(current, candidate) < tour.distance(current, nearest))) {
+                    nearest = candidate;
+                }
+            }
+            visited[nearest] = true;
+            order[position] = nearest;
+        }
+        tour.order = order;
+        return tour;
+    }
+
+    /**
+     * Method shortens tour with 2-opt and Or-opt moves until none of them helps or
+     * time limit passes.
+     *
+     * @param timeLimitNanos time of improvement in nanoseconds.
+     * @return {@link Boolean} true if tour is locally optimal, false if time limit
+     *         passed first.
+     */
+    public boolean improve(long timeLimitNanos) {
+        Deadline deadline = new Deadline(System.nanoTime(), timeLimitNanos);
+        boolean improved = true;
+        while (improved) {
+            if (deadline.isPassed()) {
+                return false;
+            }
+            improved = twoOpt(deadline);
+            improved |= orOpt(deadline);
+        }
+        return true;
+    }
+
+    /**
+     * Method returns length of tour including return to depot.
+     *
+     * @return {@link Double} length in kilometers.
+     */
+    public double getLength() {
+        double length = 0;
+        for (int position = 0; position < size; position++) {
+            length += distance(order[position], order[(position + 1) % size]);
+        }
+        return length;
+    }
+
+    /**
+     * Method returns stops in order of visiting along with distances of legs.
+     *
+     * @return {@link Route}.
+     */
+    public Route toRoute() {
+        List<Coordinates> stops = new ArrayList<>(size - 1);
+        List<Double> legDistances = new ArrayList<>(size - 1);
+        for (int position = 1; position < size; position++) {
+            stops.add(points[order[position]]);
+            legDistances.add(distance(order[position - 1], order[position]));
+        }
+        return new Route(points[0], stops, legDistances, distance(order[size - 1], 0), getLength());
+    }
+
+    /**
+     * Method reverses parts of tour when it makes two crossing or long edges
+     * shorter.
+     */
+    private boolean twoOpt(Deadline deadline) {
+        boolean improved = false;
+        for (int i = 0; i < size - 2; i++) {
+            if (deadline.isPassed()) {
+                return improved;
+            }
+            int a = order[i];
+            int b = order[i + 1];
+            // edges sharing a point cannot be exchanged, so the last edge is skipped for
+            // the first one
+            int lastJ = i == 0 ? size - 2 : size - 1;
+            for (int j = i + 2; j <= lastJ; j++) {
+                int c = order[j];
+                int d = order[(j + 1) % size];
+                double delta = distance(a, c) + distance(b, d) - distance(a, b) - distance(c, d);
+                if (delta < -EPSILON_KM) {
+                    reverse(i + 1, j);
+                    b = order[i + 1];
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Method moves segments of up to {@link #MAX_MOVED_SEGMENT} stops, as they are
+     * or reversed, between other two stops when it makes tour shorter.
+     */
+    private boolean orOpt(Deadline deadline) {
+        boolean improved = false;
+        for (int length = 1; length <= MAX_MOVED_SEGMENT; length++) {
+            for (int start = 1; start + length <= size; start++) {
+                if (deadline.isPassed()) {
+                    return improved;
+                }
+                if (moveSegment(start, length)) {
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private boolean moveSegment(int start, int length) {
+        int end = start + length - 1;
+        int prev = order[start - 1];
+        int first = order[start];
+        int last = order[end];
+        int next = order[(end + 1) % size];
+        double removalGain = distance(prev, first) + distance(last, next) - distance(prev, next);
+        if (removalGain <= EPSILON_KM) {
+            return false;
+        }
+
+        int bestPosition = -1;
+        boolean bestReversed = false;
+        double bestGain = EPSILON_KM;
+        for (int position = 0; position < size; position++) {
+            if (position >= start - 1 && position <= end) {
+                continue;
+            }
+            int p = order[position];
+            int q = order[(position + 1) % size];
+            double forwardGain = removalGain - (distance(p, first) + distance(last, q) - distance(p, q));
+            double reversedGain = removalGain - (distance(p, last) + distance(first, q) - distance(p, q));
+            if (forwardGain > bestGain) {
+                bestGain = forwardGain;
+                bestPosition = position;
+                bestReversed = false;
+            }
+            if (reversedGain > bestGain) {
+                bestGain = reversedGain;
+                bestPosition = position;
+                bestReversed = true;
+            }
+        }
+        if (bestPosition == -1) {
+            return false;
+        }
+
+        int[] moved = new int[size];
+        int count = 0;
+        for (int position = 0; position < size; position++) {
+            if (position >= start && position <= end) {
+                continue;
+            }
+            moved[count++] = order[position];
+            if (position == bestPosition) {
+                for (int k = 0; k < length; k++) {
+                    moved[count++] = order[bestReversed ? end - k : start + k];
+                }
+            }
+        }
+        order = moved;
+        return true;
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            int temp = order[from];
+            order[from++] = order[to];
+            order[to--] = temp;
+        }
+    }
+
+    private double distance(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    /**
+     * Moment after which improvement stops. Elapsed time is compared instead of
+     * moments, so it does not overflow for any limit.
+     */
+    @AllArgsConstructor
+    private static final class Deadline {
+        private final long startNanos;
+        private final long limitNanos;
+
+        private boolean isPassed() {
+            return System.nanoTime() - startNanos >= limitNanos;
+        }
+    }
+}
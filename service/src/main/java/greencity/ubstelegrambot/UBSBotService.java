@@ -28,7 +28,9 @@ public class UBSBotService {
      * three days.
      */
     public void sendMessageWhenOrderNonPayment() {
-        List<UBSuser> ubSusers = ubSuserRepository.getAllUBSusersWhoHaveNotPaid(LocalDate.now().minusDays(3));
+        LocalDate orderDate = LocalDate.now().minusDays(3);
+        List<UBSuser> ubSusers = ubSuserRepository.getAllUBSusersWhoHaveNotPaid(orderDate.atStartOfDay(),
+            orderDate.plusDays(1).atStartOfDay());
         for (UBSuser ubsUser : ubSusers) {
             SendMessage sendMessage = new SendMessage(
                 ubsUser.getUser().getTelegramBot().getChatId().toString(), "Вас є неоплачені замовлення");
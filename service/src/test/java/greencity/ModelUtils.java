@@ -5,6 +5,7 @@ import greencity.entity.coords.Coordinates;
 import greencity.entity.enums.CertificateStatus;
 import greencity.entity.order.Certificate;
 import greencity.entity.order.Order;
+import greencity.entity.order.UndeliveredOrder;
 import greencity.entity.user.ubs.Address;
 import greencity.entity.user.ubs.UBSuser;
 import java.time.LocalDate;
@@ -58,6 +59,7 @@ public class ModelUtils {
 
     public static Order getOrder() {
         return Order.builder()
+            .id(1L)
             .ubsUser(UBSuser.builder()
                 .firstName("oleh")
                 .lastName("ivanov")
@@ -86,6 +88,7 @@ public class ModelUtils {
 
     public static OrderDto getOrderDto() {
         return OrderDto.builder()
+            .id(1L)
             .firstName("oleh")
             .lastName("ivanov")
             .address("frankivskiy Levaya 4R")
@@ -159,24 +162,26 @@ public class ModelUtils {
         return set;
     }
 
-    public static List<Order> getOrdersToGroupThem() {
-        List<Order> orders = new ArrayList<>();
-        long id = 0L;
-        long userId = 10L;
+    public static List<UndeliveredOrder> getOrdersToGroupThem() {
+        List<UndeliveredOrder> orders = new ArrayList<>();
         for (Coordinates coordinates : getCoordinatesSet()) {
-            orders.add(Order.builder()
-                .id(++id)
-                .ubsUser(UBSuser.builder()
-                    .id(++userId)
-                    .userAddress(Address.builder()
-                        .coordinates(coordinates)
-                        .build())
-                    .build())
-                .build());
+            orders.add(getUndeliveredOrder(null, coordinates));
         }
         return orders;
     }
 
+    public static List<UndeliveredOrder> getUndeliveredOrdersWithBags() {
+        Coordinates first = Coordinates.builder().latitude(49.854).longitude(24.069).build();
+        Coordinates second = Coordinates.builder().latitude(49.856).longitude(24.049).build();
+        return List.of(getUndeliveredOrder(160, first), getUndeliveredOrder(20, second),
+            getUndeliveredOrder(70, first));
+    }
+
+    public static UndeliveredOrder getUndeliveredOrder(Integer totalLitres, Coordinates coordinates) {
+        return new UndeliveredOrder(null, totalLitres, null, null, null, null, null, coordinates.getLatitude(),
+            coordinates.getLongitude());
+    }
+
     public static List<GroupedOrderDto> getGroupedOrders() {
         List<GroupedOrderDto> list = new ArrayList<>();
         list.add(GroupedOrderDto.builder()
@@ -0,0 +1,22 @@
+package greencity.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails a test which executes more SQL statements on its thread than given,
+ * counted by {@link greencity.statistics.StatementCounter} bean of the Spring
+ * context of the test. Budget of a method overrides budget of its class.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+    /**
+     * Maximum amount of statements.
+     */
+    int value();
+}
@@ -0,0 +1,38 @@
+package greencity.annotations;
+
+import greencity.statistics.StatementCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts statements of every test in its own scope of {@link StatementCounter}
+ * bean installed into Hibernate of the test's Spring context and checks them
+ * against {@link StatementBudget}. Only the test method itself is counted, so
+ * data prepared before it does not use up the budget.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        getStatementCounter(context).begin();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        int statements = getStatementCounter(context).end(context.getDisplayName());
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), StatementBudget.class)
+            .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), StatementBudget.class))
+            .map(StatementBudget::value)
+            .orElseThrow();
+        assertTrue(statements <= budget, () -> context.getDisplayName() + " executed " + statements
+            + " SQL statements, budget is " + budget);
+    }
+
+    private static StatementCounter getStatementCounter(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(StatementCounter.class);
+    }
+}
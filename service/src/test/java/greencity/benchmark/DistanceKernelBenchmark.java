@@ -0,0 +1,124 @@
+package greencity.benchmark;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.clustering.DistanceKernel;
+import greencity.service.ubs.clustering.EarthDistance;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares distance computations used by clusterization: haversine over
+ * {@link Coordinates} objects against {@link DistanceKernel} with precomputed
+ * cosines and equirectangular threshold check, and sorting with distance
+ * comparator against sorting by precomputed primitive keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceKernelBenchmark {
+    private static final double RADIUS_KM = 1;
+
+    @Param({"1000", "10000", "100000"})
+    public int amount;
+
+    private List<Coordinates> coordinates;
+    private DistanceKernel kernel;
+    private Coordinates center;
+
+    /**
+     * Runs benchmarks from IDE or command line.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DistanceKernelBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * Generates coordinates.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(amount);
+        coordinates = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            coordinates.add(new Coordinates(50.35 + random.nextDouble() * 0.2, 30.35 + random.nextDouble() * 0.4));
+        }
+        kernel = new DistanceKernel(coordinates);
+        center = new Coordinates(50.45, 30.52);
+    }
+
+    /**
+     * Counts coordinates in radius with haversine per pair.
+     */
+    @Benchmark
+    public int radiusCheckHaversine() {
+        int within = 0;
+        for (Coordinates checked : coordinates) {
+            if (EarthDistance.between(center.getLatitude(), center.getLongitude(),
+                checked.getLatitude(), checked.getLongitude()) <= RADIUS_KM) {
+                within++;
+            }
+        }
+        return within;
+    }
+
+    /**
+     * Counts coordinates in radius with {@link DistanceKernel}.
+     */
+    @Benchmark
+    public int radiusCheckKernel() {
+        double cosLat = EarthDistance.cosLatitude(center.getLatitude());
+        int within = 0;
+        for (int i = 0; i < kernel.size(); i++) {
+            if (kernel.isWithin(i, center.getLatitude(), center.getLongitude(), cosLat, RADIUS_KM)) {
+                within++;
+            }
+        }
+        return within;
+    }
+
+    /**
+     * Sorts coordinates with comparator computing haversine per comparison.
+     */
+    @Benchmark
+    public List<Coordinates> sortComparator() {
+        List<Coordinates> sorted = new ArrayList<>(coordinates);
+        Collections.sort(sorted, (o1, o2) -> {
+            Double o1Int = EarthDistance.between(o1.getLatitude(), o1.getLongitude(),
+                center.getLatitude(), center.getLongitude()) * 1000;
+            Double o2Int = EarthDistance.between(o2.getLatitude(), o2.getLongitude(),
+                center.getLatitude(), center.getLongitude()) * 1000;
+            return o2Int.compareTo(o1Int);
+        });
+        return sorted;
+    }
+
+    /**
+     * Sorts coordinates by precomputed primitive keys.
+     */
+    @Benchmark
+    public List<Coordinates> sortPrimitiveKeys() {
+        return DistanceKernel.sortByDistanceFrom(coordinates, center, true);
+    }
+}
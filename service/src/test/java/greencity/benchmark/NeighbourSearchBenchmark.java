@@ -0,0 +1,145 @@
+package greencity.benchmark;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.service.ubs.clustering.CoordinatesGridIndex;
+import greencity.service.ubs.clustering.EarthDistance;
+import greencity.service.ubs.clustering.LitresByCoordinates;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares neighbour search used by clusterization: linear scan over all
+ * remaining coordinates against {@link CoordinatesGridIndex}. Every benchmark
+ * drains the whole city by taking the first remaining coordinate and removing
+ * all coordinates in radius around it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class NeighbourSearchBenchmark {
+    private static final double RADIUS_KM = 1;
+
+    /**
+     * Runs benchmarks from IDE or command line.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(NeighbourSearchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * Coordinates for grid index benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class GridState {
+        @Param({"1000", "10000", "50000", "200000"})
+        public int amount;
+        public Set<Coordinates> coordinates;
+        public LitresByCoordinates store;
+
+        /**
+         * Generates coordinates.
+         */
+        @Setup
+        public void setup() {
+            coordinates = randomCityCoordinates(amount);
+            List<CoordinatesCapacity> capacities = new ArrayList<>();
+            for (Coordinates temp : coordinates) {
+                capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 1L));
+            }
+            store = new LitresByCoordinates(capacities);
+        }
+    }
+
+    /**
+     * Coordinates for linear scan benchmark, big sizes are skipped as they take
+     * minutes per invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class LinearState {
+        @Param({"1000", "10000"})
+        public int amount;
+        public Set<Coordinates> coordinates;
+
+        /**
+         * Generates coordinates.
+         */
+        @Setup
+        public void setup() {
+            coordinates = randomCityCoordinates(amount);
+        }
+    }
+
+    /**
+     * Drains coordinates using {@link CoordinatesGridIndex}.
+     */
+    @Benchmark
+    public int gridIndex(GridState state) {
+        LitresByCoordinates store = state.store;
+        CoordinatesGridIndex index = new CoordinatesGridIndex(store, store.indexesOf(state.coordinates), RADIUS_KM);
+        int[] grouped = new int[index.size()];
+        int groups = 0;
+        while (!index.isEmpty()) {
+            int first = index.first();
+            int count = index.withinRadius(store.getLatitude(first), store.getLongitude(first), RADIUS_KM, grouped);
+            for (int i = 0; i < count; i++) {
+                index.remove(grouped[i]);
+            }
+            groups++;
+        }
+        return groups;
+    }
+
+    /**
+     * Drains coordinates scanning every remaining coordinate per search.
+     */
+    @Benchmark
+    public int linearScan(LinearState state) {
+        Set<Coordinates> allCoords = new HashSet<>(state.coordinates);
+        int groups = 0;
+        while (!allCoords.isEmpty()) {
+            Coordinates current = allCoords.iterator().next();
+            Set<Coordinates> closeRelatives = new HashSet<>();
+            for (Coordinates checked : allCoords) {
+                if (EarthDistance.between(current.getLatitude(), current.getLongitude(),
+                    checked.getLatitude(), checked.getLongitude()) <= RADIUS_KM) {
+                    closeRelatives.add(checked);
+                }
+            }
+            allCoords.removeAll(closeRelatives);
+            groups++;
+        }
+        return groups;
+    }
+
+    private static Set<Coordinates> randomCityCoordinates(int amount) {
+        Random random = new Random(amount);
+        Set<Coordinates> coordinates = new HashSet<>();
+        while (coordinates.size() < amount) {
+            coordinates.add(new Coordinates(50.35 + random.nextDouble() * 0.2, 30.35 + random.nextDouble() * 0.4));
+        }
+        return coordinates;
+    }
+}
@@ -0,0 +1,86 @@
+package greencity.benchmark;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.routing.Tour;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures sequencing of one cluster into route: nearest neighbour tour alone
+ * and the tour improved with 2-opt and Or-opt until local optimum, which shows
+ * how much of per-cluster time limit improvement really needs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RouteSequencingBenchmark {
+    private static final Coordinates DEPOT = new Coordinates(50.45, 30.52);
+
+    /**
+     * Runs benchmarks from IDE or command line.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RouteSequencingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * Stops of one cluster.
+     */
+    @State(Scope.Benchmark)
+    public static class ClusterState {
+        @Param({"10", "50", "100", "250", "500"})
+        public int stops;
+        public Set<Coordinates> coordinates;
+
+        /**
+         * Generates stops within a few kilometers, like those of one cluster.
+         */
+        @Setup
+        public void setup() {
+            Random random = new Random(stops);
+            coordinates = new HashSet<>();
+            while (coordinates.size() < stops) {
+                coordinates.add(new Coordinates(50.43 + random.nextDouble() * 0.04,
+                    30.49 + random.nextDouble() * 0.06));
+            }
+        }
+    }
+
+    /**
+     * Builds nearest neighbour tour.
+     */
+    @Benchmark
+    public double nearestNeighbour(ClusterState state) {
+        return Tour.nearestNeighbour(DEPOT, state.coordinates).getLength();
+    }
+
+    /**
+     * Builds nearest neighbour tour and improves it without time limit.
+     */
+    @Benchmark
+    public double improved(ClusterState state) {
+        Tour tour = Tour.nearestNeighbour(DEPOT, state.coordinates);
+        tour.improve(Long.MAX_VALUE);
+        return tour.getLength();
+    }
+}
@@ -0,0 +1,69 @@
+package greencity.entity.coords;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeohashTest {
+    @Test
+    void encodeKnownCoordinatesTest() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", Geohash.encode(42.6, -5.6, 5));
+    }
+
+    @Test
+    void encodeCoordinatesWithDefaultPrecisionTest() {
+        assertEquals(Geohash.encode(49.84, 24.03, Geohash.PRECISION), Geohash.encode(new Coordinates(49.84, 24.03)));
+        assertEquals(Geohash.PRECISION, Geohash.encode(new Coordinates(49.84, 24.03)).length());
+        assertNull(Geohash.encode(null));
+    }
+
+    @Test
+    void coveringPrefixesCoverEveryPointInsideBoxTest() {
+        List<String> prefixes = Geohash.coveringPrefixes(49.8, 23.9, 49.9, 24.1);
+
+        assertEquals(4, prefixes.size());
+        assertTrue(prefixes.get(0).length() > 0);
+        assertCovered(prefixes, 49.8, 23.9, 49.9, 24.1);
+    }
+
+    @Test
+    void coveringPrefixesOfBoxAcrossCellBorderAreNotEmptyTest() {
+        // the box crosses the border of the biggest cells at 0 degrees of longitude
+        List<String> prefixes = Geohash.coveringPrefixes(51.4, -0.1, 51.5, 0.1);
+
+        assertTrue(Set.copyOf(prefixes).size() > 1);
+        assertTrue(prefixes.get(0).length() >= 4);
+        assertCovered(prefixes, 51.4, -0.1, 51.5, 0.1);
+    }
+
+    @Test
+    void coveringPrefixesOfSmallBoxAreLongTest() {
+        List<String> prefixes = Geohash.coveringPrefixes(49.8400, 24.0300, 49.8401, 24.0301);
+
+        assertTrue(prefixes.get(0).length() >= 6);
+        assertCovered(prefixes, 49.8400, 24.0300, 49.8401, 24.0301);
+    }
+
+    @Test
+    void coveringPrefixesOfWholeEarthAreEmptyTest() {
+        assertEquals(List.of("", "", "", ""), Geohash.coveringPrefixes(-90, -180, 90, 180));
+    }
+
+    private static void assertCovered(List<String> prefixes, double minLatitude, double minLongitude,
+        double maxLatitude, double maxLongitude) {
+        double latitudeStep = (maxLatitude - minLatitude) / 20;
+        double longitudeStep = (maxLongitude - minLongitude) / 20;
+        for (int i = 0; i <= 20; i++) {
+            for (int j = 0; j <= 20; j++) {
+                String geohash = Geohash.encode(minLatitude + i * latitudeStep, minLongitude + j * longitudeStep,
+                    Geohash.PRECISION);
+                assertTrue(prefixes.stream().anyMatch(geohash::startsWith), geohash + " is not covered");
+            }
+        }
+    }
+}
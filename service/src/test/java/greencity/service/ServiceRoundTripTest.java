@@ -0,0 +1,224 @@
+package greencity.service;
+
+import greencity.annotations.StatementBudget;
+import greencity.config.ClusteringConfig;
+import greencity.client.RestClient;
+import greencity.dto.BagDto;
+import greencity.dto.CoordinatesDto;
+import greencity.dto.GroupedOrderDto;
+import greencity.dto.OrderResponseDto;
+import greencity.dto.PaymentRequestDto;
+import greencity.dto.PersonalDataDto;
+import greencity.entity.order.Order;
+import greencity.service.ubs.UBSClientServiceImpl;
+import greencity.service.ubs.UBSManagementServiceImpl;
+import greencity.service.ubs.UndeliveredOrdersCache;
+import greencity.statistics.StatementCounter;
+import greencity.ubstelegrambot.UBSBotService;
+import greencity.ubstelegrambot.UBSTelegramBot;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration.AccessLevel;
+import org.modelmapper.convention.MatchingStrategies;
+import org.opentest4j.TestAbortedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.starter.TelegramBotStarterConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs services against repositories working on embedded PostgreSQL migrated by
+ * Liquibase and checks how many statements they send to it. Every test sees
+ * three users with their own telegram bot, address and orders, so loading any
+ * of them one by one takes more statements than the budget.
+ */
+@Slf4j
+@SpringBootTest(classes = ServiceRoundTripTest.Configuration.class, webEnvironment = WebEnvironment.NONE, properties = {
+    "spring.liquibase.change-log=classpath:db/changelog/db.changelog-master.xml",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.open-in-view=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL9Dialect",
+    "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true"})
+@DirtiesContext
+@Transactional
+@Sql("/statement-budget-seed.sql")
+@StatementBudget(2)
+class ServiceRoundTripTest {
+    private static final int USERS = 3;
+
+    private static EmbeddedPostgres postgres;
+
+    @MockBean
+    UBSTelegramBot ubsTelegramBot;
+
+    @Autowired
+    UBSBotService ubsBotService;
+
+    @MockBean
+    RestClient restClient;
+
+    @Autowired
+    UBSManagementServiceImpl ubsManagementService;
+
+    @Autowired
+    UBSClientServiceImpl ubsClientService;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    /**
+     * Method starts PostgreSQL before the context is created. Tests are skipped
+     * when PostgreSQL cannot be started at all, as under root, which it refuses to
+     * run as.
+     */
+    @BeforeAll
+    static void startDatabase() {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException | RuntimeException e) {
+            String message = "Embedded PostgreSQL cannot be started by user " + System.getProperty("user.name")
+                + ", statements of services are not counted against it: " + e.getMessage();
+            log.warn(message);
+            throw new TestAbortedException(message, e);
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    @StatementBudget(1)
+    void sendMessageWhenOrderNonPaymentLoadsTelegramBotsWithUsersTest() throws Exception {
+        ubsBotService.sendMessageWhenOrderNonPayment();
+
+        verify(ubsTelegramBot, times(USERS)).execute(any(SendMessage.class));
+    }
+
+    @Test
+    @StatementBudget(1)
+    void sendMessageWhenGarbageTruckArrivesLoadsTelegramBotsWithOrdersTest() throws Exception {
+        ubsBotService.sendMessageWhenGarbageTruckArrives();
+
+        verify(ubsTelegramBot, times(USERS)).execute(any(SendMessage.class));
+    }
+
+    @Test
+    void getAllUndeliveredOrdersWithLitersLoadsLitresAndOrdersAtOnceTest() {
+        List<GroupedOrderDto> groupedOrders = ubsManagementService.getAllUndeliveredOrdersWithLiters();
+
+        assertEquals(USERS, groupedOrders.size());
+        assertEquals(240, groupedOrders.stream().mapToInt(GroupedOrderDto::getAmountOfLitres).sum());
+    }
+
+    @Test
+    void getClusteredCoordsLoadsLitresOfAllCoordinatesAtOnceTest() {
+        List<GroupedOrderDto> groupedOrders = ubsManagementService.getClusteredCoords(1, 240);
+
+        assertEquals(240, groupedOrders.stream().mapToInt(GroupedOrderDto::getAmountOfLitres).sum());
+        assertEquals(USERS, groupedOrders.stream().mapToInt(group -> group.getGroupOfOrders().size()).sum());
+    }
+
+    @Test
+    void getClusteredCoordsAlongWithSpecifiedLoadsLitresOfNeighbourhoodAtOnceTest() {
+        Set<CoordinatesDto> specified = Set.of(new CoordinatesDto(49.801, 24.001));
+
+        List<GroupedOrderDto> groupedOrders = ubsManagementService.getClusteredCoordsAlongWithSpecified(specified,
+            200, 1);
+
+        assertEquals(1, groupedOrders.size());
+        assertEquals(120, groupedOrders.get(0).getAmountOfLitres());
+        assertEquals(2, groupedOrders.get(0).getGroupOfOrders().size());
+    }
+
+    // user and its telegram bot 3, bags 1, user data 2, identifiers 4, inserts 5
+    @Test
+    @StatementBudget(15)
+    void saveFullOrderToDBInsertsOrderWithUserDataAndPaymentTest() {
+        OrderResponseDto dto = OrderResponseDto.builder()
+            .bags(List.of(new BagDto(1, 2), new BagDto(2, 3)))
+            .pointsToUse(0)
+            .personalData(PersonalDataDto.builder()
+                .firstName("Name")
+                .lastName("Surname")
+                .email("user1@mail.com")
+                .phoneNumber("671234567")
+                .city("Lviv")
+                .district("Frankivskyi")
+                .street("Stryiska")
+                .houseNumber("4")
+                .entranceNumber("1")
+                .latitude(49.804)
+                .longitude(24.004)
+                .build())
+            .build();
+
+        PaymentRequestDto paymentRequest = ubsClientService.saveFullOrderToDB(dto, "c4ca4238a0b923820dcc509a6f75849b");
+        entityManager.flush();
+
+        Order order = entityManager.find(Order.class, Long.valueOf(paymentRequest.getOrderId()));
+        assertEquals(300, order.getTotalLitres());
+        assertEquals(65000, paymentRequest.getAmount());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = TelegramBotStarterConfiguration.class)
+    @EntityScan("greencity.entity")
+    @EnableJpaRepositories("greencity.repository")
+    @ComponentScan({"greencity.mapping", "greencity.service.ubs.clustering", "greencity.service.ubs.routing"})
+    @Import({StatementCounter.class, ClusteringConfig.class, UndeliveredOrdersCache.class,
+        UBSManagementServiceImpl.class, UBSClientServiceImpl.class, UBSBotService.class})
+    static class Configuration {
+        @Bean
+        DataSource dataSource() {
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        ModelMapper modelMapper(List<Converter<?, ?>> converters) {
+            ModelMapper modelMapper = new ModelMapper();
+            modelMapper
+                .getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setSkipNullEnabled(true)
+                .setFieldAccessLevel(AccessLevel.PRIVATE);
+            converters.forEach(modelMapper::addConverter);
+            return modelMapper;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package greencity.service;
+
+import greencity.dto.StatementStatsDto;
+import greencity.statistics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class StatementCountingServiceImplTest {
+    @Spy
+    StatementCounter statementCounter = new StatementCounter();
+
+    @InjectMocks
+    StatementCountingServiceImpl statementCountingService;
+
+    @Test
+    void endReturnsStatementsOfScopeTest() {
+        statementCountingService.begin();
+        statementCounter.inspect("select 1");
+        statementCounter.inspect("select 2");
+
+        assertEquals(2, statementCountingService.end("GET /ubs/management/group-undelivered"));
+        assertEquals(0, statementCountingService.end("GET /ubs/management/group-undelivered"));
+    }
+
+    @Test
+    void getStatementStatsTest() {
+        statementCounter.count("sendMessageWhenOrderNonPayment", () -> statementCounter.inspect("select 1"));
+        statementCounter.count("GET /ubs/management/group-undelivered", () -> {
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+            statementCounter.inspect("select 3");
+        });
+        statementCounter.count("GET /ubs/management/group-undelivered", () -> statementCounter.inspect("select 1"));
+
+        assertEquals(List.of(
+            new StatementStatsDto("GET /ubs/management/group-undelivered", 2L, 4L, 2.0, 3),
+            new StatementStatsDto("sendMessageWhenOrderNonPayment", 1L, 1L, 1.0, 1)),
+            statementCountingService.getStatementStats());
+    }
+
+    @Test
+    void endRecordsStatementsOfScopeIntoMeterRegistryTest() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        statementCounter.setMeterRegistry(meterRegistry);
+
+        statementCounter.count("scheduleBagCapacityCheck", () -> statementCounter.inspect("select 1"));
+        statementCounter.count("scheduleBagCapacityCheck", () -> {
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+        });
+
+        DistributionSummary summary = meterRegistry.get(StatementCounter.METRIC)
+            .tag("scope", "scheduleBagCapacityCheck")
+            .summary();
+        assertEquals(2L, summary.count());
+        assertEquals(3.0, summary.totalAmount());
+        assertEquals(2.0, summary.max());
+    }
+}
@@ -2,6 +2,7 @@ package greencity.service;
 
 import greencity.ModelUtils;
 import greencity.client.RestClient;
+import greencity.dto.BagDto;
 import greencity.dto.OrderResponseDto;
 import greencity.dto.PersonalDataDto;
 import greencity.dto.UbsTableCreationDto;
@@ -12,9 +13,11 @@ import greencity.entity.order.Certificate;
 import greencity.entity.order.Order;
 import greencity.entity.user.User;
 import greencity.entity.user.ubs.UBSuser;
+import greencity.exceptions.BagNotFoundException;
 import greencity.exceptions.CertificateNotFoundException;
 import greencity.repository.BagRepository;
 import greencity.repository.CertificateRepository;
+import greencity.repository.OrderRepository;
 import greencity.repository.UBSuserRepository;
 import greencity.repository.UserRepository;
 import greencity.service.ubs.UBSClientServiceImpl;
@@ -26,6 +29,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.*;
@@ -45,6 +49,8 @@ class UBSClientServiceImplTest {
     @Mock
     private CertificateRepository certificateRepository;
     @Mock
+    private OrderRepository orderRepository;
+    @Mock
     private RestClient restClient;
     @InjectMocks
     UBSClientServiceImpl ubsService;
@@ -77,6 +83,45 @@ class UBSClientServiceImplTest {
         assertEquals(expected, ubsService.getSecondPageData("35467585763t4sfgchjfuyetf").get(0));
     }
 
+    @Test
+    void saveFullOrderToDBCountsTotalLitresTest() {
+        User user = User.builder().currentPoints(0).orders(new ArrayList<>()).ubsUsers(new HashSet<>()).build();
+        OrderResponseDto dto = ModelUtils.getOrderResponceDto();
+        dto.setBags(List.of(new BagDto(1, 2), new BagDto(2, 3)));
+        dto.setPointsToUse(0);
+        dto.getPersonalData().setId(null);
+        when(userRepository.findByUuid("35467585763t4sfgchjfuyetf")).thenReturn(user);
+        when(bagRepository.findAllById(Set.of(1, 2)))
+            .thenReturn(List.of(new Bag(120, 1, "Mixed", 250), new Bag(20, 2, "Textile", 100)));
+        when(modelMapper.map(dto, Order.class)).thenReturn(new Order());
+        when(modelMapper.map(dto.getPersonalData(), UBSuser.class)).thenReturn(new UBSuser());
+        when(orderRepository.save(any(Order.class))).then(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+
+        ubsService.saveFullOrderToDB(dto, "35467585763t4sfgchjfuyetf");
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        assertEquals(Integer.valueOf(300), saved.getValue().getTotalLitres());
+        assertEquals(Map.of(1, 2, 2, 3), saved.getValue().getAmountOfBagsOrdered());
+    }
+
+    @Test
+    void saveFullOrderToDBThrowsBagNotFoundExceptionTest() {
+        User user = User.builder().currentPoints(0).orders(new ArrayList<>()).ubsUsers(new HashSet<>()).build();
+        OrderResponseDto dto = ModelUtils.getOrderResponceDto();
+        dto.setBags(List.of(new BagDto(1, 2), new BagDto(2, 3)));
+        dto.setPointsToUse(0);
+        when(userRepository.findByUuid("35467585763t4sfgchjfuyetf")).thenReturn(user);
+        when(bagRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(new Bag(120, 1, "Mixed", 250)));
+
+        Assertions.assertThrows(BagNotFoundException.class,
+            () -> ubsService.saveFullOrderToDB(dto, "35467585763t4sfgchjfuyetf"));
+    }
+
     @Test
     void checkCertificate() {
         when(certificateRepository.findById("certificate")).thenReturn(Optional.of(Certificate.builder()
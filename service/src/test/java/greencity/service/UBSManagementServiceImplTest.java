@@ -3,25 +3,51 @@ package greencity.service;
 import greencity.ModelUtils;
 import greencity.dto.*;
 import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.entity.coords.Geohash;
 import greencity.entity.order.Certificate;
-import greencity.entity.order.Order;
-import greencity.repository.AddressRepository;
+import greencity.entity.order.UndeliveredOrder;
+import greencity.exceptions.ActiveOrdersNotFoundException;
+import greencity.exceptions.IncorrectValueException;
 import greencity.repository.CertificateRepository;
 import greencity.repository.OrderRepository;
+import greencity.repository.PendingLitresRepository;
+import greencity.service.ubs.ClusteringMonitor;
 import greencity.service.ubs.UBSManagementServiceImpl;
+import greencity.service.ubs.UndeliveredOrdersCache;
+import greencity.service.ubs.clustering.CapacitatedKMeansClusterer;
+import greencity.service.ubs.clustering.CapacityTrimmer;
+import greencity.service.ubs.clustering.ClusteringStrategies;
+import greencity.service.ubs.clustering.DbscanClusterer;
+import greencity.service.ubs.clustering.EarthDistance;
+import greencity.service.ubs.clustering.IncrementalClusterModel;
+import greencity.service.ubs.clustering.MeanShiftClusterer;
+import greencity.service.ubs.clustering.TiledClusteringEngine;
+import greencity.service.ubs.routing.RouteSequencer;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
@@ -33,7 +59,7 @@ import org.springframework.data.domain.Pageable;
 @ExtendWith(MockitoExtension.class)
 public class UBSManagementServiceImplTest {
     @Mock
-    AddressRepository addressRepository;
+    PendingLitresRepository pendingLitresRepository;
     double distance = 2;
     int litres = 1000;
 
@@ -46,26 +72,34 @@ public class UBSManagementServiceImplTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Spy
+    ClusteringStrategies clusteringStrategies =
+        new ClusteringStrategies(List.of(new MeanShiftClusterer(new CapacityTrimmer(20)),
+            new DbscanClusterer(), new CapacitatedKMeansClusterer()));
+
+    @Spy
+    TiledClusteringEngine tiledClusteringEngine = new TiledClusteringEngine(ForkJoinPool.commonPool());
+
+    @Spy
+    IncrementalClusterModel incrementalClusterModel =
+        new IncrementalClusterModel(clusteringStrategies, tiledClusteringEngine, 600);
+
+    @Spy
+    UndeliveredOrdersCache undeliveredOrdersCache = new UndeliveredOrdersCache(64, 60);
+
+    @Spy
+    RouteSequencer routeSequencer = new RouteSequencer(ForkJoinPool.commonPool(), 49.84, 24.02, 1000);
+
     @InjectMocks
     UBSManagementServiceImpl ubsManagementService;
 
     private void getMocksBehavior() {
 
-        when(addressRepository.capacity(anyDouble(), anyDouble())).thenReturn(25);
-
-        for (Coordinates coordinate : ModelUtils.getCoordinatesSet()) {
-            List<Order> orders = ModelUtils.getOrdersToGroupThem().stream()
-                .filter(e -> e.getUbsUser().getUserAddress().getCoordinates().equals(coordinate)).collect(
-                    Collectors.toList());
-            when(orderRepository.undeliveredOrdersGroupThem(coordinate.getLatitude(), coordinate.getLongitude()))
-                .thenReturn(orders);
-            for (Order order : orders) {
-                when(modelMapper.map(order, OrderDto.class)).thenReturn(OrderDto.builder()
-                    .latitude(order.getUbsUser().getUserAddress().getCoordinates().getLatitude())
-                    .longitude(order.getUbsUser().getUserAddress().getCoordinates().getLongitude())
-                    .build());
-            }
-        }
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(ModelUtils.getCoordinatesSet().stream()
+            .map(c -> new CoordinatesCapacity(c.getLatitude(), c.getLongitude(), 25L))
+            .collect(Collectors.toList()));
+
+        when(orderRepository.findUndeliveredOrders()).thenReturn(ModelUtils.getOrdersToGroupThem());
     }
 
     private static Stream<Arguments> provideDistanceAndLitres() {
@@ -83,8 +117,6 @@ public class UBSManagementServiceImplTest {
 
     @Test
     void getClusteredCoordsTest() {
-        when(addressRepository.undeliveredOrdersCoordsWithCapacityLimit(litres))
-            .thenReturn(ModelUtils.getCoordinatesSet());
         getMocksBehavior();
         List<GroupedOrderDto> expected = ModelUtils.getGroupedOrders();
         List<GroupedOrderDto> actual = ubsManagementService.getClusteredCoords(distance, litres);
@@ -94,7 +126,6 @@ public class UBSManagementServiceImplTest {
 
     @Test
     void getClusteredCoordsWithBiggerClusterLitresTest() {
-        when(addressRepository.undeliveredOrdersCoordsWithCapacityLimit(60)).thenReturn(ModelUtils.getCoordinatesSet());
         getMocksBehavior();
         List<GroupedOrderDto> expected = ModelUtils.getGroupedOrdersFor60LitresLimit();
         List<GroupedOrderDto> actual = ubsManagementService.getClusteredCoords(distance, 60);
@@ -102,6 +133,423 @@ public class UBSManagementServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void getClusteredCoordsParallelTest() {
+        getMocksBehavior();
+        List<GroupedOrderDto> expected = ModelUtils.getGroupedOrders();
+        List<GroupedOrderDto> actual =
+            ubsManagementService.getClusteredCoords(distance, litres, MeanShiftClusterer.NAME, true);
+
+        // tiles are clustered independently, so only the order of clusters may differ
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        assertEquals(expected.size(), actual.size());
+        verify(tiledClusteringEngine).cluster(any(MeanShiftClusterer.class), anyCollection(), any(), anyDouble(),
+            anyInt(), any());
+    }
+
+    @Test
+    void getClusteredCoordsServesSnapshotTest() {
+        getMocksBehavior();
+        List<GroupedOrderDto> first = ubsManagementService.getClusteredCoords(distance, litres);
+        List<GroupedOrderDto> second = ubsManagementService.getClusteredCoords(distance, litres);
+
+        assertEquals(first, second);
+        verify(pendingLitresRepository, times(1)).findAllCapacities();
+    }
+
+    @Test
+    void getClusteredCoordsDoesNotRememberClustersOfChangedLitresTest() {
+        getMocksBehavior();
+        List<CoordinatesCapacity> loadedLitres = pendingLitresRepository.findAllCapacities();
+        when(pendingLitresRepository.findAllCapacities()).thenAnswer(invocation -> {
+            // order paid while litres are loaded, its update finds no snapshot yet
+            incrementalClusterModel.update(new Coordinates(49.85, 24.05), 20);
+            return loadedLitres;
+        });
+
+        List<GroupedOrderDto> actual = ubsManagementService.getClusteredCoords(distance, litres);
+
+        assertEquals(ModelUtils.getGroupedOrders(), actual);
+        assertTrue(incrementalClusterModel.getClusters(MeanShiftClusterer.NAME, distance, litres, false).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DbscanClusterer.NAME, CapacitatedKMeansClusterer.NAME})
+    void getClusteredCoordsWithOtherStrategiesTest(String strategy) {
+        getMocksBehavior();
+        List<GroupedOrderDto> actual = ubsManagementService.getClusteredCoords(distance, 60, strategy, false);
+
+        int amountOfOrders = 0;
+        for (GroupedOrderDto cluster : actual) {
+            assertTrue(cluster.getAmountOfLitres() <= 60);
+            amountOfOrders += cluster.getGroupOfOrders().size();
+        }
+        assertEquals(ModelUtils.getOrdersToGroupThem().size(), amountOfOrders);
+    }
+
+    @Test
+    void getClusteredCoordsUnknownStrategyTest() {
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.getClusteredCoords(distance, litres, "unknown", false));
+    }
+
+    @Test
+    void getAllUndeliveredOrdersWithLitersTest() {
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(List.of(
+            new CoordinatesCapacity(49.854, 24.069, 230L),
+            new CoordinatesCapacity(49.856, 24.049, 20L)));
+        when(orderRepository.findUndeliveredOrders()).thenReturn(ModelUtils.getUndeliveredOrdersWithBags());
+        List<GroupedOrderDto> expected = List.of(
+            GroupedOrderDto.builder()
+                .amountOfLitres(230)
+                .groupOfOrders(List.of(
+                    OrderDto.builder().latitude(49.854).longitude(24.069).build(),
+                    OrderDto.builder().latitude(49.854).longitude(24.069).build()))
+                .build(),
+            GroupedOrderDto.builder()
+                .amountOfLitres(20)
+                .groupOfOrders(List.of(OrderDto.builder().latitude(49.856).longitude(24.049).build()))
+                .build());
+
+        assertEquals(expected, ubsManagementService.getAllUndeliveredOrdersWithLiters());
+    }
+
+    @Test
+    void getAllUndeliveredOrdersWithLitersCopiesProjectedColumnsTest() {
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(List.of(
+            new CoordinatesCapacity(49.82, 24.02, 120L)));
+        when(orderRepository.findUndeliveredOrders()).thenReturn(List.of(new UndeliveredOrder(7L, 120, "Anna",
+            "Koval", "671234567", "Frankivskyi Stryiska 12", "second entrance", 49.82, 24.02)));
+        OrderDto expected = OrderDto.builder()
+            .id(7L)
+            .firstName("Anna")
+            .lastName("Koval")
+            .address("Frankivskyi Stryiska 12")
+            .addressComment("second entrance")
+            .phoneNumber("671234567")
+            .latitude(49.82)
+            .longitude(24.02)
+            .build();
+
+        assertEquals(List.of(new GroupedOrderDto(120, List.of(expected))),
+            ubsManagementService.getAllUndeliveredOrdersWithLiters());
+    }
+
+    @Test
+    void getAllUndeliveredOrdersWithLitersTakesLitresKeptByCoordinatesTest() {
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(List.of(
+            new CoordinatesCapacity(49.854, 24.069, 200L)));
+        when(orderRepository.findUndeliveredOrders()).thenReturn(ModelUtils.getUndeliveredOrdersWithBags());
+
+        List<GroupedOrderDto> groupedOrders = ubsManagementService.getAllUndeliveredOrdersWithLiters();
+
+        assertEquals(List.of(200, 0),
+            groupedOrders.stream().map(GroupedOrderDto::getAmountOfLitres).collect(Collectors.toList()));
+        verify(pendingLitresRepository).findAllCapacities();
+    }
+
+    @Test
+    void getClusteredCoordsServesCachedResultTest() {
+        getMocksBehavior();
+        List<GroupedOrderDto> first = ubsManagementService.getClusteredCoords(distance, litres);
+        List<GroupedOrderDto> second = ubsManagementService.getClusteredCoords(distance, litres);
+
+        assertSame(first, second);
+        verify(orderRepository, times(1)).findUndeliveredOrders();
+    }
+
+    @Test
+    void getClusteredCoordsRecomputesAfterInvalidationTest() {
+        getMocksBehavior();
+        List<GroupedOrderDto> first = ubsManagementService.getClusteredCoords(distance, litres);
+        undeliveredOrdersCache.invalidate();
+        List<GroupedOrderDto> second = ubsManagementService.getClusteredCoords(distance, litres);
+
+        assertEquals(first, second);
+        verify(orderRepository, times(2)).findUndeliveredOrders();
+    }
+
+    @Test
+    void getClusteredCoordsStopsWhenMonitorIsCancelledTest() {
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(ModelUtils.getCoordinatesSet().stream()
+            .map(c -> new CoordinatesCapacity(c.getLatitude(), c.getLongitude(), 25L))
+            .collect(Collectors.toList()));
+        ClusteringMonitor monitor = spy(new ClusteringMonitor() {
+            @Override
+            public void started(int coordinates) {
+                // progress is verified through the spy
+            }
+
+            @Override
+            public void coordinatesClustered(int amount) {
+                // progress is verified through the spy
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+
+        assertThrows(CancellationException.class,
+            () -> ubsManagementService.getClusteredCoords(distance, litres, MeanShiftClusterer.NAME, false, monitor));
+        verify(monitor).started(ModelUtils.getCoordinatesSet().size());
+        verify(orderRepository, never()).findUndeliveredOrders();
+        assertEquals(0L, undeliveredOrdersCache.getStats().getSize());
+    }
+
+    @Test
+    void getCacheStatsTest() {
+        assertEquals(undeliveredOrdersCache.getStats(), ubsManagementService.getCacheStats());
+    }
+
+    @Test
+    void streamAllUndeliveredOrdersWithLitersTest() {
+        List<UndeliveredOrder> orders = ModelUtils.getUndeliveredOrdersWithBags();
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(List.of(
+            new CoordinatesCapacity(49.854, 24.069, 230L),
+            new CoordinatesCapacity(49.856, 24.049, 20L)));
+        when(orderRepository.streamUndeliveredOrders())
+            .thenReturn(Stream.of(orders.get(0), orders.get(2), orders.get(1)));
+        List<GroupedOrderDto> expected = List.of(
+            GroupedOrderDto.builder()
+                .amountOfLitres(230)
+                .groupOfOrders(List.of(
+                    OrderDto.builder().latitude(49.854).longitude(24.069).build(),
+                    OrderDto.builder().latitude(49.854).longitude(24.069).build()))
+                .build(),
+            GroupedOrderDto.builder()
+                .amountOfLitres(20)
+                .groupOfOrders(List.of(OrderDto.builder().latitude(49.856).longitude(24.049).build()))
+                .build());
+
+        List<GroupedOrderDto> actual = new ArrayList<>();
+        ubsManagementService.streamAllUndeliveredOrdersWithLiters(actual::add);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void streamClusteredCoordsTest() {
+        when(pendingLitresRepository.findAllCapacities()).thenReturn(ModelUtils.getCoordinatesSet().stream()
+            .map(c -> new CoordinatesCapacity(c.getLatitude(), c.getLongitude(), 25L))
+            .collect(Collectors.toList()));
+        when(orderRepository.findUndeliveredOrdersByCoordinates(anyCollection()))
+            .thenReturn(ModelUtils.getOrdersToGroupThem());
+
+        List<GroupedOrderDto> actual = new ArrayList<>();
+        ubsManagementService.streamClusteredCoords(distance, litres, MeanShiftClusterer.NAME, false, actual::add);
+
+        assertEquals(ModelUtils.getGroupedOrders(), actual);
+        verify(orderRepository).findUndeliveredOrdersByCoordinates(ModelUtils.getCoordinatesSet());
+        verify(orderRepository, never()).findUndeliveredOrders();
+    }
+
+    @Test
+    void checkClusteringParametersRejectsUnknownStrategyTest() {
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.checkClusteringParameters(distance, litres, "unknown"));
+    }
+
+    @Test
+    void streamClusteredCoordsValidatesParametersTest() {
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.streamClusteredCoords(25, litres, MeanShiftClusterer.NAME, false, c -> {
+            }));
+    }
+
+    @Test
+    void getClusteredRoutesTest() {
+        OrderDto first = OrderDto.builder().firstName("first").latitude(49.86).longitude(24.02).build();
+        OrderDto second = OrderDto.builder().firstName("second").latitude(49.85).longitude(24.02).build();
+        OrderDto sameStop = OrderDto.builder().firstName("same").latitude(49.86).longitude(24.02).build();
+        doReturn(List.of(GroupedOrderDto.builder().amountOfLitres(300)
+            .groupOfOrders(List.of(first, second, sameStop)).build()))
+                .when(undeliveredOrdersCache).getClusteredCoords(eq(distance), eq(litres), eq("mean-shift"),
+                    eq(false), any());
+
+        List<RouteDto> routes = ubsManagementService.getClusteredRoutes(distance, litres, "mean-shift", false);
+
+        assertEquals(1, routes.size());
+        RouteDto route = routes.get(0);
+        assertEquals(Integer.valueOf(300), route.getAmountOfLitres());
+        assertEquals(2, route.getStops().size());
+        assertEquals(List.of(second), route.getStops().get(0).getOrders());
+        assertEquals(List.of(first, sameStop), route.getStops().get(1).getOrders());
+        assertEquals(1.11, route.getStops().get(0).getLegDistance(), 0.01);
+        assertEquals(1.11, route.getStops().get(1).getLegDistance(), 0.01);
+        assertEquals(2.22, route.getReturnDistance(), 0.01);
+        assertEquals(4.45, route.getLength(), 0.01);
+    }
+
+    @Test
+    void getClusteredCoordsAlongWithSpecifiedTakesClosestCoordinatesFirstTest() {
+        Coordinates specified = new Coordinates(49.84, 24.02);
+        List<Coordinates> nearby = List.of(new Coordinates(49.841, 24.02), new Coordinates(49.842, 24.02),
+            new Coordinates(49.843, 24.02), new Coordinates(49.9, 24.1));
+        List<Long> nearbyLitres = List.of(50L, 80L, 30L, 10L);
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        capacities.add(new CoordinatesCapacity(specified.getLatitude(), specified.getLongitude(), 100L));
+        for (int i = 0; i < nearby.size(); i++) {
+            capacities.add(new CoordinatesCapacity(nearby.get(i).getLatitude(), nearby.get(i).getLongitude(),
+                nearbyLitres.get(i)));
+        }
+        List<UndeliveredOrder> orders = new ArrayList<>();
+        orders.add(ModelUtils.getUndeliveredOrder(null, specified));
+        for (Coordinates coordinates : nearby) {
+            orders.add(ModelUtils.getUndeliveredOrder(null, coordinates));
+        }
+        stubNeighbourhood(capacities, orders);
+        CoordinatesDto specifiedDto = new CoordinatesDto(specified.getLatitude(), specified.getLongitude());
+        when(modelMapper.map(specifiedDto, Coordinates.class)).thenReturn(specified);
+
+        List<GroupedOrderDto> actual =
+            ubsManagementService.getClusteredCoordsAlongWithSpecified(Set.of(specifiedDto), 200, 1);
+
+        assertEquals(1, actual.size());
+        assertEquals(Integer.valueOf(180), actual.get(0).getAmountOfLitres());
+        assertEquals(Set.of(49.84, 49.841, 49.843), actual.get(0).getGroupOfOrders().stream()
+            .map(OrderDto::getLatitude).collect(Collectors.toSet()));
+        verify(pendingLitresRepository, never()).findAllCapacities();
+        verify(orderRepository, never()).findUndeliveredOrders();
+    }
+
+    @Test
+    void getClusteredCoordsAlongWithSpecifiedLoadsOnlyNeighbourhoodTest() {
+        Coordinates first = new Coordinates(49.84, 24.02);
+        Coordinates second = new Coordinates(49.85, 24.03);
+        CoordinatesDto firstDto = new CoordinatesDto(first.getLatitude(), first.getLongitude());
+        CoordinatesDto secondDto = new CoordinatesDto(second.getLatitude(), second.getLongitude());
+        when(modelMapper.map(firstDto, Coordinates.class)).thenReturn(first);
+        when(modelMapper.map(secondDto, Coordinates.class)).thenReturn(second);
+        stubNeighbourhood(List.of(new CoordinatesCapacity(49.84, 24.02, 100L),
+            new CoordinatesCapacity(49.85, 24.03, 50L), new CoordinatesCapacity(49.9, 24.2, 10L)),
+            List.of(ModelUtils.getUndeliveredOrder(null, first), ModelUtils.getUndeliveredOrder(null, second)));
+
+        List<GroupedOrderDto> actual =
+            ubsManagementService.getClusteredCoordsAlongWithSpecified(Set.of(firstDto, secondDto), 3000, 2);
+
+        assertEquals(Integer.valueOf(150), actual.get(0).getAmountOfLitres());
+        ArgumentCaptor<Double> bounds = ArgumentCaptor.forClass(Double.class);
+        verify(pendingLitresRepository).findAllCapacitiesWithin(bounds.capture(), bounds.capture(),
+            bounds.capture(), bounds.capture());
+        // centre is 49.845, 24.025, radius is about 0.66 km of the farthest coordinates
+        // plus 2 km
+        assertEquals(49.845 - 2.66 / EarthDistance.KM_PER_DEGREE, bounds.getAllValues().get(0), 0.001);
+        assertEquals(49.845 + 2.66 / EarthDistance.KM_PER_DEGREE, bounds.getAllValues().get(1), 0.001);
+        assertTrue(bounds.getAllValues().get(2) > 23.98 && bounds.getAllValues().get(3) < 24.07);
+        verify(pendingLitresRepository, never()).findAllCapacities();
+    }
+
+    @Test
+    void getClusteredCoordsAlongWithSpecifiedThrowsForUnknownCoordinatesTest() {
+        stubNeighbourhood(List.of(new CoordinatesCapacity(49.84, 24.02, 100L)), List.of());
+        CoordinatesDto unknown = new CoordinatesDto(50.0, 30.0);
+        when(modelMapper.map(unknown, Coordinates.class)).thenReturn(new Coordinates(50.0, 30.0));
+
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.getClusteredCoordsAlongWithSpecified(Set.of(unknown), 200, 1));
+    }
+
+    /**
+     * Stubs repositories to return given capacities and orders inside the requested
+     * bounding box, as the database does.
+     */
+    private void stubNeighbourhood(List<CoordinatesCapacity> capacities, List<UndeliveredOrder> orders) {
+        lenient().when(pendingLitresRepository.findAllCapacitiesWithin(anyDouble(), anyDouble(), anyDouble(),
+            anyDouble())).thenAnswer(
+                invocation -> capacities.stream()
+                    .filter(c -> isInside(c.getLatitude(), c.getLongitude(), invocation.getArguments(), 0))
+                    .collect(Collectors.toList()));
+        lenient().when(orderRepository.findUndeliveredOrdersWithin(any(), anyDouble(), anyDouble(), anyDouble(),
+            anyDouble())).thenAnswer(
+                invocation -> orders.stream()
+                    .filter(o -> isInside(o.getLatitude(), o.getLongitude(), invocation.getArguments(), 1))
+                    .collect(Collectors.toList()));
+    }
+
+    private static boolean isInside(double latitude, double longitude, Object[] bounds, int from) {
+        return latitude >= (Double) bounds[from] && latitude <= (Double) bounds[from + 1]
+            && longitude >= (Double) bounds[from + 2] && longitude <= (Double) bounds[from + 3];
+    }
+
+    @Test
+    void getAllUndeliveredOrdersWithLitersThrowsWhenNoOrdersTest() {
+        when(orderRepository.findUndeliveredOrders()).thenReturn(Collections.emptyList());
+
+        assertThrows(ActiveOrdersNotFoundException.class,
+            () -> ubsManagementService.getAllUndeliveredOrdersWithLiters());
+    }
+
+    @Test
+    void getUndeliveredOrdersWithLitersWithinTest() {
+        BoundingBoxDto area = new BoundingBoxDto(49.8, 49.9, 24.0, 24.1);
+        List<String> prefixes = Geohash.coveringPrefixes(49.8, 24.0, 49.9, 24.1);
+        when(pendingLitresRepository.findAllCapacitiesWithin(49.8, 49.9, 24.0, 24.1)).thenReturn(List.of(
+            new CoordinatesCapacity(49.812, 24.035, 40L), new CoordinatesCapacity(49.854, 24.069, 25L)));
+        List<UndeliveredOrder> orders = ModelUtils.getOrdersToGroupThem().stream()
+            .filter(order -> Set.of(49.812, 49.854).contains(order.getLatitude()))
+            .collect(Collectors.toList());
+        when(orderRepository.findUndeliveredOrdersWithin(prefixes, 49.8, 49.9, 24.0, 24.1))
+            .thenReturn(orders);
+
+        List<GroupedOrderDto> actual = ubsManagementService.getUndeliveredOrdersWithLitersWithin(area);
+
+        assertEquals(List.of(
+            new GroupedOrderDto(40, List.of(OrderDto.builder().latitude(49.812).longitude(24.035).build())),
+            new GroupedOrderDto(25, List.of(OrderDto.builder().latitude(49.854).longitude(24.069).build()))),
+            actual);
+        verify(pendingLitresRepository, never()).findAllCapacities();
+        verify(orderRepository, never()).findUndeliveredOrders();
+    }
+
+    @Test
+    void getUndeliveredOrdersWithLitersWithinEmptyAreaTest() {
+        BoundingBoxDto area = new BoundingBoxDto(50.0, 50.1, 30.0, 30.1);
+        when(pendingLitresRepository.findAllCapacitiesWithin(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+            .thenReturn(Collections.emptyList());
+
+        assertEquals(Collections.emptyList(), ubsManagementService.getUndeliveredOrdersWithLitersWithin(area));
+    }
+
+    @Test
+    void getClusteredCoordsWithinTest() {
+        BoundingBoxDto area = new BoundingBoxDto(49.8, 49.9, 24.0, 24.1);
+        List<String> prefixes = Geohash.coveringPrefixes(49.8, 24.0, 49.9, 24.1);
+        when(pendingLitresRepository.findAllCapacitiesWithin(49.8, 49.9, 24.0, 24.1)).thenReturn(List.of(
+            new CoordinatesCapacity(49.812, 24.035, 40L), new CoordinatesCapacity(49.854, 24.069, 25L)));
+        List<UndeliveredOrder> orders = ModelUtils.getOrdersToGroupThem().stream()
+            .filter(order -> Set.of(49.812, 49.854).contains(order.getLatitude()))
+            .collect(Collectors.toList());
+        when(orderRepository.findUndeliveredOrdersWithin(prefixes, 49.8, 49.9, 24.0, 24.1))
+            .thenReturn(orders);
+
+        List<GroupedOrderDto> actual =
+            ubsManagementService.getClusteredCoords(10, litres, MeanShiftClusterer.NAME, area);
+
+        assertEquals(1, actual.size());
+        assertEquals(Integer.valueOf(65), actual.get(0).getAmountOfLitres());
+        assertEquals(Set.of(49.812, 49.854), actual.get(0).getGroupOfOrders().stream()
+            .map(OrderDto::getLatitude).collect(Collectors.toSet()));
+        verify(pendingLitresRepository, never()).findAllCapacities();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidBoundingBoxes")
+    void getClusteredCoordsWithinInvalidAreaTest(BoundingBoxDto area) {
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.getClusteredCoords(distance, litres, MeanShiftClusterer.NAME, area));
+        verifyNoInteractions(pendingLitresRepository, orderRepository);
+    }
+
+    private static Stream<Arguments> provideInvalidBoundingBoxes() {
+        return Stream.of(Arguments.of(new BoundingBoxDto(49.9, 49.8, 24.0, 24.1)),
+            Arguments.of(new BoundingBoxDto(49.8, 49.9, 24.1, 24.0)),
+            Arguments.of(new BoundingBoxDto(-91.0, 49.9, 24.0, 24.1)),
+            Arguments.of(new BoundingBoxDto(49.8, 49.9, 24.0, 181.0)),
+            Arguments.of(new BoundingBoxDto(null, 49.9, 24.0, 24.1)));
+    }
+
     @Test
     void addCertificateTest() {
         CertificateDtoForAdding certificateDtoForAdding = new CertificateDtoForAdding("1111-1234", 5, 100);
@@ -128,4 +576,65 @@ public class UBSManagementServiceImplTest {
         PageableDto<CertificateDtoForSearching> actual = ubsManagementService.getAllCertificates(pageable);
         assertEquals(certificateDtoForSearchingPageableDto, actual);
     }
+
+    @Test
+    void getCertificatesAfterFirstPageTest() {
+        Certificate first = ModelUtils.getCertificate();
+        Certificate second = Certificate.builder().code("1111-1000").creationDate(first.getCreationDate()).build();
+        CertificateDtoForSearching firstDto = ModelUtils.getCertificateDtoForSearching();
+        when(certificateRepository.getFirst(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(certificateRepository.estimateCount()).thenReturn(50000L);
+        when(modelMapper.map(first, CertificateDtoForSearching.class)).thenReturn(firstDto);
+
+        CertificateKeysetPageDto actual =
+            ubsManagementService.getCertificatesAfter(new CertificateCursorDto(), 1, false);
+
+        assertEquals(new CertificateKeysetPageDto(List.of(firstDto), 50000L, true,
+            new CertificateCursorDto(first.getCreationDate(), first.getCode())), actual);
+        verify(certificateRepository, never()).count();
+    }
+
+    @Test
+    void getCertificatesAfterLastPageTest() {
+        Certificate certificate = ModelUtils.getCertificate();
+        CertificateDtoForSearching certificateDto = ModelUtils.getCertificateDtoForSearching();
+        CertificateCursorDto cursor = new CertificateCursorDto(certificate.getCreationDate(), "1111-9999");
+        when(certificateRepository.getAllAfter(cursor.getCreationDate(), cursor.getCode(), PageRequest.of(0, 6)))
+            .thenReturn(List.of(certificate));
+        when(certificateRepository.count()).thenReturn(7L);
+        when(modelMapper.map(certificate, CertificateDtoForSearching.class)).thenReturn(certificateDto);
+
+        CertificateKeysetPageDto actual = ubsManagementService.getCertificatesAfter(cursor, 5, true);
+
+        assertEquals(new CertificateKeysetPageDto(List.of(certificateDto), 7L, false, null), actual);
+        verify(certificateRepository, never()).estimateCount();
+    }
+
+    @Test
+    void getCertificatesAfterCountsWhenThereIsNoEstimateTest() {
+        when(certificateRepository.getFirst(PageRequest.of(0, 21))).thenReturn(List.of());
+        when(certificateRepository.estimateCount()).thenReturn(-1L);
+        when(certificateRepository.count()).thenReturn(0L);
+
+        CertificateKeysetPageDto actual =
+            ubsManagementService.getCertificatesAfter(new CertificateCursorDto(), 20, false);
+
+        assertEquals(new CertificateKeysetPageDto(List.of(), 0L, false, null), actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidCertificatePages")
+    void getCertificatesAfterInvalidPageTest(CertificateCursorDto cursor, int size) {
+        assertThrows(IncorrectValueException.class,
+            () -> ubsManagementService.getCertificatesAfter(cursor, size, false));
+        verifyNoInteractions(certificateRepository);
+    }
+
+    private static Stream<Arguments> provideInvalidCertificatePages() {
+        return Stream.of(
+            Arguments.of(new CertificateCursorDto(LocalDate.now(), null), 20),
+            Arguments.of(new CertificateCursorDto(null, "1111-1234"), 20),
+            Arguments.of(new CertificateCursorDto(), 0),
+            Arguments.of(new CertificateCursorDto(), 101));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package greencity.service.ubs;
+
+import greencity.repository.BagRepository;
+import greencity.service.ubs.clustering.IncrementalClusterModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BagCapacityWatcherTest {
+    @Mock
+    BagRepository bagRepository;
+    @Mock
+    PendingLitresReconciler pendingLitresReconciler;
+    @Mock
+    UndeliveredOrdersCache undeliveredOrdersCache;
+    @Mock
+    IncrementalClusterModel incrementalClusterModel;
+
+    @InjectMocks
+    BagCapacityWatcher bagCapacityWatcher;
+
+    @Test
+    void firstCheckOnlyRemembersVersionTest() {
+        when(bagRepository.getCapacityVersion()).thenReturn(3L);
+
+        assertFalse(bagCapacityWatcher.checkCapacityVersion());
+        verifyNoInteractions(pendingLitresReconciler, undeliveredOrdersCache, incrementalClusterModel);
+    }
+
+    @Test
+    void unchangedVersionKeepsCachedLitresTest() {
+        when(bagRepository.getCapacityVersion()).thenReturn(3L, 3L);
+
+        bagCapacityWatcher.checkCapacityVersion();
+
+        assertFalse(bagCapacityWatcher.checkCapacityVersion());
+        verifyNoInteractions(pendingLitresReconciler, undeliveredOrdersCache, incrementalClusterModel);
+    }
+
+    @Test
+    void changedVersionReconcilesAndDropsCachedLitresTest() {
+        when(bagRepository.getCapacityVersion()).thenReturn(3L, 4L);
+
+        bagCapacityWatcher.checkCapacityVersion();
+
+        assertTrue(bagCapacityWatcher.checkCapacityVersion());
+        InOrder inOrder = inOrder(pendingLitresReconciler, undeliveredOrdersCache, incrementalClusterModel);
+        inOrder.verify(pendingLitresReconciler).reconcile();
+        inOrder.verify(undeliveredOrdersCache).invalidate();
+        inOrder.verify(incrementalClusterModel).clear();
+    }
+}
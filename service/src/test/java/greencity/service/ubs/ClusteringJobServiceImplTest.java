@@ -0,0 +1,201 @@
+package greencity.service.ubs;
+
+import greencity.dto.ClusteringJobDto;
+import greencity.dto.ClusteringJobStatus;
+import greencity.dto.GroupedOrderDto;
+import greencity.dto.OrderDto;
+import greencity.exceptions.ActiveOrdersNotFoundException;
+import greencity.exceptions.ClusteringJobNotFoundException;
+import greencity.exceptions.IncorrectValueException;
+import greencity.exceptions.TooManyClusteringJobsException;
+import greencity.service.ubs.clustering.ClusteringStrategies;
+import greencity.service.ubs.clustering.MeanShiftClusterer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusteringJobServiceImplTest {
+    private static final String STRATEGY = MeanShiftClusterer.NAME;
+
+    @Mock
+    UBSManagementService ubsManagementService;
+
+    @Mock
+    ClusteringStrategies clusteringStrategies;
+
+    private ThreadPoolExecutor executor;
+    private ClusteringJobServiceImpl clusteringJobService;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        clusteringJobService =
+            new ClusteringJobServiceImpl(ubsManagementService, clusteringStrategies, executor, 600, 1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private ClusteringJobDto awaitStatus(String id, ClusteringJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ClusteringJobDto job = clusteringJobService.get(id);
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            job = clusteringJobService.get(id);
+        }
+        assertEquals(status, job.getStatus());
+        return job;
+    }
+
+    private void blockUntilReleased() {
+        when(ubsManagementService.getClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any()))
+            .thenAnswer(invocation -> {
+                started.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                return List.of();
+            });
+    }
+
+    @Test
+    void jobReturnsClustersWhenDoneTest() throws InterruptedException {
+        List<GroupedOrderDto> clusters = List.of(GroupedOrderDto.builder()
+            .amountOfLitres(20)
+            .groupOfOrders(List.of(OrderDto.builder().firstName("Anna").latitude(49.8).longitude(24.0).build()))
+            .build());
+        when(ubsManagementService.getClusteredCoords(eq(2.0), eq(100), eq(STRATEGY), eq(false), any()))
+            .thenReturn(clusters);
+
+        String id = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+        ClusteringJobDto done = awaitStatus(id, ClusteringJobStatus.DONE);
+
+        assertEquals(clusters, done.getResult());
+        assertEquals(1.0, done.getProgress());
+        assertTrue(done.getResultBytes() > 0);
+    }
+
+    @Test
+    void cancelStopsRunningJobTest() throws InterruptedException {
+        when(ubsManagementService.getClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any()))
+            .thenAnswer(invocation -> {
+                ClusteringMonitor monitor = invocation.getArgument(4);
+                monitor.started(10);
+                monitor.coordinatesClustered(5);
+                while (!monitor.isCancelled()) {
+                    Thread.sleep(1);
+                }
+                monitor.checkCancelled();
+                return List.of();
+            });
+
+        String id = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+        awaitStatus(id, ClusteringJobStatus.RUNNING);
+        clusteringJobService.cancel(id);
+        ClusteringJobDto cancelled = awaitStatus(id, ClusteringJobStatus.CANCELLED);
+
+        assertEquals(0.5, cancelled.getProgress());
+        assertNull(cancelled.getResult());
+    }
+
+    @Test
+    void cancelledQueuedJobNeverRunsTest() throws InterruptedException {
+        blockUntilReleased();
+        String running = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        String queued = clusteringJobService.start(3, 100, STRATEGY, false).getId();
+
+        assertEquals(ClusteringJobStatus.CANCELLED, clusteringJobService.cancel(queued).getStatus());
+        release.countDown();
+        awaitStatus(running, ClusteringJobStatus.DONE);
+        verify(ubsManagementService, never()).getClusteredCoords(eq(3.0), eq(100), eq(STRATEGY), eq(false), any());
+    }
+
+    @Test
+    void startThrowsWhenQueueIsFullTest() throws InterruptedException {
+        blockUntilReleased();
+        clusteringJobService.start(2, 100, STRATEGY, false);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        clusteringJobService.start(2, 100, STRATEGY, false);
+
+        assertThrows(TooManyClusteringJobsException.class,
+            () -> clusteringJobService.start(2, 100, STRATEGY, false));
+    }
+
+    @Test
+    void failedJobKeepsErrorTest() throws InterruptedException {
+        when(ubsManagementService.getClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any()))
+            .thenThrow(new ActiveOrdersNotFoundException("no orders"));
+
+        String id = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+
+        assertEquals("no orders", awaitStatus(id, ClusteringJobStatus.FAILED).getError());
+    }
+
+    @Test
+    void cancelRemovesFinishedJobTest() throws InterruptedException {
+        when(ubsManagementService.getClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any()))
+            .thenReturn(List.of());
+        String id = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+        awaitStatus(id, ClusteringJobStatus.DONE);
+
+        clusteringJobService.cancel(id);
+
+        assertThrows(ClusteringJobNotFoundException.class, () -> clusteringJobService.get(id));
+    }
+
+    @Test
+    void oldestResultsAreRemovedOverMemoryLimitTest() throws InterruptedException {
+        clusteringJobService =
+            new ClusteringJobServiceImpl(ubsManagementService, clusteringStrategies, executor, 600, 200);
+        List<GroupedOrderDto> clusters = List.of(GroupedOrderDto.builder()
+            .amountOfLitres(20)
+            .groupOfOrders(List.of(OrderDto.builder().build()))
+            .build());
+        when(ubsManagementService.getClusteredCoords(anyDouble(), anyInt(), anyString(), anyBoolean(), any()))
+            .thenReturn(clusters);
+
+        String first = clusteringJobService.start(2, 100, STRATEGY, false).getId();
+        awaitStatus(first, ClusteringJobStatus.DONE);
+        String second = clusteringJobService.start(3, 100, STRATEGY, false).getId();
+        awaitStatus(second, ClusteringJobStatus.DONE);
+
+        assertThrows(ClusteringJobNotFoundException.class, () -> clusteringJobService.get(first));
+    }
+
+    @Test
+    void startValidatesParametersTest() {
+        assertThrows(IncorrectValueException.class, () -> clusteringJobService.start(25, 100, STRATEGY, false));
+    }
+
+    @Test
+    void getThrowsForUnknownJobTest() {
+        assertThrows(ClusteringJobNotFoundException.class, () -> clusteringJobService.get("unknown"));
+    }
+}
@@ -0,0 +1,103 @@
+package greencity.service.ubs;
+
+import greencity.dto.CourierRoutesDto;
+import greencity.dto.OrderDto;
+import greencity.dto.RouteDto;
+import greencity.dto.RouteStopDto;
+import greencity.entity.enums.EmployeePosition;
+import greencity.entity.user.employee.Employee;
+import greencity.exceptions.CouriersNotFoundException;
+import greencity.repository.EmployeeRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CourierAssignmentServiceImplTest {
+    @Mock
+    UBSManagementService ubsManagementService;
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    CourierAssignmentServiceImpl courierAssignmentService;
+
+    @BeforeEach
+    void setUp() {
+        courierAssignmentService =
+            new CourierAssignmentServiceImpl(ubsManagementService, employeeRepository, transactionManager);
+    }
+
+    @Test
+    void assignCouriersBalancesRoutesAndAttachesOrdersTest() {
+        Employee first = Employee.builder().id(1L).firstName("Ivan").lastName("Petrenko").build();
+        Employee second = Employee.builder().id(2L).firstName("Olena").lastName("Koval").build();
+        when(employeeRepository.findAllByPosition(EmployeePosition.COURIER)).thenReturn(List.of(first, second));
+        RouteDto heavy = route(900, 9, 10L, 11L);
+        RouteDto middle = route(500, 5, 12L);
+        RouteDto light = route(100, 1, 13L);
+        when(ubsManagementService.getClusteredRoutes(2, 3000, "mean-shift", false))
+            .thenReturn(List.of(light, heavy, middle));
+
+        List<CourierRoutesDto> actual = courierAssignmentService.assignCouriers(2, 3000, "mean-shift", false);
+
+        assertEquals(List.of(
+            CourierRoutesDto.builder().employeeId(1L).firstName("Ivan").lastName("Petrenko")
+                .amountOfLitres(900).routesLength(9.0).routes(List.of(heavy)).build(),
+            CourierRoutesDto.builder().employeeId(2L).firstName("Olena").lastName("Koval")
+                .amountOfLitres(600).routesLength(6.0).routes(List.of(light, middle)).build()),
+            actual);
+        // routes are made before the transaction attaching orders begins
+        InOrder inOrder = inOrder(ubsManagementService, employeeRepository, transactionManager);
+        inOrder.verify(ubsManagementService).getClusteredRoutes(2, 3000, "mean-shift", false);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(employeeRepository).lockOrderAssignment();
+        inOrder.verify(employeeRepository).detachOrders(List.of(10L, 11L, 13L, 12L));
+        inOrder.verify(employeeRepository).attachOrders(Map.of(1L, List.of(10L, 11L), 2L, List.of(13L, 12L)));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void assignCouriersThrowsWithoutCouriersTest() {
+        when(employeeRepository.findAllByPosition(EmployeePosition.COURIER)).thenReturn(List.of());
+
+        assertThrows(CouriersNotFoundException.class,
+            () -> courierAssignmentService.assignCouriers(2, 3000, "mean-shift", false));
+        verify(ubsManagementService, never()).getClusteredRoutes(anyDouble(), anyInt(), anyString(), anyBoolean());
+        verify(employeeRepository, never()).attachOrders(any());
+    }
+
+    private static RouteDto route(int litres, double length, Long... orderIds) {
+        List<OrderDto> orders = new ArrayList<>();
+        for (Long id : orderIds) {
+            orders.add(OrderDto.builder().id(id).build());
+        }
+        return RouteDto.builder()
+            .amountOfLitres(litres)
+            .length(length)
+            .stops(List.of(RouteStopDto.builder().orders(orders).build()))
+            .build();
+    }
+}
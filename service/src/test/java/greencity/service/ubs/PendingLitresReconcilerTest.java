@@ -0,0 +1,134 @@
+package greencity.service.ubs;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.entity.coords.PendingLitres;
+import greencity.repository.AddressRepository;
+import greencity.repository.PendingLitresRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PendingLitresReconcilerTest {
+    @Mock
+    AddressRepository addressRepository;
+
+    @Mock
+    PendingLitresRepository pendingLitresRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    PendingLitresReconciler pendingLitresReconciler;
+
+    @BeforeEach
+    void setUp() {
+        pendingLitresReconciler =
+            new PendingLitresReconciler(addressRepository, pendingLitresRepository, transactionManager, 2);
+    }
+
+    @Test
+    void reconcileRepairsDriftInBatchesTest() {
+        CoordinatesCapacity first = new CoordinatesCapacity(49.80, 24.00, 100L);
+        CoordinatesCapacity second = new CoordinatesCapacity(49.81, 24.01, 50L);
+        CoordinatesCapacity third = new CoordinatesCapacity(49.82, 24.02, 70L);
+        when(addressRepository.undeliveredOrdersCapacitiesAfter(-91, -181, PageRequest.of(0, 2)))
+            .thenReturn(List.of(first, second));
+        when(pendingLitresRepository.findAllBetweenForUpdate(-91, -181, 49.81, 24.01)).thenReturn(List.of(
+            new PendingLitres(new Coordinates(49.80, 24.00), 100L),
+            new PendingLitres(new Coordinates(49.81, 24.01), 40L)));
+        when(addressRepository.undeliveredOrdersCapacitiesBetween(-91, -181, 49.81, 24.01))
+            .thenReturn(List.of(first, second));
+        when(addressRepository.undeliveredOrdersCapacitiesAfter(49.81, 24.01, PageRequest.of(0, 2)))
+            .thenReturn(List.of(third));
+        when(pendingLitresRepository.findAllBetweenForUpdate(49.81, 24.01, 91, 181)).thenReturn(List.of(
+            new PendingLitres(new Coordinates(49.815, 24.00), 30L),
+            new PendingLitres(new Coordinates(49.90, 24.10), 5L)));
+        when(addressRepository.undeliveredOrdersCapacitiesBetween(49.81, 24.01, 91, 181))
+            .thenReturn(List.of(third));
+        when(pendingLitresRepository.insertLitres(49.82, 24.02, 70L)).thenReturn(1);
+
+        assertEquals(4, pendingLitresReconciler.reconcile());
+
+        verify(pendingLitresRepository).setLitres(49.81, 24.01, 50L);
+        verify(pendingLitresRepository).insertLitres(49.82, 24.02, 70L);
+        verify(pendingLitresRepository).deleteLitres(49.815, 24.00);
+        verify(pendingLitresRepository).deleteLitres(49.90, 24.10);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void reconcileWithoutDriftTest() {
+        CoordinatesCapacity capacity = new CoordinatesCapacity(49.80, 24.00, 100L);
+        when(addressRepository.undeliveredOrdersCapacitiesAfter(-91, -181, PageRequest.of(0, 2)))
+            .thenReturn(List.of(capacity));
+        when(pendingLitresRepository.findAllBetweenForUpdate(-91, -181, 91, 181))
+            .thenReturn(List.of(new PendingLitres(new Coordinates(49.80, 24.00), 100L)));
+        when(addressRepository.undeliveredOrdersCapacitiesBetween(-91, -181, 91, 181))
+            .thenReturn(List.of(capacity));
+
+        assertEquals(0, pendingLitresReconciler.reconcile());
+
+        verify(pendingLitresRepository).findAllBetweenForUpdate(-91, -181, 91, 181);
+        verifyNoMoreInteractions(pendingLitresRepository);
+    }
+
+    @Test
+    void reconcileSumsAgainRowCreatedByPaymentTest() {
+        CoordinatesCapacity capacity = new CoordinatesCapacity(49.80, 24.00, 100L);
+        when(addressRepository.undeliveredOrdersCapacitiesAfter(-91, -181, PageRequest.of(0, 2)))
+            .thenReturn(List.of(capacity));
+        when(pendingLitresRepository.findAllBetweenForUpdate(-91, -181, 91, 181)).thenReturn(List.of());
+        when(addressRepository.undeliveredOrdersCapacitiesBetween(-91, -181, 91, 181))
+            .thenReturn(List.of(capacity));
+        // payment of 120 litres created the row after the batch was locked and summed
+        when(pendingLitresRepository.insertLitres(49.80, 24.00, 100L)).thenReturn(0);
+        when(pendingLitresRepository.findForUpdate(49.80, 24.00))
+            .thenReturn(new PendingLitres(new Coordinates(49.80, 24.00), 120L));
+        when(addressRepository.capacity(49.80, 24.00)).thenReturn(220L);
+
+        assertEquals(1, pendingLitresReconciler.reconcile());
+
+        InOrder inOrder = inOrder(pendingLitresRepository, addressRepository);
+        inOrder.verify(pendingLitresRepository).findForUpdate(49.80, 24.00);
+        inOrder.verify(addressRepository).capacity(49.80, 24.00);
+        inOrder.verify(pendingLitresRepository).setLitres(49.80, 24.00, 220L);
+        verify(pendingLitresRepository, never()).setLitres(49.80, 24.00, 100L);
+    }
+
+    @Test
+    void reconcileKeepsRowCreatedByPaymentWithoutDriftTest() {
+        CoordinatesCapacity capacity = new CoordinatesCapacity(49.80, 24.00, 100L);
+        when(addressRepository.undeliveredOrdersCapacitiesAfter(-91, -181, PageRequest.of(0, 2)))
+            .thenReturn(List.of(capacity));
+        when(pendingLitresRepository.findAllBetweenForUpdate(-91, -181, 91, 181)).thenReturn(List.of());
+        when(addressRepository.undeliveredOrdersCapacitiesBetween(-91, -181, 91, 181))
+            .thenReturn(List.of(capacity));
+        when(pendingLitresRepository.insertLitres(49.80, 24.00, 100L)).thenReturn(0);
+        when(pendingLitresRepository.findForUpdate(49.80, 24.00))
+            .thenReturn(new PendingLitres(new Coordinates(49.80, 24.00), 220L));
+        when(addressRepository.capacity(49.80, 24.00)).thenReturn(220L);
+
+        assertEquals(0, pendingLitresReconciler.reconcile());
+
+        verify(pendingLitresRepository, never()).setLitres(anyDouble(), anyDouble(), anyLong());
+    }
+}
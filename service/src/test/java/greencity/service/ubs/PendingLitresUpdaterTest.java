@@ -0,0 +1,63 @@
+package greencity.service.ubs;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import greencity.event.OrderStatusChangedEvent;
+import greencity.repository.PendingLitresRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PendingLitresUpdaterTest {
+    @Mock
+    PendingLitresRepository pendingLitresRepository;
+
+    @InjectMocks
+    PendingLitresUpdater pendingLitresUpdater;
+
+    private final Coordinates coordinates = new Coordinates(49.84, 24.03);
+
+    @Test
+    void onOrderPaidAddsLitresTest() {
+        pendingLitresUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.FORMED, OrderStatus.PAID, 120));
+
+        verify(pendingLitresRepository).addLitres(49.84, 24.03, 120);
+        verifyNoMoreInteractions(pendingLitresRepository);
+    }
+
+    @Test
+    void onOrderLeftPaidSubtractsLitresTest() {
+        pendingLitresUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.PAID, OrderStatus.DONE, 120));
+
+        InOrder inOrder = inOrder(pendingLitresRepository);
+        inOrder.verify(pendingLitresRepository).addLitres(49.84, 24.03, -120);
+        inOrder.verify(pendingLitresRepository).deleteIfEmpty(49.84, 24.03);
+    }
+
+    @Test
+    void onOrderStatusChangedOutsidePaidTest() {
+        pendingLitresUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.CONFIRMED, OrderStatus.DONE, 120));
+
+        verifyNoInteractions(pendingLitresRepository);
+    }
+
+    @Test
+    void onOrderWithoutCoordinatesPaidTest() {
+        pendingLitresUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, null, OrderStatus.FORMED, OrderStatus.PAID, 120));
+
+        verifyNoInteractions(pendingLitresRepository);
+    }
+}
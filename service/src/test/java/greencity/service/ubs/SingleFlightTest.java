@@ -0,0 +1,105 @@
+package greencity.service.ubs;
+
+import greencity.exceptions.IncorrectValueException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final int WAITERS = 4;
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1);
+    private final AtomicInteger computations = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Integer blockingComputation() {
+        computations.incrementAndGet();
+        started.countDown();
+        try {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 42;
+    }
+
+    private void awaitWaiters() throws InterruptedException {
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.getCoalescedCount() < WAITERS && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(WAITERS, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void concurrentCallersShareOneComputationTest() throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", this::blockingComputation)));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", this::blockingComputation)));
+        }
+        awaitWaiters();
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(42, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void exceptionIsRethrownToEveryCallerTest() throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            blockingComputation();
+            throw new IncorrectValueException("failed");
+        })));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", this::blockingComputation)));
+        }
+        awaitWaiters();
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            Exception exception = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IncorrectValueException);
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void sequentialCallersComputeAgainTest() {
+        assertEquals(1, singleFlight.execute("key", computations::incrementAndGet));
+        assertEquals(2, singleFlight.execute("key", computations::incrementAndGet));
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void differentKeysAreNotCoalescedTest() {
+        singleFlight.execute("first", () -> singleFlight.execute("second", computations::incrementAndGet));
+
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+}
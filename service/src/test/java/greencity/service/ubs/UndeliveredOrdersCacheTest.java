@@ -0,0 +1,62 @@
+package greencity.service.ubs;
+
+import greencity.dto.CacheStatsDto;
+import greencity.dto.GroupedOrderDto;
+import greencity.event.OrderStatusChangedEvent;
+import greencity.entity.enums.OrderStatus;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UndeliveredOrdersCacheTest {
+    private final UndeliveredOrdersCache cache = new UndeliveredOrdersCache(2, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<GroupedOrderDto> load() {
+        loads.incrementAndGet();
+        return List.of(GroupedOrderDto.builder().amountOfLitres(loads.get()).groupOfOrders(List.of()).build());
+    }
+
+    @Test
+    void sameParametersAreLoadedOnceTest() {
+        List<GroupedOrderDto> first = cache.getClusteredCoords(2, 100, "dbscan", false, this::load);
+        List<GroupedOrderDto> second = cache.getClusteredCoords(2, 100, "dbscan", false, this::load);
+
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        CacheStatsDto stats = cache.getStats();
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+    }
+
+    @Test
+    void differentParametersAreLoadedSeparatelyTest() {
+        cache.getClusteredCoords(2, 100, "dbscan", false, this::load);
+        cache.getClusteredCoords(2, 100, "dbscan", true, this::load);
+        cache.getClusteredCoords(3, 100, "dbscan", false, this::load);
+        cache.getAllUndeliveredOrdersWithLiters(this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void orderStatusChangeInvalidatesCacheTest() {
+        cache.getAllUndeliveredOrdersWithLiters(this::load);
+        cache.onOrderStatusChanged(new OrderStatusChangedEvent(1L, null, OrderStatus.FORMED, OrderStatus.PAID, 120));
+        List<GroupedOrderDto> actual = cache.getAllUndeliveredOrdersWithLiters(this::load);
+
+        assertEquals(2, actual.get(0).getAmountOfLitres());
+        assertEquals(1L, cache.getStats().getVersion());
+    }
+
+    @Test
+    void invalidateDropsCachedResultsTest() {
+        cache.getAllUndeliveredOrdersWithLiters(this::load);
+        cache.invalidate();
+        cache.getAllUndeliveredOrdersWithLiters(this::load);
+
+        assertEquals(2, loads.get());
+    }
+}
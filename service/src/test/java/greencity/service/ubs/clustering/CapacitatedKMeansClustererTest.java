@@ -0,0 +1,132 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class CapacitatedKMeansClustererTest {
+    private final CapacitatedKMeansClusterer clusterer = new CapacitatedKMeansClusterer();
+
+    @Test
+    void clusterSplitsTwoDistantGroups() {
+        List<Coordinates> coordinates = List.of(new Coordinates(49.84, 24.03), new Coordinates(49.841, 24.031),
+            new Coordinates(49.90, 24.10), new Coordinates(49.901, 24.101));
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (Coordinates temp : coordinates) {
+            capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 30L));
+        }
+
+        ClusteringResult result = clusterer.cluster(coordinates, new LitresByCoordinates(capacities), 1, 60);
+
+        assertEquals(2, result.getClusters().size());
+        for (Cluster cluster : result.getClusters()) {
+            assertEquals(60, cluster.getLitres());
+            assertEquals(2, cluster.getCoordinates().size());
+        }
+        assertTrue(result.getIterations() > 0);
+    }
+
+    @Test
+    void clusterNeverExceedsLitresLimit() {
+        List<Coordinates> coordinates = new ArrayList<>();
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Coordinates temp = new Coordinates(49.8 + (i % 10) * 0.01, 24.0 + (i / 10) * 0.01);
+            coordinates.add(temp);
+            capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 10L + i % 7));
+        }
+
+        ClusteringResult result = clusterer.cluster(coordinates, new LitresByCoordinates(capacities), 1, 100);
+
+        int amountOfCoordinates = 0;
+        for (Cluster cluster : result.getClusters()) {
+            assertTrue(cluster.getLitres() <= 100);
+            amountOfCoordinates += cluster.getCoordinates().size();
+        }
+        assertEquals(coordinates.size(), amountOfCoordinates);
+    }
+
+    @Test
+    void clusterWithOverflowOnSeveralIterationsReturnsOnlyFilledClusters() {
+        List<Coordinates> coordinates = new ArrayList<>();
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Coordinates temp = new Coordinates(49.8 + (i % 10) * 0.01, 24.0 + (i / 10) * 0.01);
+            coordinates.add(temp);
+            capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 10L + i * 50 % 61));
+        }
+
+        ClusteringResult result = clusterer.cluster(coordinates, new LitresByCoordinates(capacities), 1, 100);
+
+        int amountOfCoordinates = 0;
+        for (Cluster cluster : result.getClusters()) {
+            assertFalse(cluster.getCoordinates().isEmpty());
+            assertTrue(cluster.getLitres() <= 100);
+            amountOfCoordinates += cluster.getCoordinates().size();
+        }
+        assertEquals(coordinates.size(), amountOfCoordinates);
+        assertTrue(result.getIterations() > 1);
+    }
+
+    @Test
+    void assignGivesFreeLitresToClosestCoordinatesFirst() {
+        Coordinates far = new Coordinates(49.6, 24.0);
+        Coordinates near = new Coordinates(49.51, 24.0);
+        Coordinates[] points = {far, near};
+        List<Coordinates> centers = new ArrayList<>(List.of(new Coordinates(49.5, 24.0)));
+
+        int[] assignment = CapacitatedKMeansClusterer.assign(points, new DistanceKernel(List.of(points)),
+            new int[] {60, 60}, centers, 100);
+
+        assertEquals(1, assignment[0]);
+        assertEquals(0, assignment[1]);
+        assertEquals(List.of(new Coordinates(49.5, 24.0), far), centers);
+    }
+
+    @Test
+    void recomputeCentersDropsCentersLeftWithoutCoordinates() {
+        Coordinates[] points = new Coordinates[100];
+        int[] pointLitres = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Coordinates(49.8 + (i % 10) * 0.01, 24.0 + (i / 10) * 0.01);
+            pointLitres[i] = 10 + i * 50 % 61;
+        }
+        DistanceKernel kernel = new DistanceKernel(List.of(points));
+        List<Coordinates> centers = new ArrayList<>();
+        for (int c = 0; c < 40; c++) {
+            centers.add(points[c * points.length / 40]);
+        }
+
+        int passesWithOverflow = 0;
+        for (int pass = 0; pass < 10; pass++) {
+            int amountOfCenters = centers.size();
+            int[] assignment = CapacitatedKMeansClusterer.assign(points, kernel, pointLitres, centers, 100);
+            if (centers.size() > amountOfCenters) {
+                passesWithOverflow++;
+            }
+            centers = CapacitatedKMeansClusterer.recomputeCenters(points, assignment, centers);
+
+            boolean[] filled = new boolean[centers.size()];
+            for (int c : assignment) {
+                filled[c] = true;
+            }
+            for (boolean temp : filled) {
+                assertTrue(temp);
+            }
+        }
+        assertTrue(passesWithOverflow > 1);
+        assertTrue(centers.size() <= points.length);
+    }
+
+    @Test
+    void clusterOfNoCoordinates() {
+        ClusteringResult result = clusterer.cluster(List.of(), new LitresByCoordinates(List.of()), 1, 100);
+
+        assertTrue(result.getClusters().isEmpty());
+    }
+}
@@ -0,0 +1,29 @@
+package greencity.service.ubs.clustering;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import org.junit.jupiter.api.Test;
+
+class CapacityTrimmerTest {
+    private final int[] litres = {60, 50, 50, 30};
+
+    @Test
+    void trimFindsFullestSubset() {
+        // greedy would keep 60 + 30, but 50 + 50 fills the truck completely
+        assertArrayEquals(new boolean[] {false, true, true, false}, new CapacityTrimmer(20).trim(litres, 100));
+    }
+
+    @Test
+    void trimPrefersItemsWithHigherPriority() {
+        assertArrayEquals(new boolean[] {true, false, false, true}, new CapacityTrimmer(20).trim(litres, 90));
+    }
+
+    @Test
+    void trimWithoutBudgetIsGreedy() {
+        assertArrayEquals(new boolean[] {true, false, false, true}, new CapacityTrimmer(0).trim(litres, 100));
+    }
+
+    @Test
+    void trimKeepsEverythingWhichFits() {
+        assertArrayEquals(new boolean[] {true, true, true, true}, new CapacityTrimmer(20).trim(litres, 190));
+    }
+}
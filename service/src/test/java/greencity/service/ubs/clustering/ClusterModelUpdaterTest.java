@@ -0,0 +1,54 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.enums.OrderStatus;
+import greencity.event.OrderStatusChangedEvent;
+import greencity.repository.PendingLitresRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterModelUpdaterTest {
+    @Mock
+    PendingLitresRepository pendingLitresRepository;
+
+    @Mock
+    IncrementalClusterModel incrementalClusterModel;
+
+    @InjectMocks
+    ClusterModelUpdater clusterModelUpdater;
+
+    private final Coordinates coordinates = new Coordinates(49.84, 24.03);
+
+    @Test
+    void onOrderPaid() {
+        when(pendingLitresRepository.findLitres(49.84, 24.03)).thenReturn(120L);
+
+        clusterModelUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.FORMED, OrderStatus.PAID, 120));
+
+        verify(incrementalClusterModel).update(coordinates, 120);
+    }
+
+    @Test
+    void onLastOrderLeftPaid() {
+        when(pendingLitresRepository.findLitres(49.84, 24.03)).thenReturn(null);
+
+        clusterModelUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.PAID, OrderStatus.DONE, 120));
+
+        verify(incrementalClusterModel).update(coordinates, 0);
+    }
+
+    @Test
+    void onStatusChangeNotTouchingPaid() {
+        clusterModelUpdater.onOrderStatusChanged(
+            new OrderStatusChangedEvent(1L, coordinates, OrderStatus.CONFIRMED, OrderStatus.DONE, 120));
+
+        verifyNoInteractions(pendingLitresRepository, incrementalClusterModel);
+    }
+}
@@ -0,0 +1,95 @@
+package greencity.service.ubs.clustering;
+
+import greencity.ModelUtils;
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class CoordinatesGridIndexTest {
+    @Test
+    void withinRadiusReturnsSameCoordinatesAsLinearScan() {
+        Random random = new Random(42);
+        List<Coordinates> coordinates = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            coordinates.add(new Coordinates(50.35 + random.nextDouble() * 0.2, 30.35 + random.nextDouble() * 0.4));
+        }
+        LitresByCoordinates store = store(coordinates);
+        CoordinatesGridIndex index = new CoordinatesGridIndex(store, store.indexesOf(coordinates), 1);
+        int[] result = new int[coordinates.size()];
+
+        for (int i = 0; i < 100; i++) {
+            Coordinates center = coordinates.get(random.nextInt(coordinates.size()));
+            double distance = random.nextDouble() * 3;
+            Set<Coordinates> expected = new HashSet<>();
+            for (Coordinates checked : coordinates) {
+                if (EarthDistance.between(center.getLatitude(), center.getLongitude(),
+                    checked.getLatitude(), checked.getLongitude()) <= distance) {
+                    expected.add(checked);
+                }
+            }
+            int count = index.withinRadius(center.getLatitude(), center.getLongitude(), distance, result);
+            assertEquals(expected, toCoordinates(store, result, count));
+        }
+    }
+
+    @Test
+    void removedCoordinatesAreNotReturned() {
+        Set<Coordinates> coordinates = ModelUtils.getCoordinatesSet();
+        LitresByCoordinates store = store(coordinates);
+        CoordinatesGridIndex index = new CoordinatesGridIndex(store, store.indexesOf(coordinates), 2);
+        Coordinates removed = new Coordinates(49.856, 24.049);
+        int removedRow = store.indexOf(removed);
+        int[] result = new int[coordinates.size()];
+
+        assertTrue(index.remove(removedRow));
+        assertFalse(index.remove(removedRow));
+        assertFalse(index.contains(removedRow));
+        assertEquals(coordinates.size() - 1, index.size());
+        Set<Coordinates> found = toCoordinates(store, result,
+            index.withinRadius(removed.getLatitude(), removed.getLongitude(), 2, result));
+        assertFalse(found.contains(removed));
+        assertTrue(found.contains(new Coordinates(49.862, 24.039)));
+    }
+
+    @Test
+    void firstKeepsInitialOrder() {
+        Set<Coordinates> coordinates = new LinkedHashSet<>(ModelUtils.getCoordinatesSet());
+        LitresByCoordinates store = store(coordinates);
+        int[] rows = store.indexesOf(coordinates);
+        CoordinatesGridIndex index = new CoordinatesGridIndex(store, rows, 2);
+
+        for (int expected : rows) {
+            assertEquals(expected, index.first());
+            index.remove(expected);
+        }
+        assertTrue(index.isEmpty());
+        assertEquals(-1, index.first());
+    }
+
+    private static LitresByCoordinates store(Collection<Coordinates> coordinates) {
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (Coordinates temp : coordinates) {
+            capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 1L));
+        }
+        return new LitresByCoordinates(capacities);
+    }
+
+    private static Set<Coordinates> toCoordinates(LitresByCoordinates store, int[] rows, int count) {
+        Set<Coordinates> result = new HashSet<>();
+        for (int row : Arrays.copyOf(rows, count)) {
+            result.add(store.getCoordinates(row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class DbscanClustererTest {
+    private final DbscanClusterer clusterer = new DbscanClusterer();
+    private final Coordinates first = new Coordinates(49.8400, 24.0300);
+    private final Coordinates second = new Coordinates(49.8410, 24.0300);
+    private final Coordinates third = new Coordinates(49.8419, 24.0300);
+    private final Coordinates far = new Coordinates(49.9000, 24.0300);
+
+    private LitresByCoordinates litres(long each) {
+        return new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(first.getLatitude(), first.getLongitude(), each),
+            new CoordinatesCapacity(second.getLatitude(), second.getLongitude(), each),
+            new CoordinatesCapacity(third.getLatitude(), third.getLongitude(), each),
+            new CoordinatesCapacity(far.getLatitude(), far.getLongitude(), each)));
+    }
+
+    @Test
+    void clusterGroupsDenseCoordinatesAndLeavesNoiseAlone() {
+        List<Cluster> clusters = clusterer.cluster(List.of(first, second, third, far), litres(10), 0.2, 100)
+            .getClusters();
+
+        assertEquals(List.of(new Cluster(Set.of(first, second, third), 30), new Cluster(Set.of(far), 10)),
+            clusters);
+    }
+
+    @Test
+    void clusterStopsGrowingAtLitresLimit() {
+        List<Cluster> clusters = clusterer.cluster(List.of(first, second, third, far), litres(10), 0.2, 20)
+            .getClusters();
+
+        // second is the only core coordinate, so cluster starts from it and takes the
+        // closest neighbour
+        assertEquals(List.of(new Cluster(Set.of(second, third), 20), new Cluster(Set.of(first), 10),
+            new Cluster(Set.of(far), 10)), clusters);
+    }
+}
@@ -0,0 +1,51 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class DistanceKernelTest {
+    @Test
+    void isWithinAgreesWithHaversine() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = 49.7 + random.nextDouble() * 0.3;
+            double lon1 = 23.9 + random.nextDouble() * 0.3;
+            double lat2 = 49.7 + random.nextDouble() * 0.3;
+            double lon2 = 23.9 + random.nextDouble() * 0.3;
+            double distance = random.nextDouble() * 20;
+
+            assertEquals(EarthDistance.between(lat1, lon1, lat2, lon2) <= distance,
+                EarthDistance.isWithin(lat1, lon1, EarthDistance.cosLatitude(lat1),
+                    lat2, lon2, EarthDistance.cosLatitude(lat2), distance));
+        }
+    }
+
+    @Test
+    void isWithinAcrossAntimeridian() {
+        assertEquals(true, EarthDistance.isWithin(0, 179.999, 1, 0, -179.999, 1, 1));
+    }
+
+    @Test
+    void distanceIsSameAsHaversine() {
+        DistanceKernel kernel = new DistanceKernel(List.of(new Coordinates(49.84, 24.03)));
+
+        assertEquals(EarthDistance.between(49.84, 24.03, 49.81, 24.05),
+            kernel.distance(0, 49.81, 24.05, EarthDistance.cosLatitude(49.81)));
+    }
+
+    @Test
+    void sortByDistanceFromKeepsOrderOfEqualDistances() {
+        Coordinates center = new Coordinates(49.5, 24.0);
+        Coordinates east = new Coordinates(49.5, 24.25);
+        Coordinates west = new Coordinates(49.5, 23.75);
+        Coordinates far = new Coordinates(50.0, 24.0);
+
+        assertEquals(List.of(far, east, west, center),
+            DistanceKernel.sortByDistanceFrom(List.of(east, center, far, west), center, true));
+        assertEquals(List.of(center, west, east, far),
+            DistanceKernel.sortByDistanceFrom(List.of(west, center, far, east), center, false));
+    }
+}
@@ -0,0 +1,160 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalClusterModelTest {
+    private static final double DISTANCE = 1;
+    private static final int LITRES = 100;
+
+    private final ClusteringStrategies clusteringStrategies =
+        new ClusteringStrategies(List.of(new MeanShiftClusterer(new CapacityTrimmer(20))));
+    private final TiledClusteringEngine tiledClusteringEngine =
+        spy(new TiledClusteringEngine(ForkJoinPool.commonPool()));
+    private final IncrementalClusterModel model =
+        new IncrementalClusterModel(clusteringStrategies, tiledClusteringEngine, 600);
+    private final Coordinates center = new Coordinates(49.840, 24.030);
+    private final Coordinates nearCenter = new Coordinates(49.841, 24.031);
+    private final Coordinates far = new Coordinates(49.950, 24.200);
+
+    @BeforeEach
+    void setUp() {
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(center.getLatitude(), center.getLongitude(), 20L),
+            new CoordinatesCapacity(far.getLatitude(), far.getLongitude(), 30L)));
+        model.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, false, model.getModifications(), litresByCoords,
+            List.of(new Cluster(Set.of(center), 20), new Cluster(Set.of(far), 30)));
+    }
+
+    @Test
+    void getClustersOfUnknownParameters() {
+        assertEquals(Optional.empty(), model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, true));
+    }
+
+    @Test
+    void updateRegroupsOnlyNeighbourhood() {
+        model.update(nearCenter, 40);
+
+        assertEquals(List.of(new Cluster(Set.of(far), 30), new Cluster(Set.of(center, nearCenter), 60)),
+            model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, false).get());
+    }
+
+    @Test
+    void updateRemovesCoordinatesWithoutOrders() {
+        model.update(center, 0);
+
+        assertEquals(List.of(new Cluster(Set.of(far), 30)),
+            model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, false).get());
+    }
+
+    @Test
+    void updateSkipsCoordinatesOverLitresLimit() {
+        model.update(nearCenter, 500);
+
+        assertEquals(List.of(new Cluster(Set.of(far), 30), new Cluster(Set.of(center), 20)),
+            model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, false).get());
+    }
+
+    @Test
+    void expiredSnapshotIsNotServed() {
+        IncrementalClusterModel expiring = new IncrementalClusterModel(clusteringStrategies, tiledClusteringEngine, -1);
+        expiring.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, false, expiring.getModifications(),
+            new LitresByCoordinates(List.of()), List.of());
+
+        assertTrue(expiring.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, false).isEmpty());
+    }
+
+    @Test
+    void updateRegroupsParallelSnapshotWithTiledEngine() {
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(center.getLatitude(), center.getLongitude(), 20L)));
+        model.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, true, model.getModifications(), litresByCoords,
+            List.of(new Cluster(Set.of(center), 20)));
+
+        model.update(nearCenter, 40);
+
+        assertEquals(List.of(new Cluster(Set.of(center, nearCenter), 60)),
+            model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, true).get());
+        verify(tiledClusteringEngine).cluster(any(MeanShiftClusterer.class), any(), any(), eq(DISTANCE), eq(LITRES));
+    }
+
+    @Test
+    void putAfterUpdateOfLoadedLitresIsNotRemembered() {
+        long modifications = model.getModifications();
+        LitresByCoordinates loadedLitres = new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(center.getLatitude(), center.getLongitude(), 20L)));
+        model.update(nearCenter, 40);
+
+        assertFalse(model.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, true, modifications, loadedLitres,
+            List.of(new Cluster(Set.of(center), 20))));
+        assertEquals(Optional.empty(), model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, true));
+    }
+
+    @Test
+    void putAfterClearIsNotRemembered() {
+        long modifications = model.getModifications();
+        model.clear();
+
+        assertFalse(model.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, false, modifications,
+            new LitresByCoordinates(List.of()), List.of()));
+        assertEquals(Optional.empty(), model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, false));
+    }
+
+    @Test
+    void putWithoutUpdatesIsRemembered() {
+        assertTrue(model.put(MeanShiftClusterer.NAME, DISTANCE, LITRES, true, model.getModifications(),
+            new LitresByCoordinates(List.of()), List.of()));
+        assertEquals(Optional.of(List.of()), model.getClusters(MeanShiftClusterer.NAME, DISTANCE, LITRES, true));
+    }
+
+    @Test
+    void readersDoNotWaitForUpdate() throws Exception {
+        CountDownLatch clustering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClusteringStrategy blocking = mock(ClusteringStrategy.class);
+        when(blocking.getName()).thenReturn("blocking");
+        when(blocking.cluster(any(), any(), anyDouble(), anyInt())).thenAnswer(invocation -> {
+            clustering.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new ClusteringResult(List.of(new Cluster(Set.of(center, nearCenter), 60)), 1);
+        });
+        IncrementalClusterModel blockingModel = new IncrementalClusterModel(
+            new ClusteringStrategies(List.of(blocking)), tiledClusteringEngine, 600);
+        blockingModel.put("blocking", DISTANCE, LITRES, false, blockingModel.getModifications(),
+            new LitresByCoordinates(List.of(
+                new CoordinatesCapacity(center.getLatitude(), center.getLongitude(), 20L))),
+            List.of(new Cluster(Set.of(center), 20)));
+
+        CompletableFuture<Void> update = CompletableFuture.runAsync(() -> blockingModel.update(nearCenter, 40));
+        assertTrue(clustering.await(10, TimeUnit.SECONDS));
+        Optional<List<Cluster>> duringUpdate = CompletableFuture
+            .supplyAsync(() -> blockingModel.getClusters("blocking", DISTANCE, LITRES, false))
+            .get(1, TimeUnit.SECONDS);
+        release.countDown();
+        update.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(new Cluster(Set.of(center), 20)), duringUpdate.get());
+        assertEquals(List.of(new Cluster(Set.of(center, nearCenter), 60)),
+            blockingModel.getClusters("blocking", DISTANCE, LITRES, false).get());
+    }
+}
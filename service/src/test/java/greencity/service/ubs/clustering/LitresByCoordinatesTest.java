@@ -0,0 +1,38 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LitresByCoordinatesTest {
+    private final LitresByCoordinates litresByCoords = new LitresByCoordinates(List.of(
+        new CoordinatesCapacity(49.854, 24.069, 120L),
+        new CoordinatesCapacity(49.856, 24.049, 20L),
+        new CoordinatesCapacity(49.862, 24.039, 75L)));
+
+    @Test
+    void getLitresByCoordinates() {
+        assertEquals(3, litresByCoords.size());
+        assertEquals(20, litresByCoords.getLitres(new Coordinates(49.856, 24.049)));
+        assertEquals(0, litresByCoords.getLitres(new Coordinates(49.856, 24.05)));
+        assertTrue(litresByCoords.contains(new Coordinates(49.862, 24.039)));
+        assertFalse(litresByCoords.contains(new Coordinates(24.039, 49.862)));
+    }
+
+    @Test
+    void getLitresByIndexKeepsRowsOrder() {
+        assertEquals(new Coordinates(49.854, 24.069), litresByCoords.getCoordinates(0));
+        assertEquals(120, litresByCoords.getLitres(0));
+        assertEquals(75, litresByCoords.getLitres(2));
+    }
+
+    @Test
+    void getCoordinatesWithLitresNotMoreThan() {
+        assertEquals(List.of(new Coordinates(49.856, 24.049), new Coordinates(49.862, 24.039)),
+            litresByCoords.getCoordinatesWithLitresNotMoreThan(100));
+    }
+}
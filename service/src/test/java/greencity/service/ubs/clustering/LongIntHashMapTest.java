@@ -0,0 +1,30 @@
+package greencity.service.ubs.clustering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+    @Test
+    void putIfAbsentKeepsFirstValue() {
+        LongIntHashMap map = new LongIntHashMap(4);
+
+        assertEquals(LongIntHashMap.ABSENT, map.putIfAbsent(CoordinatesKey.of(49.84, 24.03), 0));
+        assertEquals(0, map.putIfAbsent(CoordinatesKey.of(49.84, 24.03), 1));
+        assertEquals(0, map.get(CoordinatesKey.of(49.84, 24.03)));
+        assertEquals(LongIntHashMap.ABSENT, map.get(CoordinatesKey.of(24.03, 49.84)));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void growsBeyondExpectedSize() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int i = 0; i < 10_000; i++) {
+            map.putIfAbsent(CoordinatesKey.of(49 + i * 1e-4, 24 - i * 1e-4), i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get(CoordinatesKey.of(49 + i * 1e-4, 24 - i * 1e-4)));
+        }
+    }
+}
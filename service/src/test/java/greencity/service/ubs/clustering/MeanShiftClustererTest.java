@@ -0,0 +1,80 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import greencity.service.ubs.ClusteringMonitor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class MeanShiftClustererTest {
+    private final MeanShiftClusterer clusterer = new MeanShiftClusterer(new CapacityTrimmer(20));
+    private final List<Coordinates> coordinates = new ArrayList<>();
+    private final List<CoordinatesCapacity> capacities = new ArrayList<>();
+
+    private LitresByCoordinates grid() {
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                Coordinates temp = new Coordinates(49.8 + i * 0.01, 24.0 + j * 0.01);
+                coordinates.add(temp);
+                capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 20L));
+            }
+        }
+        return new LitresByCoordinates(capacities);
+    }
+
+    @Test
+    void clusterReportsEveryCoordinateAsClustered() {
+        LitresByCoordinates litresByCoords = grid();
+        AtomicInteger clustered = new AtomicInteger();
+        ClusteringMonitor monitor = new ClusteringMonitor() {
+            @Override
+            public void started(int amount) {
+            }
+
+            @Override
+            public void coordinatesClustered(int amount) {
+                clustered.addAndGet(amount);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+
+        ClusteringResult result = clusterer.cluster(coordinates, litresByCoords, 1, 100, monitor);
+
+        assertEquals(coordinates.size(), clustered.get());
+        assertEquals(coordinates.size(), result.getClusters().stream().mapToInt(c -> c.getCoordinates().size()).sum());
+    }
+
+    @Test
+    void clusterStopsWhenCancelled() {
+        LitresByCoordinates litresByCoords = grid();
+        AtomicInteger clusters = new AtomicInteger();
+        ClusteringMonitor monitor = new ClusteringMonitor() {
+            @Override
+            public void started(int amount) {
+            }
+
+            @Override
+            public void coordinatesClustered(int amount) {
+                clusters.incrementAndGet();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return clusters.get() >= 3;
+            }
+        };
+
+        assertThrows(CancellationException.class,
+            () -> clusterer.cluster(coordinates, litresByCoords, 1, 100, monitor));
+        assertEquals(3, clusters.get());
+    }
+}
@@ -0,0 +1,55 @@
+package greencity.service.ubs.clustering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NearestRowsQueueTest {
+    @Test
+    void pollsRowsFromNearestAndByIndexOnEqualDistance() {
+        NearestRowsQueue queue = new NearestRowsQueue(new int[] {4, 7, 2, 9, 1}, new double[] {3, 1, 3, 0.5, 2}, 5);
+
+        assertEquals(9, queue.poll());
+        assertEquals(7, queue.poll());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertEquals(4, queue.poll());
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalStateException.class, queue::poll);
+    }
+
+    @Test
+    void takesOnlyFirstCountRows() {
+        NearestRowsQueue queue = new NearestRowsQueue(new int[] {3, 5, 1}, new double[] {2, 1, 0}, 2);
+
+        assertEquals(2, queue.size());
+        assertEquals(5, queue.poll());
+        assertEquals(3, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void pollsRandomRowsInSortedOrder() {
+        Random random = new Random(42);
+        int[] rows = new int[1000];
+        double[] distances = new double[rows.length];
+        Integer[] expected = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+            distances[i] = random.nextInt(100);
+            expected[i] = i;
+        }
+        double[] copy = distances.clone();
+        Arrays.sort(expected, Comparator.<Integer>comparingDouble(i -> copy[i]).thenComparingInt(i -> i));
+
+        NearestRowsQueue queue = new NearestRowsQueue(rows, distances, rows.length);
+
+        for (int row : expected) {
+            assertEquals(row, queue.poll());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package greencity.service.ubs.clustering;
+
+import greencity.entity.coords.Coordinates;
+import greencity.entity.coords.CoordinatesCapacity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TiledClusteringEngineTest {
+    private final TiledClusteringEngine engine =
+        new TiledClusteringEngine(ForkJoinPool.commonPool());
+    private final MeanShiftClusterer meanShiftClusterer = new MeanShiftClusterer(new CapacityTrimmer(20));
+
+    @Test
+    void clusterMergesClustersCutByTileBorder() {
+        // 0.1 km radius gives 1 km tiles, both points are 80 m apart across latitude
+        // 0.009 border
+        Coordinates south = new Coordinates(0.0086, 30.0);
+        Coordinates north = new Coordinates(0.0093, 30.0);
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(south.getLatitude(), south.getLongitude(), 10L),
+            new CoordinatesCapacity(north.getLatitude(), north.getLongitude(), 15L)));
+
+        List<Cluster> clusters = engine.cluster(meanShiftClusterer, List.of(south, north), litresByCoords, 0.1, 100)
+            .getClusters();
+
+        assertEquals(1, clusters.size());
+        assertEquals(Set.of(south, north), clusters.get(0).getCoordinates());
+        assertEquals(25, clusters.get(0).getLitres());
+    }
+
+    @Test
+    void clusterDoesNotMergeOverLitresLimit() {
+        Coordinates south = new Coordinates(0.0086, 30.0);
+        Coordinates north = new Coordinates(0.0093, 30.0);
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(List.of(
+            new CoordinatesCapacity(south.getLatitude(), south.getLongitude(), 60L),
+            new CoordinatesCapacity(north.getLatitude(), north.getLongitude(), 60L)));
+
+        List<Cluster> clusters = engine.cluster(meanShiftClusterer, List.of(south, north), litresByCoords, 0.1, 100)
+            .getClusters();
+
+        assertEquals(2, clusters.size());
+    }
+
+    @Test
+    void clusterKeepsEveryCoordinateOnce() {
+        List<Coordinates> coordinates = new ArrayList<>();
+        List<CoordinatesCapacity> capacities = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 40; j++) {
+                Coordinates temp = new Coordinates(49.7 + i * 0.005, 23.9 + j * 0.007);
+                coordinates.add(temp);
+                capacities.add(new CoordinatesCapacity(temp.getLatitude(), temp.getLongitude(), 20L));
+            }
+        }
+        LitresByCoordinates litresByCoords = new LitresByCoordinates(capacities);
+
+        List<Cluster> clusters = engine.cluster(meanShiftClusterer, coordinates, litresByCoords, 0.5, 200)
+            .getClusters();
+
+        int total = 0;
+        for (Cluster cluster : clusters) {
+            total += cluster.getCoordinates().size();
+            assertTrue(cluster.getLitres() <= 200);
+        }
+        assertEquals(coordinates.size(), total);
+    }
+}
@@ -0,0 +1,61 @@
+package greencity.service.ubs.routing;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RouteBalancerTest {
+    @Test
+    void heaviestRoutesGoToDifferentCouriers() {
+        double[] litres = {100, 900, 500, 500};
+        double[] lengths = {1, 9, 5, 5};
+
+        int[] assignment = RouteBalancer.assign(litres, lengths, 2);
+
+        assertArrayEquals(new int[] {0, 0, 1, 1}, assignment);
+    }
+
+    @Test
+    void couriersWithoutRoutesAreAllowed() {
+        assertArrayEquals(new int[] {0}, RouteBalancer.assign(new double[] {10}, new double[] {0}, 3));
+        assertArrayEquals(new int[0], RouteBalancer.assign(new double[0], new double[0], 3));
+    }
+
+    @Test
+    void loadsOfCouriersAreBalanced() {
+        Random random = new Random(3);
+        int routes = 1000;
+        int couriers = 40;
+        double[] litres = new double[routes];
+        double[] lengths = new double[routes];
+        for (int route = 0; route < routes; route++) {
+            litres[route] = 500 + random.nextInt(2500);
+            lengths[route] = 5 + random.nextDouble() * 30;
+        }
+
+        int[] assignment = RouteBalancer.assign(litres, lengths, couriers);
+
+        double[] courierLitres = new double[couriers];
+        double[] courierLengths = new double[couriers];
+        double totalLitres = 0;
+        double totalLength = 0;
+        for (int route = 0; route < routes; route++) {
+            courierLitres[assignment[route]] += litres[route];
+            courierLengths[assignment[route]] += lengths[route];
+            totalLitres += litres[route];
+            totalLength += lengths[route];
+        }
+        for (int courier = 0; courier < couriers; courier++) {
+            double load = courierLitres[courier] / totalLitres + courierLengths[courier] / totalLength;
+            assertEquals(2.0 / couriers, load, 2.0 / couriers * 0.05);
+        }
+    }
+
+    @Test
+    void assignWithoutCouriersThrows() {
+        assertThrows(IllegalArgumentException.class,
+            () -> RouteBalancer.assign(new double[] {1}, new double[] {1}, 0));
+    }
+}
@@ -0,0 +1,36 @@
+package greencity.service.ubs.routing;
+
+import greencity.entity.coords.Coordinates;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class RouteSequencerTest {
+    private final RouteSequencer routeSequencer = new RouteSequencer(ForkJoinPool.commonPool(), 49.84, 24.02, 1000);
+
+    @Test
+    void sequenceStartsFromNearestStopToDepot() {
+        Route route = routeSequencer.sequence(Set.of(new Coordinates(49.86, 24.02), new Coordinates(49.85, 24.02)));
+
+        assertEquals(new Coordinates(49.84, 24.02), route.getDepot());
+        assertEquals(List.of(new Coordinates(49.85, 24.02), new Coordinates(49.86, 24.02)), route.getStops());
+    }
+
+    @Test
+    void sequenceAllKeepsOrderOfClusters() {
+        List<Set<Coordinates>> clusters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clusters.add(Set.of(new Coordinates(49.8 + i * 0.01, 24.0), new Coordinates(49.8 + i * 0.01, 24.01)));
+        }
+
+        List<Route> routes = routeSequencer.sequenceAll(clusters);
+
+        assertEquals(clusters.size(), routes.size());
+        for (int i = 0; i < clusters.size(); i++) {
+            assertEquals(routeSequencer.sequence(clusters.get(i)), routes.get(i));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package greencity.service.ubs.routing;
+
+import greencity.entity.coords.Coordinates;
+import greencity.service.ubs.clustering.EarthDistance;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TourTest {
+    private static final Coordinates DEPOT = new Coordinates(49.84, 24.02);
+
+    @Test
+    void emptyTourHasNoStops() {
+        Tour tour = Tour.nearestNeighbour(DEPOT, List.of());
+
+        assertTrue(tour.improve(Long.MAX_VALUE));
+        Route route = tour.toRoute();
+        assertEquals(List.of(), route.getStops());
+        assertEquals(0, route.getLength());
+    }
+
+    @Test
+    void improvementRemovesCrossingsLeftByNearestNeighbour() {
+        // nearest neighbour leaves the far corner for the end and has to cross its own
+        // path
+        List<Coordinates> stops = List.of(new Coordinates(49.84, 24.05), new Coordinates(49.86, 24.04),
+            new Coordinates(49.84, 24.03), new Coordinates(49.845, 24.02), new Coordinates(49.86, 24.05),
+            new Coordinates(49.85, 24.03));
+        Tour tour = Tour.nearestNeighbour(DEPOT, stops);
+        double nearestNeighbourLength = tour.getLength();
+
+        assertTrue(tour.improve(Long.MAX_VALUE));
+
+        assertTrue(tour.getLength() < nearestNeighbourLength - 1);
+        assertEquals(bruteForceLength(stops), tour.getLength(), 1e-9);
+    }
+
+    @Test
+    void routeVisitsEveryStopOnceAndSumsLegs() {
+        Random random = new Random(7);
+        Set<Coordinates> stops = new HashSet<>();
+        while (stops.size() < 200) {
+            stops.add(new Coordinates(49.8 + random.nextDouble() * 0.1, 23.95 + random.nextDouble() * 0.15));
+        }
+        Tour tour = Tour.nearestNeighbour(DEPOT, stops);
+        double nearestNeighbourLength = tour.getLength();
+        tour.improve(Long.MAX_VALUE);
+
+        Route route = tour.toRoute();
+        assertEquals(stops, new HashSet<>(route.getStops()));
+        assertEquals(stops.size(), route.getStops().size());
+        double length = route.getReturnDistance();
+        for (double leg : route.getLegDistances()) {
+            length += leg;
+        }
+        assertEquals(route.getLength(), length, 1e-9);
+        assertTrue(route.getLength() < nearestNeighbourLength);
+    }
+
+    @Test
+    void improvementStopsAtTimeLimit() {
+        List<Coordinates> stops = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stops.add(new Coordinates(49.8 + (i % 7) * 0.01, 24 + i * 0.001));
+        }
+        Tour tour = Tour.nearestNeighbour(DEPOT, stops);
+        double nearestNeighbourLength = tour.getLength();
+
+        assertFalse(tour.improve(0));
+        assertEquals(nearestNeighbourLength, tour.getLength());
+    }
+
+    private static double bruteForceLength(List<Coordinates> stops) {
+        return permutations(new ArrayList<>(stops), 0, Double.MAX_VALUE);
+    }
+
+    private static double permutations(List<Coordinates> stops, int from, double best) {
+        if (from == stops.size()) {
+            return Math.min(best, length(stops));
+        }
+        double result = best;
+        for (int i = from; i < stops.size(); i++) {
+            Collections.swap(stops, from, i);
+            result = permutations(stops, from + 1, result);
+            Collections.swap(stops, from, i);
+        }
+        return result;
+    }
+
+    private static double length(List<Coordinates> stops) {
+        double length = 0;
+        Coordinates previous = DEPOT;
+        for (Coordinates stop : stops) {
+            length += EarthDistance.between(previous.getLatitude(),
+                previous.getLongitude(), stop.getLatitude(), stop.getLongitude());
+            previous = stop;
+        }
+        return length + EarthDistance.between(previous.getLatitude(),
+            previous.getLongitude(), DEPOT.getLatitude(), DEPOT.getLongitude());
+    }
+}
@@ -0,0 +1,46 @@
+-- three users, each with own telegram bot and address, and with an unpaid order of three days ago, an order on
+-- the route today and a paid order waiting for delivery
+INSERT INTO telegram_bot (id, chat_id)
+SELECT i, 1000 + i FROM generate_series(1, 3) i;
+
+INSERT INTO users (id, current_points, uuid, violations, telegram_bot_id)
+SELECT i, 0, md5(i::text), 0, i FROM generate_series(1, 3) i;
+
+INSERT INTO address (id, city, street, district, house_number, entrance_number, latitude, longitude, geohash)
+VALUES (1, 'Lviv', 'Stryiska', 'Frankivskyi', '1', '1', 49.801, 24.001, 'u8c561uzz'),
+       (2, 'Lviv', 'Stryiska', 'Frankivskyi', '2', '1', 49.802, 24.002, 'u8c564jtx'),
+       (3, 'Lviv', 'Stryiska', 'Frankivskyi', '3', '1', 49.803, 24.003, 'u8c564q7w');
+
+INSERT INTO ubs_user (id, email, first_name, last_name, phone_number, users_id, address_id)
+SELECT i, 'user' || i || '@mail.com', 'Name', 'Surname', '671234567', i, i FROM generate_series(1, 3) i;
+
+INSERT INTO payment (id, amount, currency, order_status)
+SELECT i, 100, 'UAH', 'approved' FROM generate_series(1, 3) i;
+
+INSERT INTO orders (id, order_date, order_status, points_to_use, ubs_user_id, users_id, total_litres, payment_id,
+                    deliver_from, deliver_to)
+SELECT i, current_date - 3 + time '10:00', 'FORMED', 0, i, i, 120, NULL, NULL, NULL
+FROM generate_series(1, 3) i
+UNION ALL
+SELECT 3 + i, current_date, 'ON_THE_ROUTE', 0, i, i, 120, i, current_date + time '09:00',
+       current_date + time '11:00'
+FROM generate_series(1, 3) i
+UNION ALL
+SELECT 6 + i, current_date, 'PAID', 0, i, i, 40 * i, NULL, NULL, NULL
+FROM generate_series(1, 3) i;
+
+INSERT INTO pending_litres_by_address (latitude, longitude, litres)
+SELECT a.latitude, a.longitude, sum(o.total_litres)
+FROM orders o
+JOIN ubs_user u ON u.id = o.ubs_user_id
+JOIN address a ON a.id = u.address_id
+WHERE o.order_status = 'PAID'
+GROUP BY a.latitude, a.longitude;
+
+-- bags of new orders, which take identifiers after the rows above
+INSERT INTO bag (id, capacity, name, price)
+VALUES (1, 120, 'Mixed waste', 250),
+       (2, 20, 'Textile', 50);
+
+SELECT setval('address_id_seq', 100), setval('ubs_user_id_seq', 100), setval('payment_id_seq', 100),
+       setval('orders_id_seq', 100);